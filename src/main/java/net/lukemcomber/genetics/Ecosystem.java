@@ -5,6 +5,7 @@ package net.lukemcomber.genetics;
  * This code is licensed under MIT license (see LICENSE.txt for details)
  */
 
+import net.lukemcomber.genetics.biology.Cell;
 import net.lukemcomber.genetics.biology.GenomeTransciber;
 import net.lukemcomber.genetics.biology.Organism;
 import net.lukemcomber.genetics.biology.OrganismFactory;
@@ -14,11 +15,13 @@ import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.TemporalCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
 import net.lukemcomber.genetics.model.ecosystem.EcosystemDetails;
+import net.lukemcomber.genetics.io.DeepCopier;
 import net.lukemcomber.genetics.io.GenomeSerDe;
 import net.lukemcomber.genetics.io.LoggerOutputStream;
 import net.lukemcomber.genetics.store.MetadataStoreFactory;
 import net.lukemcomber.genetics.store.MetadataStoreGroup;
 import net.lukemcomber.genetics.store.Primary;
+import net.lukemcomber.genetics.utilities.RandomStreams;
 import net.lukemcomber.genetics.world.ResourceManager;
 import net.lukemcomber.genetics.world.TerrainFactory;
 import net.lukemcomber.genetics.world.terrain.Terrain;
@@ -28,9 +31,10 @@ import org.apache.commons.lang3.StringUtils;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,24 +43,75 @@ import java.util.logging.Logger;
  */
 public abstract class Ecosystem {
 
+    public static final String PROPERTY_TICK_MODE = "ecosystem.tick.mode";
+    public static final String PROPERTY_TICK_TILE_SIZE = "ecosystem.tick.tile.size";
+    public static final String PROPERTY_TICK_PARALLELISM = "ecosystem.tick.parallelism";
+    public static final String PROPERTY_TICK_ORDER = "ecosystem.tick.order";
+
+    /**
+     * How organisms are advanced each tick
+     */
+    public enum TickMode {
+        /**
+         * One organism at a time, in population order
+         */
+        SERIAL,
+        /**
+         * Organisms in non-adjacent tiles of the terrain are ticked concurrently. With a master seed a run
+         *  is reproduced by a serial run in {@link TickOrder#TILE} order, whatever the parallelism. It only
+         *  matches the default {@link TickOrder#ID} order while organisms in different tiles do not compete
+         *  for a location or resource within a tick, since the order they are visited in decides who wins.
+         */
+        TILED,
+        /**
+         * Organisms plan concurrently against the terrain as it was at the start of the tick,
+         *  then commit their plans one at a time
+         */
+        INTENT
+    }
+
+    /**
+     * The order organisms are visited in by {@link TickMode#SERIAL}
+     */
+    public enum TickOrder {
+        /**
+         * Population order, organisms born during the tick may be visited in the same tick
+         */
+        ID,
+        /**
+         * In the order the terrain stores locations, so neighbouring organisms are visited together.
+         *  Organisms born during the tick are first visited in the next one.
+         */
+        SPATIAL,
+        /**
+         * Tile by tile, in the schedule {@link TickMode#TILED} runs concurrently. A serial run in this order
+         *  reproduces a tiled run with the same master seed.
+         */
+        TILE
+    }
+
     private static final Logger logger = Logger.getLogger(Ecosystem.class.getName());
-    private static final LoggerOutputStream loggerOutputStream = new LoggerOutputStream(logger, Level.INFO);
+    private static final DeepCopier branchCopier = new DeepCopier(UniverseConstants.class, MetadataStoreGroup.class);
+    private static final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+    private static final ThreadLocal<LoggerOutputStream> loggerOutputStream = ThreadLocal.withInitial(() -> new LoggerOutputStream(logger, Level.INFO));
 
     protected final UniverseConstants properties;
     protected final MetadataStoreGroup metadataStoreGroup;
-    private Terrain terrain;
     private final int ticksPerDay;
     private final String uuid;
     private final Map<SpatialCoordinates, String> initialPopulation;
-    private AtomicLong totalTicks;
-    private AtomicLong totalDays;
-    private AtomicInteger currentTick;
     private final String name;
     private final AtomicBoolean isRunning;
     private final AtomicBoolean isInitialized;
     private final AtomicBoolean isCleanedUp;
     private final SpatialCoordinates worldSize;
-    private final GenomeTransciber transciber;
+    private final TickMode tickMode;
+    private final TickOrder tickOrder;
+    private final TiledOrganismTicker tiledTicker;
+    private final IntentOrganismTicker intentTicker;
+    private volatile EcosystemState state;
+    private volatile boolean branched;
+    private volatile boolean quiet;
 
     public Ecosystem(final int ticksPerDay, final SpatialCoordinates size, final UniverseConstants universe) throws IOException {
         this(ticksPerDay, size, universe, null);
@@ -67,16 +122,28 @@ public abstract class Ecosystem {
     }
 
     public Ecosystem(final int ticksPerDay, final SpatialCoordinates size, final UniverseConstants universe, final GenomeTransciber transciber, final String name) throws IOException {
+        this(ticksPerDay, size, universe, transciber, name, null);
+    }
 
+    /**
+     * Create an ecosystem, optionally as a branch of another. A branch takes over a copy of the source's
+     *  state instead of creating its own terrain, see {@link #branchFrom(Ecosystem)}.
+     *
+     * @param ticksPerDay ticks in a day
+     * @param size        size of the terrain
+     * @param universe    configuration properties
+     * @param transciber  genome transcriber, or null for the default
+     * @param name        name of the ecosystem, or null to use its id
+     * @param source      ecosystem to branch from, or null to start a new one
+     * @throws IOException if the metadata store cannot be created
+     */
+    protected Ecosystem(final int ticksPerDay, final SpatialCoordinates size, final UniverseConstants universe,
+                        final GenomeTransciber transciber, final String name, final Ecosystem source) throws IOException {
 
         this.ticksPerDay = ticksPerDay;
         this.initialPopulation = new HashMap<>();
         this.worldSize = size;
 
-        totalDays = new AtomicLong(0);
-        totalTicks = new AtomicLong(0);
-        currentTick = new AtomicInteger(0);
-
         properties = universe;
         uuid = UUID.randomUUID().toString();
         if (StringUtils.isNotEmpty(name)) {
@@ -87,34 +154,77 @@ public abstract class Ecosystem {
 
         metadataStoreGroup = MetadataStoreFactory.getMetadataStore(uuid, properties);
 
-        if (Objects.isNull(transciber)) {
-            this.transciber = new AsexualTransposeAndMutateGeneTranscriber(universe);
+        tickMode = TickMode.valueOf(properties.get(PROPERTY_TICK_MODE, String.class, TickMode.SERIAL.name()).toUpperCase());
+        tickOrder = TickOrder.valueOf(properties.get(PROPERTY_TICK_ORDER, String.class, TickOrder.ID.name()).toUpperCase());
+
+        // A branch replaces the terrain and transcriber with copies of the source's
+        final GenomeTransciber genomeTransciber = Objects.isNull(transciber) && null == source
+                ? new AsexualTransposeAndMutateGeneTranscriber(universe, createRandomStreams(name))
+                : transciber;
+        final Terrain terrain = null == source ? TerrainFactory.create(size, properties, metadataStoreGroup, uuid) : null;
+
+        final int tileSize = properties.get(PROPERTY_TICK_TILE_SIZE, Integer.class, 32);
+        if (TickMode.SERIAL != tickMode) {
+            final ForkJoinPool pool = getPool(properties.get(PROPERTY_TICK_PARALLELISM, Integer.class, 0));
+            tiledTicker = TickMode.TILED == tickMode ? new TiledOrganismTicker(tileSize, pool) : null;
+            intentTicker = TickMode.INTENT == tickMode ? new IntentOrganismTicker(pool) : null;
         } else {
-            this.transciber = transciber;
+            tiledTicker = TickOrder.TILE == tickOrder ? new TiledOrganismTicker(tileSize, null) : null;
+            intentTicker = null;
         }
 
-        terrain = TerrainFactory.create(size, properties, metadataStoreGroup);
 
         isRunning = new AtomicBoolean(false);
+        state = new EcosystemState(terrain, new EcosystemClock(ticksPerDay), genomeTransciber, isRunning);
         isInitialized = new AtomicBoolean(false);
         isCleanedUp = new AtomicBoolean(false);
+
+        if (null != source) {
+            branchFrom(source);
+        }
+    }
+
+    /**
+     * Create the random streams the default transcriber draws from. Organisms ticked concurrently always draw
+     * from streams keyed by organism, so without a master seed the streams are seeded randomly. Streams are
+     * keyed by the configured name rather than the generated id, so seeded runs of unnamed ecosystems repeat.
+     *
+     * @param configuredName name the ecosystem was configured with, or null
+     * @return random streams, or null to use the transcriber's shared generator
+     */
+    private RandomStreams createRandomStreams(final String configuredName) {
+        final RandomStreams streams = RandomStreams.forName(properties, configuredName);
+        if (null == streams && TickMode.SERIAL != tickMode) {
+            return new RandomStreams(new SplittableRandom().nextLong()).child(RandomStreams.key(name));
+        }
+        return streams;
+    }
+
+    /**
+     * Get the pool shared by every ecosystem ticking with the same parallelism. Pools are created on first use
+     * and live as long as the JVM, their threads are daemons and idle threads are retired by the pool.
+     *
+     * @param parallelism number of threads, or 0 for the common pool
+     * @return pool
+     */
+    private static ForkJoinPool getPool(final int parallelism) {
+        if (0 >= parallelism) {
+            return ForkJoinPool.commonPool();
+        }
+        return pools.computeIfAbsent(parallelism, ForkJoinPool::new);
     }
 
     protected GenomeTransciber getGnomeTranscriber() {
-        return transciber;
+        return state.transciber();
     }
 
+    /**
+     * Get the current time. Never blocks.
+     *
+     * @return time snapshot
+     */
     public TemporalCoordinates getTime() {
-        final long totalTicks;
-        final long totalDays;
-        final int currentTick;
-
-        synchronized (Ecosystem.class) {
-            totalTicks = this.totalTicks.get();
-            totalDays = this.totalDays.get();
-            currentTick = this.currentTick.get();
-        }
-        return new TemporalCoordinates(totalTicks, totalDays, currentTick);
+        return state.clock().now();
     }
 
     protected AtomicBoolean getIsRunning() {
@@ -136,7 +246,7 @@ public abstract class Ecosystem {
      */
     @Deprecated
     public long getTotalTicks() {
-        return totalTicks.get();
+        return state.clock().now().totalTicks();
     }
 
     /**
@@ -146,7 +256,7 @@ public abstract class Ecosystem {
      */
     @Deprecated
     public void setTotalTicks(final long totalTicks) {
-        this.totalTicks.set(totalTicks);
+        state.clock().setTotalTicks(totalTicks);
     }
 
     /**
@@ -156,7 +266,7 @@ public abstract class Ecosystem {
      */
     @Deprecated
     public long getTotalDays() {
-        return totalDays.get();
+        return state.clock().now().totalDays();
     }
 
     /**
@@ -166,7 +276,7 @@ public abstract class Ecosystem {
      */
     @Deprecated
     public void setTotalDays(final long totalDays) {
-        this.totalDays.set(totalDays);
+        state.clock().setTotalDays(totalDays);
     }
 
     /**
@@ -175,7 +285,7 @@ public abstract class Ecosystem {
      * @return terrain
      */
     public Terrain getTerrain() {
-        return terrain;
+        return state.terrain();
     }
 
     /**
@@ -185,7 +295,7 @@ public abstract class Ecosystem {
      */
     @Deprecated
     public int getCurrentTick() {
-        return currentTick.get();
+        return (int) state.clock().now().currentTick();
     }
 
     /**
@@ -195,7 +305,7 @@ public abstract class Ecosystem {
      */
     @Deprecated
     public void setCurrentTick(final int currentTick) {
-        this.currentTick.set(currentTick);
+        state.clock().setCurrentTick(currentTick);
     }
 
     /**
@@ -243,8 +353,12 @@ public abstract class Ecosystem {
      * Refresh the ecosystem's resources
      */
     void refreshResources() {
-        if (isRunning.get()) {
-            final ResourceManager manager = getTerrain().getResourceManager();
+        refreshResources(state);
+    }
+
+    private void refreshResources(final EcosystemState state) {
+        if (state.running().get()) {
+            final ResourceManager manager = state.terrain().getResourceManager();
             manager.renewDailyEnvironmentResource();
         }
     }
@@ -259,9 +373,9 @@ public abstract class Ecosystem {
 
                 final Organism organism = OrganismFactory.create(Organism.DEFAULT_PARENT,
                         GenomeSerDe.deserialize(record.getValue()), record.getKey(), getTime(),
-                        getProperties(), groupStore, transciber);
+                        getProperties(), groupStore, getGnomeTranscriber());
 
-                terrain.addOrganism(organism);
+                getTerrain().addOrganism(organism);
             }
         } catch (final DecoderException | IOException e) {
             throw new RuntimeException(e);
@@ -295,10 +409,39 @@ public abstract class Ecosystem {
         isRunning.set(active);
     }
 
+    /**
+     * Get how organisms are advanced each tick
+     *
+     * @return tick mode
+     */
+    public TickMode getTickMode() {
+        return tickMode;
+    }
+
     public SpatialCoordinates getWorldSize() {
         return worldSize;
     }
 
+    /**
+     * Suppress this ecosystem's per tick and per organism logging, including organism dumps. Other ecosystems
+     *  sharing the logger are unaffected. Organisms and cells log what they do at {@link Level#FINE}, which
+     *  is not affected by this.
+     *
+     * @param quiet true to suppress logging
+     */
+    protected void setQuiet(final boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /**
+     * Check if per tick logging should be produced
+     *
+     * @return true if logging
+     */
+    protected boolean isLogging() {
+        return !quiet && logger.isLoggable(Level.INFO);
+    }
+
 
     /**
      * Get the ecosystem configuration used to build this ecosystem
@@ -307,17 +450,86 @@ public abstract class Ecosystem {
      */
     public abstract EcosystemDetails getSetupConfiguration();
 
+    /**
+     * Get the state advanced by ticks
+     *
+     * @return current state
+     */
+    EcosystemState getState() {
+        return state;
+    }
+
+    /**
+     * Replace the ecosystem's state with one advanced elsewhere, typically a copy. The ecosystem's
+     *  activity follows the adopted state.
+     *
+     * @param adopted state to adopt
+     */
+    void adoptState(final EcosystemState adopted) {
+        isRunning.set(adopted.running().get());
+        state = new EcosystemState(adopted.terrain(), adopted.clock(), adopted.transciber(), isRunning);
+    }
+
+    /**
+     * Make this ecosystem a branch of another by taking over a copy of its state. References to the
+     *  source's configuration properties and metadata are swapped for this ecosystem's own, so the
+     *  branch runs under its own properties and records its own history from here on. The source
+     *  must be between ticks.
+     *
+     * @param source ecosystem to branch from
+     */
+    private void branchFrom(final Ecosystem source) {
+        final Map<Object, Object> substitutions = new IdentityHashMap<>();
+        substitutions.put(source.properties, properties);
+        for (final MetadataStoreGroup group : source.getMetadataStoreGroups()) {
+            substitutions.put(group, metadataStoreGroup);
+        }
+        adoptState(source.getState().copy(branchCopier, substitutions));
+        initialPopulation.putAll(source.getInitialPopulation());
+        branched = source.getIsInitialized().get();
+    }
+
+    /**
+     * Get the metadata groups the ecosystem's state may reference
+     *
+     * @return metadata groups
+     */
+    Collection<MetadataStoreGroup> getMetadataStoreGroups() {
+        return List.of(metadataStoreGroup);
+    }
+
+    /**
+     * Initialize the terrain's resources, unless they were copied from an ecosystem that was already running
+     */
+    protected void initializeTerrainResources() {
+        final ResourceManager manager = getTerrain().getResourceManager();
+        if (!branched && null != manager) {
+            manager.initializeAllTerrainResources();
+        }
+    }
+
     /**
      * Advance the environment by one tick
      */
     protected void tickEnvironment() {
-        final long currentDay = getTotalDays();
-        tick(1);
+        tickEnvironment(state);
+    }
+
+    /**
+     * Advance the environment of a state by one tick
+     *
+     * @param state state to advance
+     */
+    void tickEnvironment(final EcosystemState state) {
+        final long currentDay = state.clock().now().totalDays();
+        final TemporalCoordinates time = state.clock().advance(1);
 
-        logger.info("Tick:  " + getTotalTicks());
+        if (isLogging()) {
+            logger.info("Tick:  " + time.totalTicks());
+        }
         // We advanced a day
-        if (getTotalDays() > currentDay) {
-            refreshResources();
+        if (time.totalDays() > currentDay) {
+            refreshResources(state);
         }
     }
 
@@ -325,42 +537,80 @@ public abstract class Ecosystem {
      * Advance all organisms by one tick
      */
     protected void tickOrganisms() {
-        final TemporalCoordinates temporalCoordinates = new TemporalCoordinates(getTotalTicks(), getTotalDays(), getCurrentTick());
-        logger.info("Organism count " + getTerrain().getOrganismCount());
-
-        /*
-         * Organisms remove themselves (or rather the terrain removes them) from
-         *  the world which can cause a Concurrency problem. We can solve this
-         *  by creating a new reference to the collection.
-         *
-         * More thought should be given to making this purely asynchronous
-         */
-        for (final Iterator<Organism> it = getTerrain().getOrganisms(); it.hasNext(); ) {
-            final Organism organism = it.next();
-            logger.info("Ticking Organism: " + organism.getUniqueID());
-            organism.performAction(getTerrain(), temporalCoordinates, ((organism1, cell) -> {
-                final ResourceManager manager = getTerrain().getResourceManager();
-                manager.renewEnvironmentResourceFromCellDeath(organism1, cell);
-                logger.info("Organism " + organism1.getUniqueID() + " decayed.");
-            }));
-            organism.prettyPrint(loggerOutputStream);
+        tickOrganisms(state);
+    }
 
+    /**
+     * Advance all organisms of a state by one tick
+     *
+     * @param state state to advance
+     */
+    void tickOrganisms(final EcosystemState state) {
+        final Terrain terrain = state.terrain();
+        final TemporalCoordinates temporalCoordinates = state.clock().now();
+        final BiConsumer<Organism, Cell> onCellDeath = (organism, cell) -> onCellDeath(terrain, organism, cell);
+        if (isLogging()) {
+            logger.info("Organism count " + terrain.getOrganismCount());
         }
-        if (0 == getTerrain().getOrganismCount()) {
-            isActive(false);
+
+        switch (tickMode) {
+            case TILED -> tiledTicker.tick(terrain, organism -> tickOrganism(state, organism, temporalCoordinates, onCellDeath));
+            case INTENT -> intentTicker.tick(terrain, temporalCoordinates, onCellDeath, this::logOrganism, isLogging());
+            default -> {
+                if (TickOrder.TILE == tickOrder) {
+                    tiledTicker.tick(terrain, organism -> tickOrganism(state, organism, temporalCoordinates, onCellDeath));
+                } else if (TickOrder.SPATIAL == tickOrder) {
+                    for (final Organism organism : terrain.getOrganismsInSpatialOrder()) {
+                        // skip organisms removed earlier in the tick
+                        if (terrain.hasOrganism(organism)) {
+                            tickOrganism(state, organism, temporalCoordinates, onCellDeath);
+                        }
+                    }
+                } else {
+                    /*
+                     * Organisms remove themselves (or rather the terrain removes them) from
+                     *  the world which can cause a Concurrency problem. We can solve this
+                     *  by creating a new reference to the collection.
+                     */
+                    for (final Iterator<Organism> it = terrain.getOrganisms(); it.hasNext(); ) {
+                        tickOrganism(state, it.next(), temporalCoordinates, onCellDeath);
+                    }
+                }
+            }
+        }
+        if (0 == terrain.getOrganismCount()) {
+            state.running().set(false);
         }
     }
 
-    private void tick(final int steps) {
-        synchronized (Ecosystem.class) {
-            //TODO there is a bug here if step is larger than 1 day
-            totalTicks.addAndGet(steps);
-            currentTick.addAndGet(steps);
+    /**
+     * Advance a single organism by one tick. May be called concurrently for organisms in different tiles.
+     *
+     * @param state               state the organism belongs to
+     * @param organism            organism to advance
+     * @param temporalCoordinates current time
+     * @param onCellDeath         callback if a cell dies
+     */
+    private void tickOrganism(final EcosystemState state, final Organism organism,
+                              final TemporalCoordinates temporalCoordinates, final BiConsumer<Organism, Cell> onCellDeath) {
+        if (isLogging()) {
+            logger.info("Ticking Organism: " + organism.getUniqueID());
+        }
+        organism.performAction(state.terrain(), temporalCoordinates, onCellDeath);
+        logOrganism(organism);
+    }
 
-            if (currentTick.get() >= ticksPerDay) {
-                totalDays.incrementAndGet();
-                currentTick.set(0);
-            }
+    private void onCellDeath(final Terrain terrain, final Organism organism, final Cell cell) {
+        final ResourceManager manager = terrain.getResourceManager();
+        manager.renewEnvironmentResourceFromCellDeath(organism, cell);
+        if (isLogging()) {
+            logger.info("Organism " + organism.getUniqueID() + " decayed.");
+        }
+    }
+
+    private void logOrganism(final Organism organism) {
+        if (isLogging()) {
+            organism.prettyPrint(loggerOutputStream.get());
         }
     }
 }
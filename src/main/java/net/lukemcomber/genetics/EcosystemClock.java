@@ -0,0 +1,98 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.model.TemporalCoordinates;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * The simulation clock of a single ecosystem. The current time is held as an immutable
+ * {@link TemporalCoordinates} snapshot, so readers never lock and always see a consistent
+ * tick, day, and tick of day. Every change publishes a new snapshot with a single atomic write.
+ */
+class EcosystemClock {
+
+    private final int ticksPerDay;
+    private final AtomicReference<TemporalCoordinates> time;
+
+    /**
+     * Create a new clock starting at tick 0
+     *
+     * @param ticksPerDay ticks in a day
+     */
+    EcosystemClock(final int ticksPerDay) {
+        // A day is never shorter than a tick
+        this.ticksPerDay = Math.max(1, ticksPerDay);
+        this.time = new AtomicReference<>(new TemporalCoordinates(0, 0, 0));
+    }
+
+    /**
+     * Create a new clock at the same time as another
+     *
+     * @param other clock to copy
+     */
+    EcosystemClock(final EcosystemClock other) {
+        this.ticksPerDay = other.ticksPerDay;
+        this.time = new AtomicReference<>(other.now());
+    }
+
+    /**
+     * Get the current time
+     *
+     * @return time snapshot
+     */
+    TemporalCoordinates now() {
+        return time.get();
+    }
+
+    /**
+     * Advance the clock. Steps may span any number of days.
+     *
+     * @param steps ticks to advance
+     * @return the new time
+     */
+    TemporalCoordinates advance(final long steps) {
+        return update(current -> {
+            final long tickOfDay = current.currentTick() + steps;
+            return new TemporalCoordinates(current.totalTicks() + steps,
+                    current.totalDays() + tickOfDay / ticksPerDay,
+                    tickOfDay % ticksPerDay);
+        });
+    }
+
+    /**
+     * Set the total ticks, leaving the day unchanged
+     *
+     * @param totalTicks total ticks
+     */
+    void setTotalTicks(final long totalTicks) {
+        update(current -> new TemporalCoordinates(totalTicks, current.totalDays(), current.currentTick()));
+    }
+
+    /**
+     * Set the total days, leaving the ticks unchanged
+     *
+     * @param totalDays total days
+     */
+    void setTotalDays(final long totalDays) {
+        update(current -> new TemporalCoordinates(current.totalTicks(), totalDays, current.currentTick()));
+    }
+
+    /**
+     * Set the tick of the day, leaving the totals unchanged
+     *
+     * @param currentTick tick of the day
+     */
+    void setCurrentTick(final long currentTick) {
+        update(current -> new TemporalCoordinates(current.totalTicks(), current.totalDays(), currentTick));
+    }
+
+    private TemporalCoordinates update(final UnaryOperator<TemporalCoordinates> change) {
+        return time.updateAndGet(change);
+    }
+}
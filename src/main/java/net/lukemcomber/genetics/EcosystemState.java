@@ -0,0 +1,39 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.GenomeTransciber;
+import net.lukemcomber.genetics.io.DeepCopier;
+import net.lukemcomber.genetics.world.terrain.Terrain;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Everything an ecosystem advances when it ticks. Keeping it together lets an ecosystem tick a copy of
+ * its state and swap it in afterwards.
+ *
+ * @param terrain    terrain, organisms, and resources
+ * @param clock      simulation time
+ * @param transciber genome transcriber, including its random state
+ * @param running    false once the population has died out
+ */
+record EcosystemState(Terrain terrain, EcosystemClock clock, GenomeTransciber transciber, AtomicBoolean running) {
+
+    /**
+     * Deep copy the state. The copy shares nothing mutable with the original except what the copier
+     * is configured to share.
+     *
+     * @param copier        copier to use
+     * @param substitutions shared objects the copy should reference in place of the originals
+     * @return independent copy
+     */
+    EcosystemState copy(final DeepCopier copier, final Map<?, ?> substitutions) {
+        final Object[] graph = copier.copy(new Object[]{terrain, transciber}, substitutions);
+        return new EcosystemState((Terrain) graph[0], new EcosystemClock(clock),
+                (GenomeTransciber) graph[1], new AtomicBoolean(running.get()));
+    }
+}
@@ -17,27 +17,59 @@ import net.lukemcomber.genetics.store.Metadata;
 import net.lukemcomber.genetics.store.MetadataStore;
 import net.lukemcomber.genetics.store.impl.MetadataStorage;
 import net.lukemcomber.genetics.store.metadata.Environment;
+import net.lukemcomber.genetics.utilities.ConvergenceMonitor;
+import net.lukemcomber.genetics.utilities.SharedScheduler;
+import net.lukemcomber.genetics.utilities.TickPacer;
 import net.lukemcomber.genetics.world.terrain.Terrain;
 
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * An ecosystem that once started will run until end without input
+ * An ecosystem that once started will run until end without input. It ends after its maximum days, once
+ * the population dies out, or earlier if a {@link ConvergenceMonitor} criterion is configured and met.
+ * <p>
+ * When the simulation ends, the clean up hook runs on the last tick so it can collect results, then
+ * {@link #getSimulationEnd()} completes. Exporting the metadata runs afterwards in the background and
+ * {@link #getCompletion()} completes once it is done, so whoever is waiting on the results can move on
+ * while the export is still running. The export thread is not a daemon, so the JVM waits for it before
+ * exiting.
  */
 public class EpochEcosystem extends Ecosystem implements Runnable {
 
+    /**
+     * A fork waiting for the ecosystem to finish its current tick
+     *
+     * @param universe configuration properties for the fork
+     * @param name     name of the fork
+     * @param result   completes with the fork
+     */
+    private record ForkRequest(UniverseConstants universe, String name, CompletableFuture<EpochEcosystem> result) {
+    }
+
     private final Logger logger = Logger.getLogger(EpochEcosystem.class.getName());
 
     private final EpochEcosystemConfiguration configuration;
     private final Thread ecosystemThread;
+    private final CompletableFuture<Void> simulationEnd;
+    private final CompletableFuture<Void> completion;
+    private final boolean sharedExecution;
+    private final TickPacer pacer;
+    private final ConvergenceMonitor convergence;
+    private final Queue<ForkRequest> forkRequests;
 
     private Callable<Void> cleanUpFunction;
+    private final int environmentSampleRate;
 
     public EpochEcosystem(final UniverseConstants universe, final EpochEcosystemConfiguration configuration) throws IOException {
         this( universe, configuration, null);
@@ -45,7 +77,12 @@ public class EpochEcosystem extends Ecosystem implements Runnable {
     }
 
     public EpochEcosystem(final UniverseConstants universe, final EpochEcosystemConfiguration configuration, final GenomeTransciber transcriber) throws IOException {
-        super(configuration.getTicksPerDay(), configuration.getSize(), universe, transcriber, configuration.getName());
+        this(universe, configuration, transcriber, null);
+    }
+
+    private EpochEcosystem(final UniverseConstants universe, final EpochEcosystemConfiguration configuration,
+                           final GenomeTransciber transcriber, final EpochEcosystem source) throws IOException {
+        super(configuration.getTicksPerDay(), configuration.getSize(), universe, transcriber, configuration.getName(), source);
 
         this.configuration = configuration;
 
@@ -57,12 +94,120 @@ public class EpochEcosystem extends Ecosystem implements Runnable {
         ecosystemThread.setName("World-" + getId());
         ecosystemThread.setDaemon(true);
 
+        simulationEnd = new CompletableFuture<>();
+        completion = new CompletableFuture<>();
+        sharedExecution = SharedScheduler.isEnabled(universe);
+        environmentSampleRate = universe.get(Environment.PROPERTY_SAMPLE_RATE, Integer.class, 10);
+        pacer = new TickPacer(universe, Math.max(0, configuration.getTickDelayMs()));
+        convergence = ConvergenceMonitor.forEpoch(universe);
+        forkRequests = new ConcurrentLinkedQueue<>();
     }
 
+    /**
+     * Get the thread the ecosystem runs on. In shared execution mode the thread is never started.
+     *
+     * @return ecosystem thread
+     */
     public Thread getEcosystemThread() { //TODO protected
         return ecosystemThread;
     }
 
+    /**
+     * Get a future that completes once the simulation has finished and its data has been saved
+     *
+     * @return completion future
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Get a future that completes once the last tick has run and the clean up hook has returned. The
+     * simulation's data may still be being saved.
+     *
+     * @return simulation end future
+     */
+    public CompletableFuture<Void> getSimulationEnd() {
+        return simulationEnd;
+    }
+
+    /**
+     * Block until the simulation has finished and its data has been saved
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitCompletion() throws InterruptedException {
+        await(completion);
+    }
+
+    /**
+     * Block until the last tick has run and the clean up hook has returned
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitSimulationEnd() throws InterruptedException {
+        await(simulationEnd);
+    }
+
+    private void await(final CompletableFuture<Void> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (final ExecutionException e) {
+            throw new EvolutionException("Simulation " + getId() + " failed: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Branch the ecosystem. A running ecosystem is forked between ticks, so the returned future completes
+     *  once the current tick has finished. The fork starts with a copy of the terrain, organisms, and time,
+     *  then runs independently under the given properties and records its own metadata. Organisms that
+     *  cache properties keep the values they were created with. The fork must be initialized to start it.
+     *
+     * @param universe configuration properties for the fork
+     * @param name     name of the fork
+     * @return future completing with the fork, or exceptionally if the simulation has already finished
+     */
+    public CompletableFuture<EpochEcosystem> fork(final UniverseConstants universe, final String name) {
+        final ForkRequest request = new ForkRequest(universe, name, new CompletableFuture<>());
+        if (getIsInitialized().get()) {
+            forkRequests.add(request);
+            if (simulationEnd.isDone()) {
+                failForkRequests();
+            }
+        } else {
+            // not started, nothing else touches the state
+            fork(request);
+        }
+        return request.result();
+    }
+
+    private void fork(final ForkRequest request) {
+        try {
+            final EpochEcosystemConfiguration forkConfiguration = EpochEcosystemConfiguration.builder()
+                    .maxDays(configuration.getMaxDays())
+                    .tickDelayMs(configuration.getTickDelayMs())
+                    .ticksPerDay(configuration.getTicksPerDay())
+                    .size(configuration.getSize())
+                    .name(request.name())
+                    .build();
+            request.result().complete(new EpochEcosystem(request.universe(), forkConfiguration, null, this));
+        } catch (final IOException | RuntimeException e) {
+            request.result().completeExceptionally(e);
+        }
+    }
+
+    private void runForkRequests() {
+        for (ForkRequest request = forkRequests.poll(); null != request; request = forkRequests.poll()) {
+            fork(request);
+        }
+    }
+
+    private void failForkRequests() {
+        for (ForkRequest request = forkRequests.poll(); null != request; request = forkRequests.poll()) {
+            request.result().completeExceptionally(new EvolutionException("Simulation " + getId() + " has finished."));
+        }
+    }
+
     /**
      * Get the maximum days allowed
      *
@@ -100,9 +245,10 @@ public class EpochEcosystem extends Ecosystem implements Runnable {
         setupConfiguration.setActive(isActive());
         setupConfiguration.setName(getName());
         setupConfiguration.setId(getId());
-        setupConfiguration.setTotalDays(getTotalDays());
-        setupConfiguration.setCurrentTick(getCurrentTick());
-        setupConfiguration.setTotalTicks(getTotalTicks());
+        final TemporalCoordinates time = getTime();
+        setupConfiguration.setTotalDays(time.totalDays());
+        setupConfiguration.setCurrentTick(time.currentTick());
+        setupConfiguration.setTotalTicks(time.totalTicks());
         setupConfiguration.setCurrentOrganismCount(getTerrain().getOrganismCount());
         setupConfiguration.setTotalOrganismCount(getTerrain().getTotalOrganismCount());
         setupConfiguration.setProperties(getProperties().toMap());
@@ -122,11 +268,15 @@ public class EpochEcosystem extends Ecosystem implements Runnable {
     public synchronized void initialize(final Callable<Void> cleanUpFunction) {
         if (getIsInitialized().compareAndSet(false, true)) {
             this.cleanUpFunction = cleanUpFunction;
-            if (null != getTerrain().getResourceManager()) {
-                getTerrain().getResourceManager().initializeAllTerrainResources();
-            }
+            initializeTerrainResources();
             isActive(true);
-            ecosystemThread.start();
+            pacer.start(System.nanoTime());
+            convergence.start(System.nanoTime());
+            if (sharedExecution) {
+                scheduleNextTick(0);
+            } else {
+                ecosystemThread.start();
+            }
         }
     }
 
@@ -141,67 +291,161 @@ public class EpochEcosystem extends Ecosystem implements Runnable {
                 throw new EvolutionException("Ecosystem must be initialized before running.");
             }
             boolean active;
-            final int environmentSampleRate = properties.get(Environment.PROPERTY_SAMPLE_RATE, Integer.class, 10);
             do {
-                active = isActive();
-                final long startTimeMillis = -System.currentTimeMillis();
-
-                logger.info("Ticking world " + getId());
-                tickEnvironment();
-                tickOrganisms();
-
-                if (getTotalTicks() % environmentSampleRate == 0) {
-
-                    final Environment environmentData = new Environment();
-                    environmentData.setTickCount(getTotalTicks());
-                    environmentData.setTotalOrganisms((long) getTerrain().getOrganismCount());
+                active = step();
 
-                    final MetadataStore<Environment> dataStore = metadataStoreGroup.get(Environment.class);
-                    dataStore.store(environmentData);
-                }
-
-                if (getTotalDays() >= configuration.getMaxDays()) {
-                    isActive(false);
-                }
-
-                if( !active ){
-                    killRemainingOrganisms();
-                    final Set<Class<? extends Metadata>> activeStores = metadataStoreGroup.getActiveMetadataStores();
-                    activeStores.forEach(clazz -> {
-
-                        MetadataStore<?> storage = metadataStoreGroup.get(clazz);
-                        final String path = MetadataStorage.persist(storage, getName(), properties);
-                        logger.info("Saved data: " + path);
-                    });
-                    if (Objects.nonNull(this.cleanUpFunction)) {
-                        try {
-                            cleanUpFunction.call();
-                        } catch (final Exception e) {
-                            logger.log(Level.SEVERE, "Clean up hook failed unexpectedly.", e);
-                        }
-                    }
-                    metadataStoreGroup.markForExpiration();
-                } else {
-
-                    final long processingTime = System.currentTimeMillis() + startTimeMillis;
-                    final long sleepTime = getTickDelayMs() - processingTime;
+                if (active) {
+                    runForkRequests();
+                    final long sleepTime = pacer.delayAfterTick(System.nanoTime());
                     if (0 < sleepTime) {
-                        Thread.sleep(sleepTime); //throttle
+                        TimeUnit.NANOSECONDS.sleep(sleepTime); //throttle
                     }
                 }
             } while( active );
-            getTerrain().clear();
 
         } catch (final InterruptedException e) {
             logger.log(Level.SEVERE, String.format("World id %s failed to delay. Terminating.", getId()), e);
+        } catch (final RuntimeException e) {
+            fail(e);
+            throw e;
+        }
+        finish();
+    }
+
+    /**
+     * Run a single tick on the shared scheduler and queue the next one. The delay takes the place of
+     * the sleep in {@link #run()}, so paced ecosystems hold no thread between ticks. Unthrottled
+     * ecosystems are requeued rather than looped so they take turns with everything else on the pool.
+     */
+    private void runScheduledTick() {
+        try {
+            if (step()) {
+                runForkRequests();
+                scheduleNextTick(pacer.delayAfterTick(System.nanoTime()));
+            } else {
+                finish();
+            }
+        } catch (final RuntimeException e) {
+            logger.log(Level.SEVERE, String.format("World id %s failed. Terminating.", getId()), e);
+            isActive(false);
+            fail(e);
+        }
+    }
+
+    private void scheduleNextTick(final long delayNanos) {
+        if (0 < delayNanos) {
+            SharedScheduler.get(properties).schedule(this::runScheduledTick, delayNanos, TimeUnit.NANOSECONDS);
+        } else {
+            SharedScheduler.get(properties).execute(this::runScheduledTick);
+        }
+    }
+
+    /**
+     * Advance the world by one tick. Once the ecosystem becomes inactive, the last tick hands the
+     * simulation's results to the clean up hook and releases the terrain.
+     *
+     * @return true if the simulation should keep running
+     */
+    private boolean step() {
+        final boolean active = isActive();
+
+        logger.info("Ticking world " + getId());
+        tickEnvironment();
+        tickOrganisms();
+        if (active) {
+            afterTick();
         }
+
+        final TemporalCoordinates time = getTime();
+        if (time.totalTicks() % environmentSampleRate == 0) {
+
+            final Environment environmentData = new Environment();
+            environmentData.setTickCount(time.totalTicks());
+            environmentData.setTotalOrganisms((long) getTerrain().getOrganismCount());
+
+            final MetadataStore<Environment> dataStore = metadataStoreGroup.get(Environment.class);
+            dataStore.store(environmentData);
+        }
+
+        if (time.totalDays() >= configuration.getMaxDays()) {
+            isActive(false);
+        }
+
+        if (active && convergence.isEnabled() && isActive() && convergence.onTick(getTerrain().getOrganismCount(),
+                getTerrain().getTotalOrganismCount(), System.nanoTime())) {
+            logger.info("Simulation " + getId() + " converged, " + convergence.getReason() + ".");
+            isActive(false);
+        }
+
+        if( !active ){
+            killRemainingOrganisms();
+            // the hook reads what the last organisms wrote
+            metadataStoreGroup.getActiveMetadataStores()
+                    .forEach(clazz -> metadataStoreGroup.get(clazz).awaitPendingWrites());
+            if (Objects.nonNull(this.cleanUpFunction)) {
+                try {
+                    cleanUpFunction.call();
+                } catch (final Exception e) {
+                    logger.log(Level.SEVERE, "Clean up hook failed unexpectedly.", e);
+                }
+            }
+            getTerrain().release();
+        }
+        return active;
+    }
+
+    /**
+     * Called after every tick the simulation is active for, before the end conditions are checked. The
+     * population may have died out during the tick, reactivating the ecosystem keeps it running.
+     */
+    protected void afterTick() {
+    }
+
+    private void finish() {
         logger.info("Simulation " + getId() + " finished.");
         isActive(false);
+        simulationEnd.complete(null);
+        failForkRequests();
+
+        final Runnable persist = this::persist;
+        if (sharedExecution) {
+            SharedScheduler.get(properties).execute(persist);
+        } else {
+            // not a daemon, exiting mid-export would leave truncated files behind
+            final Thread persistThread = new Thread(persist, "World-" + getId() + "-persist");
+            persistThread.setDaemon(false);
+            persistThread.start();
+        }
+    }
+
+    /**
+     * Save the simulation's data and let the metadata stores expire
+     */
+    private void persist() {
+        try {
+            final Set<Class<? extends Metadata>> activeStores = metadataStoreGroup.getActiveMetadataStores();
+            activeStores.forEach(clazz -> {
+
+                MetadataStore<?> storage = metadataStoreGroup.get(clazz);
+                final String path = MetadataStorage.persist(storage, getName(), properties);
+                logger.info("Saved data: " + path);
+            });
+            metadataStoreGroup.markForExpiration();
+            completion.complete(null);
+        } catch (final RuntimeException e) {
+            logger.log(Level.SEVERE, String.format("World id %s failed to save data.", getId()), e);
+            completion.completeExceptionally(e);
+        }
+    }
 
+    private void fail(final Throwable e) {
+        simulationEnd.completeExceptionally(e);
+        completion.completeExceptionally(e);
+        failForkRequests();
     }
 
     private void killRemainingOrganisms() {
-        final TemporalCoordinates temporalCoordinates = new TemporalCoordinates(getTotalTicks(), getTotalDays(), getCurrentTick());
+        final TemporalCoordinates temporalCoordinates = getTime();
 
         for (final Iterator<Organism> it = getTerrain().getOrganisms(); it.hasNext(); ) {
             final Organism organism = it.next();
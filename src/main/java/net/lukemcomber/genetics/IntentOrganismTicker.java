@@ -0,0 +1,113 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.Cell;
+import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.biology.plant.GrowthIntent;
+import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.TemporalCoordinates;
+import net.lukemcomber.genetics.world.terrain.Terrain;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Ticks organisms in two phases. During the plan phase every organism decides what its cells will do
+ * against the terrain as it was at the start of the tick; plans are computed concurrently because nothing
+ * is written. The commit phase then resolves all claims on the terrain at once and lets each organism
+ * apply its plan, one organism at a time in population order.
+ * <p>
+ * A claim is rejected if its location is out of bounds, already occupied, or was claimed earlier in
+ * population order, with cells claiming in the order they act. Rejected intents are collisions.
+ */
+class IntentOrganismTicker {
+
+    private static final Logger logger = Logger.getLogger(IntentOrganismTicker.class.getName());
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a new ticker
+     *
+     * @param pool pool to plan on
+     */
+    IntentOrganismTicker(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Tick every organism currently in the terrain. Organisms added during the tick are not visited.
+     *
+     * @param terrain             terrain the organisms live in
+     * @param temporalCoordinates current time
+     * @param onCellDeath         callback if a cell dies
+     * @param afterCommit         called for each organism after its plan has been committed
+     * @param logging             true to log the outcome of resolving claims
+     */
+    void tick(final Terrain terrain, final TemporalCoordinates temporalCoordinates,
+              final BiConsumer<Organism, Cell> onCellDeath, final Consumer<Organism> afterCommit,
+              final boolean logging) {
+
+        final List<Organism> organisms = new ArrayList<>(terrain.getOrganismCount());
+        terrain.getOrganisms().forEachRemaining(organisms::add);
+
+        final List<List<GrowthIntent>> plans;
+        try {
+            plans = pool.submit(() -> organisms.parallelStream()
+                    .map(organism -> organism.planAction(terrain, temporalCoordinates))
+                    .collect(Collectors.toList())).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EvolutionException("Interrupted while planning organism actions.");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+
+        final Set<GrowthIntent> accepted = resolve(terrain, plans, logging);
+
+        for (final Organism organism : organisms) {
+            organism.commitAction(terrain, temporalCoordinates, accepted::contains, onCellDeath);
+            afterCommit.accept(organism);
+        }
+    }
+
+    /**
+     * Award each contested location to its first claimant
+     *
+     * @param terrain terrain as of the start of the tick
+     * @param plans   intents per organism, in population order
+     * @param logging true to log the number of claims and collisions
+     * @return the intents that may be applied
+     */
+    static Set<GrowthIntent> resolve(final Terrain terrain, final List<List<GrowthIntent>> plans, final boolean logging) {
+        final Map<SpatialCoordinates, GrowthIntent> claims = new HashMap<>();
+        int collisions = 0;
+
+        for (final List<GrowthIntent> intents : plans) {
+            for (final GrowthIntent intent : intents) {
+                final SpatialCoordinates target = intent.target();
+                if (terrain.isOutOfBounds(target) || terrain.hasCell(target) || null != claims.putIfAbsent(target, intent)) {
+                    collisions++;
+                }
+            }
+        }
+        if (logging) {
+            final int rejected = collisions;
+            logger.fine(() -> "Resolved " + claims.size() + " claims with " + rejected + " collisions.");
+        }
+        return new HashSet<>(claims.values());
+    }
+}
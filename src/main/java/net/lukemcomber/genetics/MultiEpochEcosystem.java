@@ -11,6 +11,7 @@ import net.lukemcomber.genetics.biology.transcription.AsexualTransposeAndMutateG
 import net.lukemcomber.genetics.exception.EvolutionException;
 import net.lukemcomber.genetics.io.GenomeSerDe;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.TemporalCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
 import net.lukemcomber.genetics.model.ecosystem.EcosystemDetails;
 import net.lukemcomber.genetics.model.ecosystem.impl.EpochEcosystemConfiguration;
@@ -21,7 +22,10 @@ import net.lukemcomber.genetics.store.MetadataStoreFactory;
 import net.lukemcomber.genetics.store.MetadataStoreGroup;
 import net.lukemcomber.genetics.store.SearchableMetadataStore;
 import net.lukemcomber.genetics.store.metadata.Performance;
+import net.lukemcomber.genetics.utilities.ConvergenceMonitor;
 import net.lukemcomber.genetics.utilities.RandomGenomeCreator;
+import net.lukemcomber.genetics.utilities.RandomStreams;
+import net.lukemcomber.genetics.utilities.SharedScheduler;
 import net.lukemcomber.genetics.world.terrain.Terrain;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.lang3.StringUtils;
@@ -33,7 +37,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.DoubleAccumulator;
 import java.util.function.Consumer;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 
@@ -41,6 +47,9 @@ public class MultiEpochEcosystem extends Ecosystem implements Runnable {
 
     public static final String PROPERTY_RNG_SEED = "multi-epoch.population.rng.seed";
 
+    private static final long POPULATION_STREAM = 1;
+    private static final long ISLAND_STREAM = 2;
+
     private final Logger logger = Logger.getLogger(MultiEpochEcosystem.class.getName());
     private final MultiEpochConfiguration configuration;
     private final Set<String> organismFilter;
@@ -51,7 +60,10 @@ public class MultiEpochEcosystem extends Ecosystem implements Runnable {
     private final Consumer<EpochEcosystem> onEpochStart;
     private final Consumer<EpochEcosystem> onEpochEnd;
     private final Thread ecosystemThread;
+    private final ConvergenceMonitor convergence;
     private final long seed;
+    private final RandomStreams streams;
+    private final CompletableFuture<Void> completion;
 
     public MultiEpochEcosystem(final UniverseConstants universe, final MultiEpochConfiguration configuration) throws IOException {
         this(universe, configuration, null, null);
@@ -59,146 +71,399 @@ public class MultiEpochEcosystem extends Ecosystem implements Runnable {
 
     public MultiEpochEcosystem(final UniverseConstants universe, final MultiEpochConfiguration configuration,
                                final Consumer<EpochEcosystem> onEpochStart, final Consumer<EpochEcosystem> onEpochEnd) throws IOException {
-        super(configuration.getTicksPerDay(), configuration.getSize(), universe, new AsexualTransposeAndMutateGeneTranscriber(universe));
+        super(configuration.getTicksPerDay(), configuration.getSize(), universe,
+                new AsexualTransposeAndMutateGeneTranscriber(universe, RandomStreams.forName(universe, configuration.getName())));
         this.configuration = configuration;
 
         if (Objects.nonNull(configuration.getStartOrganisms())) {
             setInitialOrganisms(configuration.getStartOrganisms());
         }
 
-        seed = universe.get(PROPERTY_RNG_SEED, Integer.class, 0).longValue();
+        streams = RandomStreams.forName(universe, configuration.getName());
+        final long configuredSeed = universe.get(PROPERTY_RNG_SEED, Number.class, 0).longValue();
+        if (0 == configuredSeed && null != streams) {
+            // any positive seed, derived from the master seed
+            seed = Math.max(1, streams.stream(POPULATION_STREAM).nextLong() & Long.MAX_VALUE);
+        } else {
+            seed = configuredSeed;
+        }
 
 
         organismFilter = new HashSet<>();
         this.onEpochStart = onEpochStart;
         this.onEpochEnd = onEpochEnd;
         sessions = new ConcurrentLinkedDeque<>();
+        completion = new CompletableFuture<>();
+        convergence = ConvergenceMonitor.forRun(universe);
 
         ecosystemThread = new Thread(this);
         ecosystemThread.setDaemon(true);
         ecosystemThread.setName("master-%s-epoch-runner".formatted(configuration.getName().toLowerCase()));
     }
 
+    /**
+     * An island's ecosystem for the current epoch and the genomes it passes on, fittest first
+     *
+     * @param ecosystem    the island's ecosystem
+     * @param survivingDna genomes passed on, fittest first
+     * @param bestFitness  best fitness among the genomes passed on
+     */
+    private record Island(EpochEcosystem ecosystem, Set<String> survivingDna, DoubleAccumulator bestFitness) {
+    }
+
     @Override
     public void run() {
 
         // we have been initialized, we haven't been clean up and we aren't running
         if (getIsInitialized().get() && !getIsCleanedUp().get() && getIsRunning().compareAndSet(false, true)) {
-            Map<SpatialCoordinates, String> firstEpochStartingPopulation = new HashMap<>();
-            if (null != configuration.getStartOrganisms()) {
-                firstEpochStartingPopulation.putAll(configuration.getStartOrganisms());
+            try {
+                runEpochs();
+            } catch (final RuntimeException e) {
+                finish(e);
+                throw e;
+            }
+            finish(null);
+        } else {
+            logger.info("Multi Epoch simulation is already running.");
+        }
+    }
+
+    /**
+     * Run every epoch on the calling thread and wait for their data to be saved
+     */
+    private void runEpochs() {
+        final RandomGenomeCreator genomeCreator = new RandomGenomeCreator(organismFilter, 0 < seed ? seed : null);
+        final List<Map<SpatialCoordinates, String>> fauna = createInitialFauna(genomeCreator);
+        convergence.start(System.nanoTime());
+
+        boolean converged = false;
+        for (int epoch = 0; epoch < configuration.getEpochs() && !converged; epoch++) {
+            try {
+                final List<Island> islands = startEpoch(epoch, fauna);
+                // only the survivors are needed, the islands keep saving their data in the background
+                for (final Island island : islands) {
+                    island.ecosystem().awaitSimulationEnd();
+                }
+                converged = !finishEpoch(epoch, islands, fauna, genomeCreator);
+            } catch (final InterruptedException e) {
+                //Switch to unchecked because we can't change signature
+                throw new RuntimeException(e);
             }
+        }
+
+        try {
+            getEpochCompletions().get();
+        } catch (final InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Run the epochs as a chain of tasks on the shared scheduler. Each epoch's islands are started
+     * and the next epoch is prepared once they have all completed, so no thread waits on them.
+     *
+     * @param epoch         epoch to start
+     * @param fauna         starting population per island
+     * @param genomeCreator source of random locations
+     */
+    private void runEpochAsync(final int epoch, final List<Map<SpatialCoordinates, String>> fauna,
+                               final RandomGenomeCreator genomeCreator) {
+        if (epoch >= configuration.getEpochs()) {
+            getEpochCompletions().whenComplete((ignored, e) -> {
+                if (null != e) {
+                    logger.log(Level.SEVERE, "Multi Epoch simulation failed to save data.", e);
+                }
+                finish(e);
+            });
+            return;
+        }
+        final List<Island> islands = startEpoch(epoch, fauna);
+        CompletableFuture.allOf(islands.stream().map(island -> island.ecosystem().getSimulationEnd()).toArray(CompletableFuture[]::new))
+                .thenRunAsync(() -> {
+                    final boolean proceed = finishEpoch(epoch, islands, fauna, genomeCreator);
+                    runEpochAsync(proceed ? epoch + 1 : configuration.getEpochs(), fauna, genomeCreator);
+                }, SharedScheduler.get(getProperties()))
+                .exceptionally(e -> {
+                    logger.log(Level.SEVERE, "Multi Epoch simulation failed in epoch " + epoch + ".", e);
+                    finish(e);
+                    return null;
+                });
+    }
 
-            // Just use random genomes for the rest of the initial population
-            final int randomOrganismCount = configuration.getInitialPopulation() - firstEpochStartingPopulation.size();
-            final RandomGenomeCreator genomeCreator = new RandomGenomeCreator(organismFilter, 0 < seed ? seed : null);
+    private List<Map<SpatialCoordinates, String>> createInitialFauna(final RandomGenomeCreator genomeCreator) {
+        Map<SpatialCoordinates, String> firstEpochStartingPopulation = new HashMap<>();
+        if (null != configuration.getStartOrganisms()) {
+            firstEpochStartingPopulation.putAll(configuration.getStartOrganisms());
+        }
+
+        // Just use random genomes for the rest of the initial population
+        final int randomOrganismCount = configuration.getInitialPopulation() - firstEpochStartingPopulation.size();
+        final List<Map<SpatialCoordinates, String>> fauna = new ArrayList<>(getIslandCount());
+        for (int island = 0; island < getIslandCount(); ++island) {
             final Set<String> epochStartPopulation = genomeCreator.generateRandomGenomes("PLANT", 0 >= randomOrganismCount ? configuration.getInitialPopulation() : randomOrganismCount);
 
-            Map<SpatialCoordinates, String> fauna = genomeCreator.generateRandomLocations(
+            fauna.add(genomeCreator.generateRandomLocations(
                     configuration.getSize().xAxis(),
                     configuration.getSize().yAxis(),
                     epochStartPopulation,
-                    firstEpochStartingPopulation);
+                    firstEpochStartingPopulation));
+        }
+        return fauna;
+    }
 
-            for (int epoch = 0; epoch < configuration.getEpochs(); epoch++) {
-                try {
+    /**
+     * Create and start an ecosystem for every island
+     *
+     * @param epoch epoch number
+     * @param fauna starting population per island
+     * @return the running islands
+     */
+    private List<Island> startEpoch(final int epoch, final List<Map<SpatialCoordinates, String>> fauna) {
+        logger.info("Beginning epoch " + epoch);
+
+        final List<Island> islands = new ArrayList<>(getIslandCount());
+        try {
+            // Every island runs concurrently, so start them all before waiting on any
+            for (int island = 0; island < getIslandCount(); ++island) {
+                final EpochEcosystem ecosystem = new EpochEcosystem(getProperties(), EpochEcosystemConfiguration.builder()
+                        .ticksPerDay(configuration.getTicksPerDay())
+                        .size(configuration.getSize())
+                        .maxDays(configuration.getMaxDays())
+                        .tickDelayMs(configuration.getTickDelayMs())
+                        .name(getEpochName(epoch, island, getIslandCount()))
+                        .startOrganisms(fauna.get(island))
+                        .build(), createIslandTranscriber(epoch, island));
+
+                if (Objects.nonNull(onEpochStart)) {
+                    onEpochStart.accept(ecosystem);
+                }
 
-                    logger.info("Beginning epoch " + epoch);
+                final Terrain terrain = ecosystem.getTerrain();
+                final MetadataStoreGroup groupStore = MetadataStoreFactory.getMetadataStore(ecosystem.getId(), terrain.getProperties());
 
-                    final String name;
-                    if (StringUtils.isNotEmpty(configuration.getName())) {
-                        name = configuration.getName() + "-Epoch-" + epoch;
-                    } else {
-                        name = null;
-                    }
+                logger.info("Epoch started.");
+                sessions.add(ecosystem);
+
+                // Ordered fittest first, so the head of the set is what an island sends when migrating
+                final Set<String> survivingDna = new LinkedHashSet<>();
+                final DoubleAccumulator bestFitness = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+                final MetadataStore<Performance> metadataStore = groupStore.get(Performance.class);
+
+                ecosystem.initialize(() -> {
 
-                    final EpochEcosystem ecosystem = new EpochEcosystem(getProperties(), EpochEcosystemConfiguration.builder()
-                            .ticksPerDay(configuration.getTicksPerDay())
-                            .size(configuration.getSize())
-                            .maxDays(configuration.getMaxDays())
-                            .tickDelayMs(configuration.getTickDelayMs())
-                            .name(name)
-                            .startOrganisms(fauna)
-                            .build(), getGnomeTranscriber());
-
-                    if (Objects.nonNull(onEpochStart)) {
-                        onEpochStart.accept(ecosystem);
+                    if (metadataStore instanceof SearchableMetadataStore<Performance>) {
+                        ((SearchableMetadataStore<Performance>) metadataStore).page( 0, configuration.getReusePopulation()).forEach(performance -> {
+                            survivingDna.add(performance.getDna());
+                            if (null != performance.getFitness()) {
+                                bestFitness.accumulate(performance.getFitness());
+                            }
+                        });
                     }
+                    return null;
+                });
 
-                    final Terrain terrain = ecosystem.getTerrain();
-                    final MetadataStoreGroup groupStore = MetadataStoreFactory.getMetadataStore(ecosystem.getId(), terrain.getProperties());
+                islands.add(new Island(ecosystem, survivingDna, bestFitness));
+            }
+        } catch (final IOException e) {
+            //Switch to unchecked because we can't change signature
+            throw new RuntimeException(e);
+        }
+        return islands;
+    }
 
-                    logger.info("Epoch started.");
-                    sessions.add(ecosystem);
+    /**
+     * Create the transcriber for an island. Islands run concurrently, so each one draws from its own stream
+     * rather than sharing this ecosystem's transcriber.
+     *
+     * @param epoch  epoch number
+     * @param island island number
+     * @return transcriber, or null for the island to create its own when no master seed is configured
+     */
+    private GenomeTransciber createIslandTranscriber(final int epoch, final int island) {
+        if (null == streams) {
+            return null;
+        }
+        return new AsexualTransposeAndMutateGeneTranscriber(getProperties(), streams.child(ISLAND_STREAM, epoch, island));
+    }
 
-                    final Set<String> survivingDna = new HashSet<>();
-                    final MetadataStore<Performance> metadataStore = groupStore.get(Performance.class);
+    /**
+     * Migrate and breed the survivors of a completed epoch into the next epoch's populations, unless the
+     * run has converged
+     *
+     * @param epoch         epoch number
+     * @param islands       completed islands
+     * @param fauna         population per island, replaced with the next epoch's
+     * @param genomeCreator source of random locations
+     * @return true if the next epoch should run
+     */
+    private boolean finishEpoch(final int epoch, final List<Island> islands, final List<Map<SpatialCoordinates, String>> fauna,
+                                final RandomGenomeCreator genomeCreator) {
+
+        List<Set<String>> survivors = new ArrayList<>(islands.size());
+        double bestFitness = Double.NEGATIVE_INFINITY;
+        for (final Island island : islands) {
+            if (island.survivingDna().isEmpty()) {
+                throw new EvolutionException("Timing is wonk");
+            }
+            survivors.add(island.survivingDna());
+            bestFitness = Math.max(bestFitness, island.bestFitness().get());
+        }
 
-                    ecosystem.initialize(() -> {
+        if (Objects.nonNull(this.onEpochEnd)) {
+            islands.forEach(island -> this.onEpochEnd.accept(island.ecosystem()));
+        }
 
-                        if (metadataStore instanceof SearchableMetadataStore<Performance>) {
-                            ((SearchableMetadataStore<Performance>) metadataStore).page( 0, configuration.getReusePopulation()).forEach(performance -> {
-                                survivingDna.add(performance.getDna());
-                            });
-                        }
-                        return null;
-                    });
+        if (convergence.isEnabled() && convergence.onEpoch(bestFitness, System.nanoTime())) {
+            logger.info("Multi Epoch simulation converged after epoch " + epoch + ", " + convergence.getReason() + ".");
+            return false;
+        }
 
-                    ecosystem.getEcosystemThread().join();
-                    if (survivingDna.isEmpty()) {
-                        throw new EvolutionException("Timing is wonk");
-                    }
+        if (1 < islands.size() && 0 < configuration.getMigrationInterval()
+                && 0 == (epoch + 1) % configuration.getMigrationInterval()) {
+            survivors = migrate(survivors);
+        }
 
-                    // Run that shiiiiii
-                    final int additionalOrganisms = configuration.getInitialPopulation() - survivingDna.size();
-                    final Set<String> baseDna = new HashSet<>(survivingDna);
+        // Run that shiiiiii
+        for (int island = 0; island < islands.size(); ++island) {
+            fauna.set(island, genomeCreator.generateRandomLocations(
+                    configuration.getSize().xAxis(),
+                    configuration.getSize().yAxis(),
+                    breed(epoch, survivors.get(island)),
+                    null));
+        }
+        return true;
+    }
 
+    /**
+     * Get a future that completes once every epoch ecosystem has saved its data
+     *
+     * @return completion of all epochs
+     */
+    private CompletableFuture<Void> getEpochCompletions() {
+        return CompletableFuture.allOf(sessions.stream()
+                .filter(EpochEcosystem.class::isInstance)
+                .map(session -> ((EpochEcosystem) session).getCompletion())
+                .toArray(CompletableFuture[]::new));
+    }
 
-                    int lcv = 0;
-                    final String[] survivingDnaArray = survivingDna.toArray(new String[0]);
-                    for (int i = 0; i < additionalOrganisms; ++i) {
+    /**
+     * Get a future that completes once every epoch has run and its data has been saved, or exceptionally if
+     * the simulation failed. The clean up hook has run by the time it completes.
+     *
+     * @return completion future
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
 
-                        final String fitGenome = survivingDnaArray[lcv];
-                        try {
+    /**
+     * Run the clean up hook and complete the simulation, at most once
+     *
+     * @param failure cause of failure, or null if the simulation succeeded
+     */
+    private void finish(final Throwable failure) {
+        if (completion.isDone()) {
+            return;
+        }
+        try {
+            if (Objects.nonNull(cleanupFunction)) {
+                cleanupFunction.call();
+            }
+        } catch (final Exception e) {
+            if (null != failure) {
+                failure.addSuppressed(e);
+            }
+            completion.completeExceptionally(null != failure ? failure : e);
+            throw new RuntimeException(e);
+        }
+        if (null != failure) {
+            completion.completeExceptionally(failure);
+        } else {
+            completion.complete(null);
+        }
+    }
 
-                            final Genome deserializedGenome = GenomeSerDe.deserialize(fitGenome);
-                            final Genome mutatedGenome = getGnomeTranscriber().transcribe(deserializedGenome);
+    private int getIslandCount() {
+        return Math.max(1, configuration.getIslands());
+    }
 
-                            baseDna.add(GenomeSerDe.serialize(mutatedGenome));
+    /**
+     * Fill out the next generation by mutating the survivors of an epoch
+     *
+     * @param epoch        epoch that just finished
+     * @param survivingDna serialized genomes that survived
+     * @return serialized genomes for the next epoch
+     */
+    private Set<String> breed(final int epoch, final Set<String> survivingDna) {
+        final int additionalOrganisms = configuration.getInitialPopulation() - survivingDna.size();
+        final Set<String> baseDna = new HashSet<>(survivingDna);
 
-                        } catch (final DecoderException e) {
-                            throw new EvolutionException("Failed to deserialize genome (%s).".formatted(StringUtils.isNotEmpty(fitGenome) ? fitGenome : "null"));
-                        }
+        int lcv = 0;
+        final String[] survivingDnaArray = survivingDna.toArray(new String[0]);
+        for (int i = 0; i < additionalOrganisms; ++i) {
 
-                        if (survivingDnaArray.length <= ++lcv) {
-                            lcv = 0;
-                        }
-                    }
+            final String fitGenome = survivingDnaArray[lcv];
+            try {
 
-                    fauna = genomeCreator.generateRandomLocations(
-                            configuration.getSize().xAxis(),
-                            configuration.getSize().yAxis(),
-                            baseDna,
-                            null);
-                    if (Objects.nonNull(this.onEpochEnd)) {
-                        this.onEpochEnd.accept(ecosystem);
-                    }
-                } catch (final IOException | InterruptedException e) {
-                    //Switch to unchecked because we can't change signature
-                    throw new RuntimeException(e);
-                }
+                final Genome deserializedGenome = GenomeSerDe.deserialize(fitGenome);
+                final Genome mutatedGenome = getGnomeTranscriber().transcribe(deserializedGenome,
+                        RandomStreams.key(fitGenome, epoch, i));
+
+                baseDna.add(GenomeSerDe.serialize(mutatedGenome));
+
+            } catch (final DecoderException e) {
+                throw new EvolutionException("Failed to deserialize genome (%s).".formatted(StringUtils.isNotEmpty(fitGenome) ? fitGenome : "null"));
             }
 
-            if (Objects.nonNull(cleanupFunction)) {
-                try {
-                    cleanupFunction.call();
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
+            if (survivingDnaArray.length <= ++lcv) {
+                lcv = 0;
+            }
+        }
+        return baseDna;
+    }
+
+    /**
+     * Send the fittest genomes of each island to its neighbours. Migrants are chosen before any island
+     * receives, so a genome moves at most one hop per migration.
+     *
+     * @param survivors surviving genomes per island, fittest first
+     * @return surviving genomes per island including migrants
+     */
+    private List<Set<String>> migrate(final List<Set<String>> survivors) {
+        final int islandCount = survivors.size();
+        final List<List<String>> emigrants = new ArrayList<>(islandCount);
+        for (final Set<String> survivingDna : survivors) {
+            emigrants.add(survivingDna.stream().limit(Math.max(0, configuration.getMigrationSize())).toList());
+        }
+
+        final List<Set<String>> retVal = new ArrayList<>(islandCount);
+        for (int island = 0; island < islandCount; ++island) {
+            final Set<String> population = new LinkedHashSet<>(survivors.get(island));
+            if (MultiEpochConfiguration.MigrationTopology.FULLY_CONNECTED == configuration.getMigrationTopology()) {
+                for (int source = 0; source < islandCount; ++source) {
+                    if (source != island) {
+                        population.addAll(emigrants.get(source));
+                    }
                 }
+            } else {
+                population.addAll(emigrants.get((island + islandCount - 1) % islandCount));
             }
+            logger.info("Island " + island + " received " + (population.size() - survivors.get(island).size()) + " migrants.");
+            retVal.add(population);
+        }
+        return retVal;
+    }
+
+    private String getEpochName(final int epoch, final int island, final int islandCount) {
+        final String name;
+        if (StringUtils.isEmpty(configuration.getName())) {
+            name = null;
+        } else if (1 < islandCount) {
+            name = configuration.getName() + "-Island-" + island + "-Epoch-" + epoch;
         } else {
-            logger.info("Multi Epoch simulation is already running.");
+            name = configuration.getName() + "-Epoch-" + epoch;
         }
+        return name;
     }
 
     public ConcurrentLinkedDeque<Ecosystem> getEpochs() {
@@ -254,7 +519,22 @@ public class MultiEpochEcosystem extends Ecosystem implements Runnable {
                     }
                     return null;
                 };
-                this.ecosystemThread.start();
+                if (SharedScheduler.isEnabled(getProperties())) {
+                    if (getIsRunning().compareAndSet(false, true)) {
+                        convergence.start(System.nanoTime());
+                        SharedScheduler.get(getProperties()).execute(() -> {
+                            try {
+                                final RandomGenomeCreator genomeCreator = new RandomGenomeCreator(organismFilter, 0 < seed ? seed : null);
+                                runEpochAsync(0, createInitialFauna(genomeCreator), genomeCreator);
+                            } catch (final RuntimeException e) {
+                                logger.log(Level.SEVERE, "Multi Epoch simulation failed to start.", e);
+                                finish(e);
+                            }
+                        });
+                    }
+                } else {
+                    this.ecosystemThread.start();
+                }
             }
         } catch (final IOException e) {
             throw new RuntimeException(e);
@@ -275,9 +555,10 @@ public class MultiEpochEcosystem extends Ecosystem implements Runnable {
         setupConfiguration.setActive(isActive());
         setupConfiguration.setName(getName());
         setupConfiguration.setId(getId());
-        setupConfiguration.setTotalDays(getTotalDays());
-        setupConfiguration.setCurrentTick(getCurrentTick());
-        setupConfiguration.setTotalTicks(getTotalTicks());
+        final TemporalCoordinates time = getTime();
+        setupConfiguration.setTotalDays(time.totalDays());
+        setupConfiguration.setCurrentTick(time.currentTick());
+        setupConfiguration.setTotalTicks(time.totalTicks());
         setupConfiguration.setCurrentOrganismCount(getTerrain().getOrganismCount());
         setupConfiguration.setTotalOrganismCount(getTerrain().getTotalOrganismCount());
         setupConfiguration.setProperties(getProperties().toMap());
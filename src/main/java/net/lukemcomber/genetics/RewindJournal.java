@@ -0,0 +1,155 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.io.DeepCopier;
+import net.lukemcomber.genetics.model.TemporalCoordinates;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * A bounded ring of checkpoints of an ecosystem's state. Ticks are deterministic for a given state, so
+ * any turn after a checkpoint can be rebuilt by replaying from it. Checkpoints are taken every few ticks,
+ * and also whenever the state was changed between turns, since a replay would not repeat the change.
+ * <p>
+ * The journal holds checkpoints rather than per-turn deltas. The terrain's change feed only says which tiles
+ * changed, and most of what a turn changes is inside organisms: energy, counters, random streams, and the
+ * cell tree. Undoing a turn would need every one of those recorded. The costs are:
+ * <ul>
+ *     <li>a full copy of the state on the turn thread every interval, and whenever it was changed between turns</li>
+ *     <li>memory for depth / interval copies, though flat world property grids in grid storage share the tiles
+ *     no turn changed between them</li>
+ *     <li>a rewind that copies the nearest checkpoint and replays up to an interval of turns, so it costs the
+ *     same however little happened</li>
+ * </ul>
+ */
+class RewindJournal {
+
+    /**
+     * A copy of the state as it was at a tick
+     *
+     * @param tick  total ticks when taken
+     * @param state copy of the state
+     */
+    record Checkpoint(long tick, EcosystemState state) {
+    }
+
+    private final DeepCopier copier;
+    private final long depthTicks;
+    private final long intervalTicks;
+    private final LinkedList<Checkpoint> checkpoints;
+
+    private TemporalCoordinates lastTime;
+    private long lastModifications;
+
+    /**
+     * Create a new journal
+     *
+     * @param copier        copier used to take checkpoints
+     * @param depthTicks    how far back the journal must reach
+     * @param intervalTicks ticks between checkpoints
+     */
+    RewindJournal(final DeepCopier copier, final long depthTicks, final long intervalTicks) {
+        if (0 >= depthTicks || 0 >= intervalTicks) {
+            throw new EvolutionException(String.format("Invalid rewind depth %d with interval %d.", depthTicks, intervalTicks));
+        }
+        this.copier = copier;
+        this.depthTicks = depthTicks;
+        this.intervalTicks = intervalTicks;
+        this.checkpoints = new LinkedList<>();
+    }
+
+    /**
+     * Called before a turn. Takes a checkpoint if the state was changed since the last turn ended.
+     *
+     * @param state         state about to be advanced
+     * @param substitutions references to swap for others in a checkpoint
+     */
+    void beforeTurn(final EcosystemState state, final Map<Object, Object> substitutions) {
+        if (!state.clock().now().equals(lastTime) || state.terrain().getModificationCount() != lastModifications) {
+            take(state, substitutions);
+        }
+    }
+
+    /**
+     * Called after a turn. Takes a checkpoint if one is due.
+     *
+     * @param state         state that was advanced
+     * @param substitutions references to swap for others in a checkpoint
+     */
+    void afterTurn(final EcosystemState state, final Map<Object, Object> substitutions) {
+        final long tick = state.clock().now().totalTicks();
+        if (checkpoints.isEmpty() || tick - checkpoints.getLast().tick() >= intervalTicks) {
+            take(state, substitutions);
+        } else {
+            remember(state);
+        }
+    }
+
+    /**
+     * Find the latest checkpoint at or before a tick. The journal is left as is, so a failed rewind
+     *  can be retried.
+     *
+     * @param tick tick to rewind to
+     * @return checkpoint to replay from
+     * @throws EvolutionException if the tick is no longer journaled
+     */
+    Checkpoint find(final long tick) {
+        for (final Iterator<Checkpoint> it = checkpoints.descendingIterator(); it.hasNext(); ) {
+            final Checkpoint checkpoint = it.next();
+            if (checkpoint.tick() <= tick) {
+                return checkpoint;
+            }
+        }
+        throw new EvolutionException("Cannot rewind to tick " + tick + ", it is no longer journaled.");
+    }
+
+    /**
+     * Record the state that ended a rewind. Later checkpoints are forgotten, since they are no longer
+     *  part of the ecosystem's history, and the next turn will not see the state as an outside change.
+     *
+     * @param state state rewound to
+     */
+    void rewound(final EcosystemState state) {
+        final long tick = state.clock().now().totalTicks();
+        while (!checkpoints.isEmpty() && checkpoints.getLast().tick() > tick) {
+            checkpoints.removeLast();
+        }
+        remember(state);
+    }
+
+    /**
+     * Get the earliest tick that can be rewound to
+     *
+     * @return tick, or -1 if nothing is journaled
+     */
+    long getEarliestTick() {
+        return checkpoints.isEmpty() ? -1 : checkpoints.getFirst().tick();
+    }
+
+    private void take(final EcosystemState state, final Map<Object, Object> substitutions) {
+        final long tick = state.clock().now().totalTicks();
+        // a change between turns replaces the checkpoint taken when the last turn ended
+        while (!checkpoints.isEmpty() && checkpoints.getLast().tick() >= tick) {
+            checkpoints.removeLast();
+        }
+        checkpoints.addLast(new Checkpoint(tick, state.copy(copier, substitutions)));
+
+        // keep the newest checkpoint that still reaches back far enough
+        while (1 < checkpoints.size() && checkpoints.get(1).tick() <= tick - depthTicks) {
+            checkpoints.removeFirst();
+        }
+        remember(state);
+    }
+
+    private void remember(final EcosystemState state) {
+        lastTime = state.clock().now();
+        lastModifications = state.terrain().getModificationCount();
+    }
+}
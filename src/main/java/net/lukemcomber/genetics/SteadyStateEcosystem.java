@@ -0,0 +1,205 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.Genome;
+import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.biology.OrganismFactory;
+import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.io.GenomeSerDe;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.TemporalCoordinates;
+import net.lukemcomber.genetics.model.UniverseConstants;
+import net.lukemcomber.genetics.model.ecosystem.impl.EpochEcosystemConfiguration;
+import net.lukemcomber.genetics.model.ecosystem.impl.SteadyStateConfiguration;
+import net.lukemcomber.genetics.store.impl.KryoMetadataStore;
+import net.lukemcomber.genetics.store.metadata.Performance;
+import net.lukemcomber.genetics.utilities.RandomGenomeCreator;
+import net.lukemcomber.genetics.utilities.RandomStreams;
+import net.lukemcomber.genetics.world.terrain.Terrain;
+import org.apache.commons.codec.DecoderException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+/**
+ * An ecosystem that evolves continuously instead of in epochs. One terrain lives for the whole run and
+ * whenever the population falls below its target, mutated offspring of the fittest organisms recorded so
+ * far are seeded into free locations. Evolution carries on without tearing down and rebuilding an
+ * ecosystem, its terrain, and its metadata stores every generation.
+ * <p>
+ * The elite is kept in memory from the {@link Performance} records written as organisms die, in the order
+ * the {@link Performance} store pages them, so the tick never waits on the store. Until the first deaths are
+ * recorded the starting population is bred from instead.
+ */
+public class SteadyStateEcosystem extends EpochEcosystem {
+
+    private static final long POPULATION_STREAM = 1;
+    private static final long INJECTION_STREAM = 2;
+    private static final int PLACEMENT_ATTEMPTS = 32;
+
+    /**
+     * A genome offspring can be bred from
+     *
+     * @param id  id of the organism that carried it
+     * @param dna serialized genome
+     */
+    private record Parent(String id, String dna) {
+    }
+
+    private static final Logger logger = Logger.getLogger(SteadyStateEcosystem.class.getName());
+    private final SteadyStateConfiguration configuration;
+    private final RandomStreams streams;
+    private final SplittableRandom unseeded;
+    private final List<Parent> founders;
+    private final TreeSet<Performance> elite;
+    private int nextParent;
+
+    public SteadyStateEcosystem(final UniverseConstants universe, final SteadyStateConfiguration configuration) throws IOException {
+        super(universe, EpochEcosystemConfiguration.builder()
+                .maxDays(configuration.getMaxDays())
+                .tickDelayMs(configuration.getTickDelayMs())
+                .ticksPerDay(configuration.getTicksPerDay())
+                .size(configuration.getSize())
+                .name(configuration.getName())
+                .startOrganisms(createStartOrganisms(universe, configuration))
+                .build());
+        this.configuration = configuration;
+        this.streams = RandomStreams.forName(universe, configuration.getName());
+        this.unseeded = null == streams ? new SplittableRandom() : null;
+
+        founders = new ArrayList<>();
+        getInitialPopulation().values().forEach(dna -> founders.add(new Parent(Organism.DEFAULT_PARENT, dna)));
+        elite = new TreeSet<>(KryoMetadataStore.pageOrder());
+        metadataStoreGroup.observe(Performance.class, this::recordPerformance);
+    }
+
+    /**
+     * Fill out the starting population with random genomes
+     *
+     * @param universe      configuration properties
+     * @param configuration ecosystem configuration
+     * @return genomes by location
+     */
+    private static Map<SpatialCoordinates, String> createStartOrganisms(final UniverseConstants universe,
+                                                                       final SteadyStateConfiguration configuration) {
+        final Map<SpatialCoordinates, String> startOrganisms = new HashMap<>();
+        if (Objects.nonNull(configuration.getStartOrganisms())) {
+            startOrganisms.putAll(configuration.getStartOrganisms());
+        }
+        final int randomOrganismCount = configuration.getPopulation() - startOrganisms.size();
+        if (0 < randomOrganismCount) {
+            final RandomStreams streams = RandomStreams.forName(universe, configuration.getName());
+            final RandomGenomeCreator genomeCreator = new RandomGenomeCreator(new HashSet<>(),
+                    null == streams ? null : streams.stream(POPULATION_STREAM).nextLong());
+            return genomeCreator.generateRandomLocations(configuration.getSize().xAxis(), configuration.getSize().yAxis(),
+                    genomeCreator.generateRandomGenomes("PLANT", randomOrganismCount), startOrganisms);
+        }
+        return startOrganisms;
+    }
+
+    /**
+     * Top the population back up once an injection is due. An empty terrain is always refilled, so the
+     * simulation only ends when it runs out of days.
+     */
+    @Override
+    protected void afterTick() {
+        final Terrain terrain = getTerrain();
+        final int vacancies = configuration.getPopulation() - terrain.getOrganismCount();
+        if (0 < vacancies && (0 == terrain.getOrganismCount()
+                || 0 == getTime().totalTicks() % Math.max(1, configuration.getInjectionInterval()))) {
+            final int count = 0 < configuration.getInjectionSize() ? Math.min(vacancies, configuration.getInjectionSize()) : vacancies;
+            final int injected = inject(count);
+            if (isLogging()) {
+                logger.info("Injected " + injected + " organisms into " + getName() + " at tick " + getTime().totalTicks() + ".");
+            }
+            if (0 < terrain.getOrganismCount()) {
+                isActive(true);
+            }
+        }
+    }
+
+    /**
+     * Seed mutated offspring of the elite into free locations
+     *
+     * @param count number of organisms to add
+     * @return number of organisms added, fewer if the terrain is too crowded
+     */
+    private int inject(final int count) {
+        final List<Parent> elite = getElite();
+        if (elite.isEmpty()) {
+            return 0;
+        }
+        final Terrain terrain = getTerrain();
+        final TemporalCoordinates now = getTime();
+        final SplittableRandom rng = null == streams ? unseeded : streams.stream(INJECTION_STREAM, now.totalTicks());
+
+        int injected = 0;
+        for (int i = 0; i < count; ++i) {
+            final SpatialCoordinates location = findVacancy(terrain, rng);
+            if (null == location) {
+                break;
+            }
+            nextParent = (nextParent + 1) % elite.size();
+            final Parent parent = elite.get(nextParent);
+            try {
+                final Genome genome = getGnomeTranscriber().transcribe(GenomeSerDe.deserialize(parent.dna()),
+                        RandomStreams.key(parent.dna(), now.totalTicks(), i));
+                final Organism organism = OrganismFactory.create(parent.id(), genome, location, now,
+                        getProperties(), metadataStoreGroup, getGnomeTranscriber());
+                if (terrain.addOrganism(organism)) {
+                    ++injected;
+                }
+            } catch (final DecoderException e) {
+                throw new EvolutionException("Failed to deserialize genome (%s).".formatted(parent.dna()));
+            }
+        }
+        return injected;
+    }
+
+    /**
+     * Keep a dying organism's performance if it makes the elite. Organisms die concurrently in the tiled
+     *  tick modes, the elite does not depend on the order they are recorded in.
+     *
+     * @param performance performance of the organism
+     */
+    private synchronized void recordPerformance(final Performance performance) {
+        elite.add(performance);
+        if (elite.size() > Math.max(1, configuration.getEliteSize())) {
+            elite.pollLast();
+        }
+    }
+
+    /**
+     * Get the fittest organisms recorded so far, fittest first
+     *
+     * @return parents for the next offspring
+     */
+    private synchronized List<Parent> getElite() {
+        final List<Parent> parents = new ArrayList<>(elite.size());
+        elite.forEach(performance -> parents.add(new Parent(performance.getName(), performance.getDna())));
+        return parents.isEmpty() ? founders : parents;
+    }
+
+    private SpatialCoordinates findVacancy(final Terrain terrain, final SplittableRandom rng) {
+        for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS; ++attempt) {
+            final SpatialCoordinates location = new SpatialCoordinates(rng.nextInt(terrain.getSizeOfXAxis()),
+                    rng.nextInt(terrain.getSizeOfYAxis()), 0);
+            if (!terrain.hasCell(location)) {
+                return location;
+            }
+        }
+        return null;
+    }
+}
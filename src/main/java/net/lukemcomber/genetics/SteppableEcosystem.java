@@ -7,42 +7,101 @@ package net.lukemcomber.genetics;
 
 import net.lukemcomber.genetics.biology.GenomeTransciber;
 import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.io.DeepCopier;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.TemporalCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
 import net.lukemcomber.genetics.model.ecosystem.EcosystemDetails;
+import net.lukemcomber.genetics.model.ecosystem.impl.FastForwardSummary;
 import net.lukemcomber.genetics.model.ecosystem.impl.SteppableEcosystemConfiguration;
 import net.lukemcomber.genetics.model.ecosystem.impl.SteppableEcosystemDetails;
+import net.lukemcomber.genetics.store.BufferedMetadataStoreGroup;
 import net.lukemcomber.genetics.store.MetadataStore;
+import net.lukemcomber.genetics.store.MetadataStoreGroup;
 import net.lukemcomber.genetics.store.metadata.Environment;
+import net.lukemcomber.genetics.utilities.SharedScheduler;
 import net.lukemcomber.genetics.world.terrain.Terrain;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * An interactive ecosystem that is updated by turns (collections of ticks)
+ * <p>
+ * In speculative mode the next turn is computed in the background on a second state while the current
+ * turn is displayed. {@link #advance()} then adopts that state instead of computing the turn. If the
+ * terrain or time was changed in the meantime the speculative turn is thrown away, along with any
+ * metadata it produced, and the turn is computed as normal. The state replaced by an adopted turn is one
+ * turn behind, so it becomes the base of the next speculation: the background catches it up by replaying
+ * that turn and then computes the one after. The state is only copied when speculation starts and after
+ * the ecosystem was changed between turns. Terrain, organisms, and cells obtained before a turn must not
+ * be used after it, since the state they belong to may be advanced in the background.
+ * <p>
+ * {@link #fork(UniverseConstants, String)} branches the ecosystem into an independent copy that carries on
+ * from the current tick, optionally under different configuration properties.
+ * <p>
+ * With a rewind depth configured, recent turns are journaled so {@link #rewind(long)} can step back. The
+ * journal keeps a checkpoint every {@link #PROPERTY_REWIND_INTERVAL} turns and replays from the nearest one,
+ * so a smaller interval makes rewinds faster and takes more copies. Metadata is a log of what happened and is
+ * not rewound.
  */
 public class SteppableEcosystem extends Ecosystem {
 
+    public static final String PROPERTY_SPECULATIVE = "ecosystem.steppable.speculative";
+    public static final String PROPERTY_REWIND_DEPTH = "ecosystem.steppable.rewind.turns";
+    public static final String PROPERTY_REWIND_INTERVAL = "ecosystem.steppable.rewind.interval";
+
+    /**
+     * A turn computed ahead of time
+     *
+     * @param state             the state after the turn
+     * @param metadata          metadata written during the turn, the group the state writes to
+     * @param base              the state the turn was computed from
+     * @param baseTime          time of the base state when the turn started
+     * @param baseModifications terrain modification count when the turn started
+     */
+    private record Speculation(EcosystemState state, BufferedMetadataStoreGroup metadata, EcosystemState base,
+                               TemporalCoordinates baseTime, long baseModifications) {
+    }
+
     private final Logger logger = Logger.getLogger(SteppableEcosystem.class.getName());
     private final SteppableEcosystemConfiguration configuration;
+    private final boolean speculative;
+    private final DeepCopier copier;
+    private final RewindJournal journal;
+    private Future<Speculation> speculation;
+    private BufferedMetadataStoreGroup committedMetadata;
+    private EcosystemState spare;
+    private BufferedMetadataStoreGroup spareMetadata;
 
     public SteppableEcosystem(final UniverseConstants universe, final SteppableEcosystemConfiguration configuration) throws IOException {
-        super(configuration.getTicksPerDay(), configuration.getSize(), universe, null, configuration.getName());
-
-        this.configuration = configuration;
-
-        if( Objects.nonNull(configuration.getStartOrganisms())) {
-            setInitialOrganisms(configuration.getStartOrganisms());
-        }
+        this(universe, configuration, null);
     }
+
     public SteppableEcosystem(final UniverseConstants universe, final SteppableEcosystemConfiguration configuration, final GenomeTransciber transciber) throws IOException {
-        super(configuration.getTicksPerDay(), configuration.getSize(), universe, transciber, configuration.getName());
+        this(universe, configuration, transciber, null);
+    }
+
+    private SteppableEcosystem(final UniverseConstants universe, final SteppableEcosystemConfiguration configuration,
+                               final GenomeTransciber transciber, final SteppableEcosystem source) throws IOException {
+        super(configuration.getTicksPerDay(), configuration.getSize(), universe, transciber, configuration.getName(), source);
 
         this.configuration = configuration;
+        this.speculative = universe.get(PROPERTY_SPECULATIVE, Boolean.class, false);
+        final int rewindDepth = universe.get(PROPERTY_REWIND_DEPTH, Integer.class, 0);
+        this.copier = speculative || 0 < rewindDepth ? new DeepCopier(UniverseConstants.class, MetadataStoreGroup.class) : null;
+        this.journal = 0 < rewindDepth ? new RewindJournal(copier, rewindDepth * configuration.getTicksPerTurn(),
+                universe.get(PROPERTY_REWIND_INTERVAL, Integer.class, 10) * configuration.getTicksPerTurn()) : null;
 
         if( Objects.nonNull(configuration.getStartOrganisms())) {
             setInitialOrganisms(configuration.getStartOrganisms());
@@ -61,35 +120,295 @@ public class SteppableEcosystem extends Ecosystem {
     @Override
     public void initialize(final Callable<Void> cleanUpHook) {
         if (getIsInitialized().compareAndSet(false, true)) {
-            if (null != getTerrain().getResourceManager()) {
-                getTerrain().getResourceManager().initializeAllTerrainResources();
-            }
+            initializeTerrainResources();
             isActive(true);
+            speculate();
+        }
+    }
+
+    /**
+     * Branch the ecosystem at the current tick. The fork starts with a copy of the terrain, organisms, and
+     *  time, then runs independently under the given properties and records its own metadata. Organisms
+     *  that cache properties keep the values they were created with. The fork must be initialized before use.
+     *
+     * @param universe configuration properties for the fork
+     * @param name     name of the fork
+     * @return the fork
+     * @throws IOException if the fork's metadata store cannot be created
+     */
+    public SteppableEcosystem fork(final UniverseConstants universe, final String name) throws IOException {
+        final SteppableEcosystemConfiguration forkConfiguration = SteppableEcosystemConfiguration.builder()
+                .maxDays(configuration.getMaxDays())
+                .ticksPerDay(configuration.getTicksPerDay())
+                .size(configuration.getSize())
+                .ticksPerTurn(configuration.getTicksPerTurn())
+                .name(name)
+                .build();
+        return new SteppableEcosystem(universe, forkConfiguration, null, this);
+    }
+
+    @Override
+    Collection<MetadataStoreGroup> getMetadataStoreGroups() {
+        if (null == committedMetadata) {
+            return super.getMetadataStoreGroups();
         }
+        return List.of(metadataStoreGroup, committedMetadata);
     }
 
     /**
-     * Advance time by one tick
+     * Advance time by one turn
      *
      * @return true if active
      * @throws EvolutionException
      */
     public boolean advance() throws EvolutionException {
         if (isActive()) {
-            for (int i = 0; i < getTicksPerTurn(); ++i) {
-                tickEnvironment();
-                tickOrganisms();
+            beforeTurn();
+            if (!adoptSpeculation()) {
+                runTurn();
             }
+            afterTurn();
+            recordEnvironment();
+            speculate();
+        }
+        return isActive();
+    }
+
+    /**
+     * Advance time by several turns in one call. Per tick logging is suppressed and an environment record is
+     *  only written every {@code sampleStride} turns, plus once after the final turn. Stops early if the
+     *  ecosystem goes inactive.
+     *
+     * @param turns        number of turns to advance
+     * @param sampleStride turns between environment records
+     * @return summary of what changed
+     * @throws EvolutionException
+     */
+    public FastForwardSummary fastForward(final long turns, final long sampleStride) throws EvolutionException {
+        if (0 > turns || 0 >= sampleStride) {
+            throw new EvolutionException(String.format("Invalid fast forward of %d turns with stride %d.", turns, sampleStride));
+        }
+        discardSpeculation();
 
-            final Environment environmentData = new Environment();
-            environmentData.setTickCount(getTotalTicks());
-            environmentData.setTotalOrganisms((long) getTerrain().getOrganismCount());
+        final long startTime = System.currentTimeMillis();
+        final TemporalCoordinates start = getTime();
+        final int startOrganismCount = getTerrain().getOrganismCount();
+        final long startTotalOrganisms = getTerrain().getTotalOrganismCount();
 
-            final MetadataStore<Environment> dataStore = metadataStoreGroup.get(Environment.class);
-            dataStore.store(environmentData);
+        long turnsAdvanced = 0;
+        long samplesRecorded = 0;
 
+        setQuiet(true);
+        try {
+            while (turnsAdvanced < turns && isActive()) {
+                beforeTurn();
+                runTurn();
+                afterTurn();
+                ++turnsAdvanced;
+                if (0 == turnsAdvanced % sampleStride || turnsAdvanced == turns || !isActive()) {
+                    recordEnvironment();
+                    ++samplesRecorded;
+                }
+            }
+        } finally {
+            setQuiet(false);
         }
-        return isActive();
+        speculate();
+
+        final int endOrganismCount = getTerrain().getOrganismCount();
+        final long organismsBorn = getTerrain().getTotalOrganismCount() - startTotalOrganisms;
+
+        final TemporalCoordinates end = getTime();
+        return new FastForwardSummary(turns, turnsAdvanced, start.totalTicks(), end.totalTicks(), start.totalDays(), end.totalDays(),
+                startOrganismCount, endOrganismCount, organismsBorn,
+                startOrganismCount + organismsBorn - endOrganismCount, samplesRecorded, isActive(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Step back to an earlier turn. The nearest journaled checkpoint is restored and the remaining turns are
+     *  replayed without recording metadata, since it was recorded when they first ran.
+     *
+     * @param turns number of turns to step back
+     * @throws EvolutionException if rewinding is disabled or the turn is no longer journaled
+     */
+    public void rewind(final long turns) throws EvolutionException {
+        if (null == journal) {
+            throw new EvolutionException("Rewind is disabled, set " + PROPERTY_REWIND_DEPTH + " to enable it.");
+        }
+        if (0 > turns) {
+            throw new EvolutionException("Cannot rewind " + turns + " turns.");
+        }
+        final long targetTick = getTime().totalTicks() - turns * getTicksPerTurn();
+        final RewindJournal.Checkpoint checkpoint = journal.find(targetTick);
+        discardSpeculation();
+
+        final BufferedMetadataStoreGroup replayMetadata = new BufferedMetadataStoreGroup(metadataStoreGroup, properties);
+        final Map<Object, Object> substitutions = new IdentityHashMap<>();
+        for (final MetadataStoreGroup group : getMetadataStoreGroups()) {
+            substitutions.put(group, replayMetadata);
+        }
+        final EcosystemState restored = checkpoint.state().copy(copier, substitutions);
+
+        setQuiet(true);
+        try {
+            while (restored.clock().now().totalTicks() < targetTick) {
+                runTurn(restored);
+            }
+        } finally {
+            setQuiet(false);
+        }
+        replayMetadata.discardAndPassThrough();
+        committedMetadata = replayMetadata;
+        adoptState(restored);
+        journal.rewound(restored);
+        speculate();
+    }
+
+    /**
+     * Get the earliest turn that can be rewound to
+     *
+     * @return total ticks at that turn, or -1 if rewinding is disabled or nothing is journaled yet
+     */
+    public long getEarliestRewindTick() {
+        return null == journal ? -1 : journal.getEarliestTick();
+    }
+
+    private void beforeTurn() {
+        if (null != journal) {
+            journal.beforeTurn(getState(), checkpointSubstitutions());
+        }
+    }
+
+    private void afterTurn() {
+        if (null != journal) {
+            journal.afterTurn(getState(), checkpointSubstitutions());
+        }
+    }
+
+    /**
+     * Checkpoints write to the ecosystem's own metadata group, the buffered group of a turn is reused by
+     *  later speculation
+     *
+     * @return substitutions for a checkpoint of the current state
+     */
+    private Map<Object, Object> checkpointSubstitutions() {
+        return null == committedMetadata ? Map.of() : Map.of(committedMetadata, metadataStoreGroup);
+    }
+
+    private void runTurn() {
+        runTurn(getState());
+    }
+
+    private void runTurn(final EcosystemState state) {
+        for (int i = 0; i < getTicksPerTurn(); ++i) {
+            tickEnvironment(state);
+            tickOrganisms(state);
+        }
+    }
+
+    /**
+     * Start computing the next turn in the background, if speculative mode is enabled
+     */
+    private void speculate() {
+        if (speculative && isActive() && null == speculation) {
+            final EcosystemState base = getState();
+            final TemporalCoordinates baseTime = base.clock().now();
+            final long baseModifications = base.terrain().getModificationCount();
+
+            final EcosystemState shadow;
+            final BufferedMetadataStoreGroup metadata;
+            if (null != spare) {
+                // what the spare writes while catching up was recorded when the turns first ran
+                shadow = spare;
+                metadata = spareMetadata;
+                metadata.buffer();
+            } else {
+                metadata = new BufferedMetadataStoreGroup(metadataStoreGroup, properties);
+                final Map<Object, Object> substitutions = new IdentityHashMap<>();
+                substitutions.put(metadataStoreGroup, metadata);
+                if (null != committedMetadata) {
+                    substitutions.put(committedMetadata, metadata);
+                }
+                // Copy on the caller's thread, the terrain may be changed as soon as this returns
+                shadow = base.copy(copier, substitutions);
+            }
+            spare = null;
+            spareMetadata = null;
+
+            speculation = SharedScheduler.get(properties).submit(() -> {
+                while (shadow.clock().now().totalTicks() < baseTime.totalTicks()) {
+                    runTurn(shadow);
+                }
+                metadata.discard();
+                runTurn(shadow);
+                return new Speculation(shadow, metadata, base, baseTime, baseModifications);
+            });
+        }
+    }
+
+    /**
+     * Wait for the speculative turn and adopt it if nothing changed since it was started
+     *
+     * @return true if the turn was adopted
+     */
+    private boolean adoptSpeculation() {
+        final Speculation result = awaitSpeculation();
+        if (null != result) {
+            final EcosystemState current = getState();
+            if (current == result.base() && result.baseTime().equals(current.clock().now())
+                    && result.baseModifications() == current.terrain().getModificationCount()) {
+                result.metadata().flush();
+                // a state that writes to a buffered group of its own can be replayed without recording twice
+                if (null != committedMetadata) {
+                    spare = current;
+                    spareMetadata = committedMetadata;
+                }
+                committedMetadata = result.metadata();
+                adoptState(result.state());
+                return true;
+            }
+            logger.info("Ecosystem " + getName() + " changed, discarding speculative turn.");
+            result.metadata().discard();
+        }
+        return false;
+    }
+
+    /**
+     * Wait for any speculative turn and throw it away, along with the state kept to compute the next one
+     */
+    private void discardSpeculation() {
+        spare = null;
+        spareMetadata = null;
+        final Speculation result = awaitSpeculation();
+        if (null != result) {
+            result.metadata().discard();
+        }
+    }
+
+    private Speculation awaitSpeculation() {
+        final Future<Speculation> pending = speculation;
+        speculation = null;
+        if (null != pending) {
+            try {
+                return pending.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EvolutionException("Interrupted while waiting for speculative turn.");
+            } catch (final ExecutionException e) {
+                logger.log(Level.INFO, "Speculative turn failed, discarding.", e.getCause());
+            }
+        }
+        return null;
+    }
+
+    private void recordEnvironment() {
+        final Environment environmentData = new Environment();
+        environmentData.setTickCount(getTime().totalTicks());
+        environmentData.setTotalOrganisms((long) getTerrain().getOrganismCount());
+
+        final MetadataStore<Environment> dataStore = metadataStoreGroup.get(Environment.class);
+        dataStore.store(environmentData);
     }
 
     /**
@@ -112,9 +431,10 @@ public class SteppableEcosystem extends Ecosystem {
         setupConfiguration.setActive(isActive());
         setupConfiguration.setName(getName());
         setupConfiguration.setId(getId());
-        setupConfiguration.setTotalDays(getTotalDays());
-        setupConfiguration.setCurrentTick(getCurrentTick());
-        setupConfiguration.setTotalTicks(getTotalTicks());
+        final TemporalCoordinates time = getTime();
+        setupConfiguration.setTotalDays(time.totalDays());
+        setupConfiguration.setCurrentTick(time.currentTick());
+        setupConfiguration.setTotalTicks(time.totalTicks());
         setupConfiguration.setCurrentOrganismCount(getTerrain().getOrganismCount());
         setupConfiguration.setTotalOrganismCount(getTerrain().getTotalOrganismCount());
         setupConfiguration.setProperties(getProperties().toMap());
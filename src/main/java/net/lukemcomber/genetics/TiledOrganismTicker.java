@@ -0,0 +1,158 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.Cell;
+import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.io.CellHelper;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.world.terrain.Terrain;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Ticks organisms concurrently by partitioning the terrain into square tiles. Tiles are run in four
+ * checkerboard phases, so two tiles that are processed at the same time are always separated by a full
+ * tile and an organism can never grow into, or harvest from, space owned by another running tile.
+ * <p>
+ * An organism belongs to the tile holding its first cell. An organism whose reach extends more than half a
+ * tile past its home tile cannot be safely scheduled and is ticked serially once all phases complete.
+ * Organisms within a tile are ticked in population order. The schedule only depends on the tile size, so
+ * the result of a tick does not depend on how many threads executed it, and a ticker without a pool, which
+ * runs the same schedule on the calling thread, produces the same result.
+ */
+class TiledOrganismTicker {
+
+    /*
+     * Cells act on their immediate neighbours (growth, harvesting, seed ejection)
+     */
+    private static final int REACH = 1;
+    private static final int PHASES = 4;
+
+    private final int tileSize;
+    private final int margin;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a new ticker
+     *
+     * @param tileSize width and height of a tile
+     * @param pool     pool to run tiles on, or null to run them on the calling thread
+     */
+    TiledOrganismTicker(final int tileSize, final ForkJoinPool pool) {
+        if (4 > tileSize) {
+            throw new EvolutionException("Tile size must be at least 4, found " + tileSize + ".");
+        }
+        this.tileSize = tileSize;
+        this.margin = tileSize / 2;
+        this.pool = pool;
+    }
+
+    /**
+     * Get the tile size
+     *
+     * @return width and height of a tile
+     */
+    int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Tick every organism currently in the terrain. Organisms added during the tick are not visited.
+     *
+     * @param terrain terrain the organisms live in
+     * @param action  action to perform for a single organism
+     */
+    void tick(final Terrain terrain, final Consumer<Organism> action) {
+
+        final int tilesX = (terrain.getSizeOfXAxis() + tileSize - 1) / tileSize;
+        final List<Map<Integer, List<Organism>>> phases = new ArrayList<>(PHASES);
+        for (int i = 0; i < PHASES; ++i) {
+            phases.add(new TreeMap<>());
+        }
+        final List<Organism> spanning = new LinkedList<>();
+
+        for (final Iterator<Organism> it = terrain.getOrganisms(); it.hasNext(); ) {
+            final Organism organism = it.next();
+            final SpatialCoordinates home = organism.getFirstCell().getCoordinates();
+            final int tileX = home.xAxis() / tileSize;
+            final int tileY = home.yAxis() / tileSize;
+
+            if (fitsTile(organism, tileX, tileY)) {
+                final int phase = (tileX & 1) | ((tileY & 1) << 1);
+                phases.get(phase).computeIfAbsent(tileY * tilesX + tileX, k -> new LinkedList<>()).add(organism);
+            } else {
+                spanning.add(organism);
+            }
+        }
+
+        for (final Map<Integer, List<Organism>> phase : phases) {
+            if (phase.isEmpty()) {
+                continue;
+            }
+            if (null == pool) {
+                phase.values().forEach(tile -> tile.forEach(action));
+                continue;
+            }
+            final List<Callable<Void>> tasks = new ArrayList<>(phase.size());
+            for (final List<Organism> tile : phase.values()) {
+                tasks.add(() -> {
+                    tile.forEach(action);
+                    return null;
+                });
+            }
+            await(pool.invokeAll(tasks));
+        }
+
+        spanning.forEach(action);
+    }
+
+    /**
+     * Check if everything an organism can touch this tick lies within the guarded area of its home tile
+     *
+     * @param organism organism to check
+     * @param tileX    tile x index
+     * @param tileY    tile y index
+     * @return true if the organism can be ticked with its tile
+     */
+    private boolean fitsTile(final Organism organism, final int tileX, final int tileY) {
+        final int lowX = tileX * tileSize - margin;
+        final int highX = (tileX + 1) * tileSize - 1 + margin;
+        final int lowY = tileY * tileSize - margin;
+        final int highY = (tileY + 1) * tileSize - 1 + margin;
+
+        for (final Cell cell : CellHelper.getAllOrganismsCells(organism.getFirstCell())) {
+            final SpatialCoordinates coordinates = cell.getCoordinates();
+            if (lowX > coordinates.xAxis() - REACH || highX < coordinates.xAxis() + REACH
+                    || lowY > coordinates.yAxis() - REACH || highY < coordinates.yAxis() + REACH) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void await(final List<Future<Void>> results) {
+        for (final Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EvolutionException("Interrupted while ticking organisms.");
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+}
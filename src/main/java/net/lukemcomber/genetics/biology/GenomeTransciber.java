@@ -20,4 +20,17 @@ public interface GenomeTransciber {
      * @return destination genome
      */
     Genome transcribe(final Genome genome);
+
+    /**
+     * Transcribe one genome into another, drawing randomness from the stream for a key instead of a
+     * generator shared by every transcription. The result then does not depend on the order transcriptions
+     * run in. Transcribers without streams ignore the key.
+     *
+     * @param genome    source genome
+     * @param streamKey key of the random stream, see {@link net.lukemcomber.genetics.utilities.RandomStreams}
+     * @return destination genome
+     */
+    default Genome transcribe(final Genome genome, final long streamKey) {
+        return transcribe(genome);
+    }
 }
@@ -6,13 +6,16 @@ package net.lukemcomber.genetics.biology;
  */
 
 import net.lukemcomber.genetics.biology.fitness.FitnessFunction;
+import net.lukemcomber.genetics.biology.plant.GrowthIntent;
 import net.lukemcomber.genetics.model.TemporalCoordinates;
 import net.lukemcomber.genetics.io.CellHelper;
 import net.lukemcomber.genetics.world.terrain.Terrain;
 
 import java.io.OutputStream;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 import static java.util.logging.Logger.getLogger;
 
@@ -45,6 +48,31 @@ public interface Organism {
     void performAction(final Terrain terrain, final TemporalCoordinates temporalCoordinates,
                        final BiConsumer<Organism, Cell> onCellDeath);
 
+    /**
+     * Decide the organism's next action without modifying the terrain. The plan is held by the organism
+     * until {@link #commitAction} is called. Must be safe to call concurrently with other organisms' plans.
+     *
+     * @param terrain             the terrain
+     * @param temporalCoordinates time
+     * @return intents that claim a location, in commit order
+     */
+    default List<GrowthIntent> planAction(final Terrain terrain, final TemporalCoordinates temporalCoordinates) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Perform the action decided by {@link #planAction}. Intents that were not accepted are treated as collisions.
+     *
+     * @param terrain             the terrain
+     * @param temporalCoordinates time
+     * @param accepted            test for whether an intent won its location
+     * @param onCellDeath         callback if a cell dies
+     */
+    default void commitAction(final Terrain terrain, final TemporalCoordinates temporalCoordinates,
+                              final Predicate<GrowthIntent> accepted, final BiConsumer<Organism, Cell> onCellDeath) {
+        performAction(terrain, temporalCoordinates, onCellDeath);
+    }
+
     /**
      * Clean up all cells from the terrain
      *
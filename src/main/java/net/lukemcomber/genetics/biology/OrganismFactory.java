@@ -50,7 +50,8 @@ public class OrganismFactory {
             final FitnessFunction fitnessFunction = new BasicV2FitnessFunction(properties);  //new BasicFitnessFunction(properties);
 
             retVal = new PlantOrganism(parentId, seedCell, temporalCoordinates, properties, transciber, fitnessFunction, groupStore);
-            logger.info(String.format("Created %s at %s from OrganismFactory", retVal.getUniqueID(), spatialCoordinates));
+            final Organism created = retVal;
+            logger.fine(() -> String.format("Created %s at %s from OrganismFactory", created.getUniqueID(), spatialCoordinates));
 
         } else {
             throw new EvolutionException("Unknown species " + genome.toString());
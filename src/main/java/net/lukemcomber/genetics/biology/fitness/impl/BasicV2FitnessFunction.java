@@ -12,6 +12,7 @@ import net.lukemcomber.genetics.store.metadata.Performance;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -116,7 +117,9 @@ public class BasicV2FitnessFunction implements FitnessFunction {
             offspringScore = Math.exp(-BETA * (offspringCount - 2));
         }
 
-        logger.info("%s - Symmetry Factor: %f Age Factor: %f Fitness: %f".formatted(performance.getName(), symmetryScore, ageScore, fitness));
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("%s - Symmetry Factor: %f Age Factor: %f Fitness: %f".formatted(performance.getName(), symmetryScore, ageScore, fitness));
+        }
 
         return Math.pow(symmetryScore, SYMMETRY_WEIGHT) * Math.pow(ageScore, AGE_WEIGHT) * Math.pow(offspringScore, OFFSPRING_WEIGHT) * Math.pow(sizeScore, SIZE_WEIGHT);
     }
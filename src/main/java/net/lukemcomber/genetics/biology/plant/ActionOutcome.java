@@ -0,0 +1,37 @@
+package net.lukemcomber.genetics.biology.plant;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+/**
+ * The outcome of a cell attempting a {@link PlantBehavior}. Failed attempts are a normal part of a
+ * crowded world and are reported here rather than thrown.
+ */
+public enum ActionOutcome {
+    /**
+     * A new cell was placed on the terrain
+     */
+    PLACED,
+    /**
+     * The behavior completed without placing a new cell
+     */
+    NONE,
+    /**
+     * The target location is occupied or was claimed by another organism
+     */
+    COLLIDED,
+    /**
+     * The target location is outside the terrain
+     */
+    OUT_OF_BOUNDS,
+    /**
+     * The organism cannot afford the behavior
+     */
+    INSUFFICIENT_ENERGY,
+    /**
+     * The cell type cannot perform the behavior
+     */
+    NOT_SUPPORTED
+}
@@ -0,0 +1,43 @@
+package net.lukemcomber.genetics.biology.plant;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.Cell;
+
+/**
+ * The result of a cell attempting a {@link PlantBehavior}. Results without a cell are shared constants so
+ * that failed attempts do not allocate.
+ *
+ * @param outcome what happened
+ * @param cell    the new cell if one was placed, otherwise null
+ */
+public record ActionResult(ActionOutcome outcome, Cell cell) {
+
+    public static final ActionResult NONE = new ActionResult(ActionOutcome.NONE, null);
+    public static final ActionResult COLLIDED = new ActionResult(ActionOutcome.COLLIDED, null);
+    public static final ActionResult OUT_OF_BOUNDS = new ActionResult(ActionOutcome.OUT_OF_BOUNDS, null);
+    public static final ActionResult INSUFFICIENT_ENERGY = new ActionResult(ActionOutcome.INSUFFICIENT_ENERGY, null);
+    public static final ActionResult NOT_SUPPORTED = new ActionResult(ActionOutcome.NOT_SUPPORTED, null);
+
+    /**
+     * Create a result for a newly placed cell
+     *
+     * @param cell the new cell
+     * @return result
+     */
+    public static ActionResult placed(final Cell cell) {
+        return new ActionResult(ActionOutcome.PLACED, cell);
+    }
+
+    /**
+     * Check if a new cell was placed
+     *
+     * @return true if placed
+     */
+    public boolean isPlaced() {
+        return ActionOutcome.PLACED == outcome;
+    }
+}
@@ -0,0 +1,31 @@
+package net.lukemcomber.genetics.biology.plant;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.Cell;
+import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+
+/**
+ * A cell's planned action for the current tick. Intents are gathered before the terrain is modified so
+ * that competing claims on the same location can be resolved together.
+ *
+ * @param organism organism the cell belongs to
+ * @param cell     cell that will perform the behavior
+ * @param behavior behavior to perform, or null if nothing was expressed
+ * @param target   location the behavior will occupy, or null if it doesn't occupy one
+ */
+public record GrowthIntent(Organism organism, Cell cell, PlantBehavior behavior, SpatialCoordinates target) {
+
+    /**
+     * Check if the intent claims a location on the terrain
+     *
+     * @return true if the intent has a target
+     */
+    public boolean hasTarget() {
+        return null != target;
+    }
+}
@@ -7,9 +7,11 @@ package net.lukemcomber.genetics.biology.plant;
 
 import net.lukemcomber.genetics.biology.Cell;
 import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.TemporalCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
 import net.lukemcomber.genetics.store.MetadataStoreGroup;
+import net.lukemcomber.genetics.utilities.RandomStreams;
 import net.lukemcomber.genetics.world.terrain.Terrain;
 
 /**
@@ -26,9 +28,9 @@ public interface PlantBehavior {
      * @param activeCell          the cell to perform the behavior
      * @param temporalCoordinates the time
      * @param metadataStoreGroup  metadata cache
-     * @return A new cell or null
+     * @return the outcome, holding the new cell if one was placed
      */
-    Cell performAction(final UniverseConstants properties, final Terrain terrain,
+    ActionResult performAction(final UniverseConstants properties, final Terrain terrain,
                        final Organism organism,
                        final Cell activeCell,
                        final TemporalCoordinates temporalCoordinates,
@@ -41,4 +43,30 @@ public interface PlantBehavior {
      * @return cost
      */
     int getEnergyCost(final UniverseConstants properties);
+
+    /**
+     * Get the location a new cell would occupy if the active cell performed this behavior. Used to plan
+     * growth before the terrain is modified.
+     *
+     * @param activeCell the cell to perform the behavior
+     * @return target location or null if the behavior does not occupy a new location
+     */
+    default SpatialCoordinates getTarget(final Cell activeCell) {
+        return null;
+    }
+
+    /**
+     * Get the key of the random stream used when a new seed is transcribed. The key depends only on who is
+     * reproducing, when, and where to, never on the order organisms are ticked in.
+     *
+     * @param organism            the reproducing organism
+     * @param temporalCoordinates the time
+     * @param target              location of the new seed
+     * @return stream key
+     */
+    default long streamKey(final Organism organism, final TemporalCoordinates temporalCoordinates,
+                           final SpatialCoordinates target) {
+        return RandomStreams.key(organism.getUniqueID(), temporalCoordinates.totalTicks(),
+                target.xAxis(), target.yAxis(), target.zAxis());
+    }
 }
@@ -111,7 +111,7 @@ public class PlantGenome extends Genome {
                     return geneExpression.behavior();
                 }
             } else {
-                logger.info("Junk DNA: " + b);
+                logger.fine(() -> "Junk DNA: " + b);
             }
             return null;
         }
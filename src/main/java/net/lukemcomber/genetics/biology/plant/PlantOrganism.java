@@ -11,8 +11,10 @@ import net.lukemcomber.genetics.biology.GenomeTransciber;
 import net.lukemcomber.genetics.biology.Organism;
 import net.lukemcomber.genetics.biology.fitness.FitnessFunction;
 import net.lukemcomber.genetics.biology.plant.behavior.EjectSeed;
+import net.lukemcomber.genetics.biology.plant.cells.EjectedSeedCell;
 import net.lukemcomber.genetics.biology.plant.cells.SeedCell;
 import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.TemporalCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
 import net.lukemcomber.genetics.io.GenomeSerDe;
@@ -28,6 +30,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -73,6 +76,8 @@ public class PlantOrganism implements Organism {
 
     private final FitnessFunction fitnessFunction;
 
+    private List<GrowthIntent> plan;
+
     /**
      * Create a new instance
      *
@@ -192,7 +197,7 @@ public class PlantOrganism implements Organism {
             logger.log(Level.WARNING, e.getMessage(), e);
         }
 
-        logger.info(reason);
+        logger.fine(reason);
     }
 
     /**
@@ -336,10 +341,10 @@ public class PlantOrganism implements Organism {
                     final PlantOrganism plantOrganism = new PlantOrganism(getUniqueID(), activatedSeed,
                             temporalCoordinates, properties, transciber, fitnessFunction, metadataStoreGroup);
 
-                    logger.info(String.format("Created %s at %s from Seed", plantOrganism.getUniqueID(), seed.getCoordinates()));
+                    logger.fine(() -> String.format("Created %s at %s from Seed", plantOrganism.getUniqueID(), seed.getCoordinates()));
 
 
-                    logger.info("New Organism born: " + plantOrganism.getUniqueID());
+                    logger.fine(() -> "New Organism born: " + plantOrganism.getUniqueID());
 
                     terrain.addOrganism(plantOrganism);
                 } else {
@@ -356,67 +361,162 @@ public class PlantOrganism implements Organism {
                 ((PlantBehavior) cell).performAction(properties, terrain, this, cell, temporalCoordinates, metadataStoreGroup);
             }
         } else {
-            performActionOnAllCells((PlantCell) getFirstCell(), cell -> {
+            performActionOnAllCells((PlantCell) getFirstCell(), cell ->
+                    performCellAction(terrain, temporalCoordinates, cell, genome.getNextAct(), true));
+
+            checkForDeath(temporalCoordinates, mark);
+        }
 
-                logger.info("Burning calories for cell " + cell);
-                removeEnergyFromMetabolism(cell.spendEnergy());
-                logger.info("Leeching resources..");
-                addEnergyFromEcosystem(cell.generateEnergy(terrain));
-                logger.info("Actioning cell " + cell);
+    }
+
+    /**
+     * Decide the next action of every cell without modifying the terrain. Each cell consumes the next
+     * gene of the genome exactly as {@link #performAction} would.
+     *
+     * @param terrain             the terrain
+     * @param temporalCoordinates time
+     * @return intents that claim a location, in commit order
+     */
+    @Override
+    public List<GrowthIntent> planAction(final Terrain terrain, final TemporalCoordinates temporalCoordinates) {
+        final List<GrowthIntent> intents = new LinkedList<>();
 
+        if (!alive) {
+            plan = null;
+        } else if (!cell.isActivated()) {
+            if (cell instanceof PlantBehavior) {
+                final PlantBehavior seedBehavior = (PlantBehavior) cell;
+                intents.add(new GrowthIntent(this, cell, seedBehavior, seedBehavior.getTarget(cell)));
+            }
+            plan = intents;
+        } else {
+            performActionOnAllCells((PlantCell) getFirstCell(), cell -> {
                 final PlantBehavior plantBehavior = genome.getNextAct();
-                if (null != plantBehavior) {
-
-
-                    if (cell.canCellSupport(plantBehavior) && plantBehavior.getEnergyCost(terrain.getProperties()) <= energy) {
-                        try {
-                            final Cell newCell = plantBehavior.performAction(properties, terrain, this,
-                                    cell, temporalCoordinates, metadataStoreGroup);
-
-
-                            if (null != newCell) {
-                                //Update last updated time
-                                lastUpdateTime = temporalCoordinates;
-                                childCount++;
-                                totalMetabolismCost += newCell.getMetabolismCost();
-                                if (newCell instanceof SeedCell) {
-                                    seedCount++;
-                                }
-                            } else {
-                                logger.info("Action " + plantBehavior + " returned no cells");
-                            }
-                        } catch (final EvolutionException e) {
-                            // Collisions
-                             //logger.warning(e.getMessage());
-                        }
-                    } else if (!cell.canCellSupport(plantBehavior)) {
-                        logger.info("Cell " + cell + " Behavior not allowed: " + plantBehavior);
-                    } else {
-                        logger.info("Not enough energy for " + plantBehavior);
-                    }
+                final SpatialCoordinates target;
+                if (null != plantBehavior && cell.canCellSupport(plantBehavior)) {
+                    target = plantBehavior.getTarget(cell);
+                } else {
+                    target = null;
                 }
+                intents.add(new GrowthIntent(this, cell, plantBehavior, target));
             });
+            plan = intents;
+        }
+        return intents.stream().filter(GrowthIntent::hasTarget).toList();
+    }
 
-            //These are optional
-            final Integer ageLimit = properties.get(PROPERTY_OLD_AGE_LIMIT, Integer.class, -1);
-            final Integer stagnationLimit = properties.get(PROPERTY_STAGNATION_LIMIT, Integer.class, -1);
-            final Integer starvationLimit = properties.get(PROPERTY_STARVATION_LIMIT, Integer.class, -1);
+    /**
+     * Perform the action decided by {@link #planAction}. Intents that were not accepted are treated
+     * as collisions. Without a plan this behaves like {@link #performAction}.
+     *
+     * @param terrain             the terrain
+     * @param temporalCoordinates time
+     * @param accepted            test for whether an intent won its location
+     * @param onCellDeath         callback if a cell dies
+     */
+    @Override
+    public void commitAction(final Terrain terrain, final TemporalCoordinates temporalCoordinates,
+                             final Predicate<GrowthIntent> accepted, final BiConsumer<Organism, Cell> onCellDeath) {
 
-            String deathLogStr = "";
-            if (0 <= starvationLimit && starvationLimit >= energy) {
-                kill(temporalCoordinates, CauseOfDeath.Exhaustion, "Organism " + uuid + " died from exhaustion.");
+        final List<GrowthIntent> intents = plan;
+        plan = null;
+
+        if (!alive || null == intents) {
+            performAction(terrain, temporalCoordinates, onCellDeath);
+        } else if (!cell.isActivated()) {
+            final boolean blocked = intents.stream().anyMatch(intent -> intent.hasTarget() && !accepted.test(intent));
+            if (blocked && cell instanceof EjectedSeedCell) {
+                ((EjectedSeedCell) cell).land();
+            } else {
+                performAction(terrain, temporalCoordinates, onCellDeath);
             }
-            if (0 <= stagnationLimit && stagnationLimit < mark - lastUpdateTime.totalDays()) {
-                kill(temporalCoordinates, CauseOfDeath.Stagnation, "Organism " + uuid + " died from stagnation.");
+        } else {
+            final long mark = temporalCoordinates.totalDays();
+            for (final GrowthIntent intent : intents) {
+                performCellAction(terrain, temporalCoordinates, (PlantCell) intent.cell(), intent.behavior(),
+                        !intent.hasTarget() || accepted.test(intent));
             }
-            if (0 <= ageLimit && ageLimit < temporalCoordinates.totalDays() - birthTime.totalDays()) {
-                kill(temporalCoordinates, CauseOfDeath.OldAge, "Organism " + uuid + " died from old age.");
+            checkForDeath(temporalCoordinates, mark);
+        }
+    }
+
+    /**
+     * Metabolize, harvest, and perform a single behavior for a cell
+     *
+     * @param terrain             the terrain
+     * @param temporalCoordinates time
+     * @param cell                cell acting
+     * @param plantBehavior       behavior to perform or null
+     * @param permitted           false if the behavior's location was claimed by another organism
+     * @return the outcome of the behavior
+     */
+    private ActionResult performCellAction(final Terrain terrain, final TemporalCoordinates temporalCoordinates,
+                                   final PlantCell cell, final PlantBehavior plantBehavior, final boolean permitted) {
+
+        logger.fine(() -> "Burning calories for cell " + cell);
+        removeEnergyFromMetabolism(cell.spendEnergy());
+        logger.fine(() -> "Leeching resources..");
+        addEnergyFromEcosystem(cell.generateEnergy(terrain));
+        logger.fine(() -> "Actioning cell " + cell);
+
+        final ActionResult result;
+        if (null == plantBehavior) {
+            result = ActionResult.NONE;
+        } else if (!cell.canCellSupport(plantBehavior)) {
+            result = ActionResult.NOT_SUPPORTED;
+        } else if (plantBehavior.getEnergyCost(terrain.getProperties()) > energy) {
+            result = ActionResult.INSUFFICIENT_ENERGY;
+        } else if (!permitted) {
+            result = ActionResult.COLLIDED;
+        } else {
+            result = plantBehavior.performAction(properties, terrain, this,
+                    cell, temporalCoordinates, metadataStoreGroup);
+        }
+
+        switch (result.outcome()) {
+            case PLACED -> {
+                final Cell newCell = result.cell();
+                //Update last updated time
+                lastUpdateTime = temporalCoordinates;
+                childCount++;
+                totalMetabolismCost += newCell.getMetabolismCost();
+                if (newCell instanceof SeedCell) {
+                    seedCount++;
+                }
             }
-            if (1 == cell.getChildren().size() && 0 >= germinationCountDown--) {
-                kill(temporalCoordinates, CauseOfDeath.Stagnation, "Organism " + uuid + " failed to germinate.");
+            case NOT_SUPPORTED -> logger.fine(() -> "Cell " + cell + " Behavior not allowed: " + plantBehavior);
+            case INSUFFICIENT_ENERGY -> logger.fine(() -> "Not enough energy for " + plantBehavior);
+            default -> {
+                // Nothing grown or a collision, both are routine
             }
         }
+        return result;
+    }
 
+    /**
+     * Kill the organism if any of the configured limits have been reached
+     *
+     * @param temporalCoordinates time
+     * @param mark                day the tick started on
+     */
+    private void checkForDeath(final TemporalCoordinates temporalCoordinates, final long mark) {
+        //These are optional
+        final Integer ageLimit = properties.get(PROPERTY_OLD_AGE_LIMIT, Integer.class, -1);
+        final Integer stagnationLimit = properties.get(PROPERTY_STAGNATION_LIMIT, Integer.class, -1);
+        final Integer starvationLimit = properties.get(PROPERTY_STARVATION_LIMIT, Integer.class, -1);
+
+        if (0 <= starvationLimit && starvationLimit >= energy) {
+            kill(temporalCoordinates, CauseOfDeath.Exhaustion, "Organism " + uuid + " died from exhaustion.");
+        }
+        if (0 <= stagnationLimit && stagnationLimit < mark - lastUpdateTime.totalDays()) {
+            kill(temporalCoordinates, CauseOfDeath.Stagnation, "Organism " + uuid + " died from stagnation.");
+        }
+        if (0 <= ageLimit && ageLimit < temporalCoordinates.totalDays() - birthTime.totalDays()) {
+            kill(temporalCoordinates, CauseOfDeath.OldAge, "Organism " + uuid + " died from old age.");
+        }
+        if (1 == cell.getChildren().size() && 0 >= germinationCountDown--) {
+            kill(temporalCoordinates, CauseOfDeath.Stagnation, "Organism " + uuid + " failed to germinate.");
+        }
     }
 
     /**
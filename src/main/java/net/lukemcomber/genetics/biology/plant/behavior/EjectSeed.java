@@ -9,11 +9,11 @@ import net.lukemcomber.genetics.biology.Cell;
 import net.lukemcomber.genetics.biology.Genome;
 import net.lukemcomber.genetics.biology.GenomeTransciber;
 import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.biology.plant.ActionResult;
 import net.lukemcomber.genetics.biology.plant.PlantBehavior;
 import net.lukemcomber.genetics.biology.plant.PlantOrganism;
 import net.lukemcomber.genetics.biology.plant.cells.EjectedSeedCell;
 import net.lukemcomber.genetics.biology.plant.cells.SeedCell;
-import net.lukemcomber.genetics.exception.EvolutionException;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.TemporalCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
@@ -48,20 +48,22 @@ public class EjectSeed implements PlantBehavior {
      * @param activeCell          cell performing the action
      * @param temporalCoordinates time
      * @param metadataStoreGroup  metadata cache
-     * @return a new ejected seed cell
+     * @return the outcome, holding the new ejected seed cell if placed
      */
     @Override
-    public Cell performAction(final UniverseConstants properties, final Terrain terrain, final Organism organism,
-                              final Cell activeCell, final TemporalCoordinates temporalCoordinates,
-                              final MetadataStoreGroup metadataStoreGroup) {
-        final long cur = System.currentTimeMillis();
-        SeedCell retVal = null;
+    public ActionResult performAction(final UniverseConstants properties, final Terrain terrain, final Organism organism,
+                                      final Cell activeCell, final TemporalCoordinates temporalCoordinates,
+                                      final MetadataStoreGroup metadataStoreGroup) {
+        final ActionResult retVal;
 
         final SpatialCoordinates newSpatialCoordinates = function.apply(activeCell.getCoordinates());
 
 
-        //The boolean logic looks weird, but we need to use AND for short circuit
-        if ((!terrain.isOutOfBounds(newSpatialCoordinates)) && (!terrain.hasCell(newSpatialCoordinates))) {
+        if (terrain.isOutOfBounds(newSpatialCoordinates)) {
+            retVal = ActionResult.OUT_OF_BOUNDS;
+        } else if (terrain.hasCell(newSpatialCoordinates)) {
+            retVal = ActionResult.COLLIDED;
+        } else {
 
             if (null != organism) {
                 //Organism shouldn't be null, but we're in mid-redesign ... so blow up if it happens
@@ -79,25 +81,24 @@ public class EjectSeed implements PlantBehavior {
                 /*
                  * DEV NOTE: This is where mutation is initiated!
                  */
-                retVal = new EjectedSeedCell(transciber.transcribe(
-                        organism.getGenome()), newSpatialCoordinates, terrain.getProperties(), throwDistance,
+                final SeedCell seedCell = new EjectedSeedCell(transciber.transcribe(organism.getGenome(),
+                        streamKey(organism, temporalCoordinates, newSpatialCoordinates)), newSpatialCoordinates, terrain.getProperties(), throwDistance,
                         function);
 
-                final PlantOrganism plantOrganism = new PlantOrganism(organism.getUniqueID(), retVal,
+                final PlantOrganism plantOrganism = new PlantOrganism(organism.getUniqueID(), seedCell,
                         temporalCoordinates, properties, transciber, organism.getFitnessFunction(), metadataStoreGroup);
 
-                logger.info(String.format("Created %s at %s from EjectedSeed", plantOrganism.getUniqueID(), newSpatialCoordinates));
+                logger.fine(() -> String.format("Created %s at %s from EjectedSeed", plantOrganism.getUniqueID(), newSpatialCoordinates));
 
                 terrain.addOrganism(plantOrganism);
 
 
                 //Energy dump
                 organism.spendEnergy(getEnergyCost(properties) + throwDistance);
+                retVal = ActionResult.placed(seedCell);
             } else {
                 throw new RuntimeException("Organism is null!");
             }
-        } else {
-            throw new EvolutionException("Seed growth failed. Collision detected.");
         }
 
         return retVal;
@@ -114,4 +115,15 @@ public class EjectSeed implements PlantBehavior {
         return properties.get(PROPERTY_EJECT_SEED_COST, Integer.class);
 
     }
+
+    /**
+     * Get the location the new seed would be ejected to
+     *
+     * @param activeCell the cell to perform the behavior
+     * @return target location
+     */
+    @Override
+    public SpatialCoordinates getTarget(final Cell activeCell) {
+        return function.apply(activeCell.getCoordinates());
+    }
 }
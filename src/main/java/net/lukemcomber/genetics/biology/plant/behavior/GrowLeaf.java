@@ -7,10 +7,10 @@ package net.lukemcomber.genetics.biology.plant.behavior;
 
 import net.lukemcomber.genetics.biology.Cell;
 import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.biology.plant.ActionResult;
 import net.lukemcomber.genetics.biology.plant.PlantBehavior;
 import net.lukemcomber.genetics.biology.plant.cells.LeafCell;
 import net.lukemcomber.genetics.biology.plant.cells.StemCell;
-import net.lukemcomber.genetics.exception.EvolutionException;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.TemporalCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
@@ -45,31 +45,34 @@ public class GrowLeaf implements PlantBehavior {
      * @param cell                cell performing the action
      * @param temporalCoordinates time
      * @param metadataStoreGroup  metadata cache
-     * @return a leaf cell
+     * @return the outcome, holding the new leaf cell if placed
      */
     @Override
-    public Cell performAction(final UniverseConstants properties, final Terrain terrain, final Organism organism, final Cell cell,
-                              final TemporalCoordinates temporalCoordinates, final MetadataStoreGroup metadataStoreGroup) {
+    public ActionResult performAction(final UniverseConstants properties, final Terrain terrain, final Organism organism, final Cell cell,
+                                      final TemporalCoordinates temporalCoordinates, final MetadataStoreGroup metadataStoreGroup) {
 
-        Cell retVal = null;
+        final ActionResult retVal;
         final SpatialCoordinates newSpatialCoordinates = function.apply(cell.getCoordinates());
 
-        //The boolean logic looks weird, but we need to use AND for short circuit
-        if ((!terrain.isOutOfBounds(newSpatialCoordinates)) && (!terrain.hasCell(newSpatialCoordinates))) {
+        if (terrain.isOutOfBounds(newSpatialCoordinates)) {
+            retVal = ActionResult.OUT_OF_BOUNDS;
+        } else if (terrain.hasCell(newSpatialCoordinates)) {
+            retVal = ActionResult.COLLIDED;
+        } else {
             Cell parentCell = cell;
             if (cell instanceof LeafCell) {
                 final Cell grandParentCell = cell.getParent();
-                logger.info("Grandparent cell is: " + grandParentCell.getCellType() + " at " + grandParentCell.getCoordinates());
+                logger.fine(() -> "Grandparent cell is: " + grandParentCell.getCellType() + " at " + grandParentCell.getCoordinates());
                 final StemCell stemCell = new StemCell(grandParentCell, cell.getCoordinates(), terrain.getProperties());
 
-                logger.info("Stem created at " + stemCell.getCoordinates());
+                logger.fine(() -> "Stem created at " + stemCell.getCoordinates());
 
                 //body swap!
                 grandParentCell.removeChild(cell);
                 grandParentCell.addChild(stemCell);
 
-                logger.info("Removed cell " + cell.getCellType() + " from grandparent");
-                logger.info("Added cell " + stemCell.getCellType() + " from grandparent");
+                logger.fine(() -> "Removed cell " + cell.getCellType() + " from grandparent");
+                logger.fine(() -> "Added cell " + stemCell.getCellType() + " from grandparent");
 
 
                 //Now give all the child to the stem, even though there really shouldn't be any yet
@@ -77,7 +80,7 @@ public class GrowLeaf implements PlantBehavior {
                     stemCell.addChild(childChld);
                     childChld.changeParentCell(stemCell);
 
-                    logger.info("Copied child " + childChld.getCellType() + " at " + childChld.getCoordinates());
+                    logger.fine(() -> "Copied child " + childChld.getCellType() + " at " + childChld.getCoordinates());
                 }
                 terrain.deleteCell(cell.getCoordinates(), organism.getUniqueID());
 
@@ -87,15 +90,14 @@ public class GrowLeaf implements PlantBehavior {
             }
             final LeafCell newCell = new LeafCell(parentCell, newSpatialCoordinates, terrain.getProperties());
 
-            logger.info("Creating Leaf at " + newSpatialCoordinates + " with parent " + parentCell.getCellType());
+            final Cell leafParent = parentCell;
+            logger.fine(() -> "Creating Leaf at " + newSpatialCoordinates + " with parent " + leafParent.getCellType());
 
             parentCell.addChild(newCell);
             terrain.setCell(newCell, organism);
-            retVal = newCell;
-        } else {
-            throw new EvolutionException("Leaf growth failed. Collision detected.");
+            organism.spendEnergy(getEnergyCost(properties));
+            retVal = ActionResult.placed(newCell);
         }
-        organism.spendEnergy(getEnergyCost(properties));
 
         return retVal;
     }
@@ -110,4 +112,15 @@ public class GrowLeaf implements PlantBehavior {
     public int getEnergyCost(final UniverseConstants properties) {
         return properties.get(PROPERTY_GROW_LEAF_COST, Integer.class);
     }
+
+    /**
+     * Get the location the new cell would be grown at
+     *
+     * @param activeCell the cell to perform the behavior
+     * @return target location
+     */
+    @Override
+    public SpatialCoordinates getTarget(final Cell activeCell) {
+        return function.apply(activeCell.getCoordinates());
+    }
 }
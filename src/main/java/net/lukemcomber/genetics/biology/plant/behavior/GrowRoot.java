@@ -7,9 +7,9 @@ package net.lukemcomber.genetics.biology.plant.behavior;
 
 import net.lukemcomber.genetics.biology.Cell;
 import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.biology.plant.ActionResult;
 import net.lukemcomber.genetics.biology.plant.PlantBehavior;
 import net.lukemcomber.genetics.biology.plant.cells.RootCell;
-import net.lukemcomber.genetics.exception.EvolutionException;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.TemporalCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
@@ -43,22 +43,24 @@ public class GrowRoot implements PlantBehavior {
      * @param rootCell            cell performing the action
      * @param temporalCoordinates time
      * @param metadataStoreGroup  metadata cache
-     * @return a root cell
+     * @return the outcome, holding the new root cell if placed
      */
     @Override
-    public Cell performAction(final UniverseConstants properties, final Terrain terrain, final Organism organism, final Cell rootCell,
-                              final TemporalCoordinates temporalCoordinates, final MetadataStoreGroup metadataStoreGroup) {
-        Cell retVal = null;
+    public ActionResult performAction(final UniverseConstants properties, final Terrain terrain, final Organism organism, final Cell rootCell,
+                                      final TemporalCoordinates temporalCoordinates, final MetadataStoreGroup metadataStoreGroup) {
+        final ActionResult retVal;
         final SpatialCoordinates newSpatialCoordinates = function.apply(rootCell.getCoordinates());
-        if (!terrain.isOutOfBounds(newSpatialCoordinates) && !terrain.hasCell(newSpatialCoordinates)) {
+        if (terrain.isOutOfBounds(newSpatialCoordinates)) {
+            retVal = ActionResult.OUT_OF_BOUNDS;
+        } else if (terrain.hasCell(newSpatialCoordinates)) {
+            retVal = ActionResult.COLLIDED;
+        } else {
             final RootCell newCell = new RootCell(rootCell, newSpatialCoordinates, terrain.getProperties());
             terrain.setCell(newCell, organism);
             rootCell.addChild(newCell);
-            retVal = newCell;
-        } else {
-            throw new EvolutionException("Root growth failed. Collision detected.");
+            organism.spendEnergy(getEnergyCost(properties));
+            retVal = ActionResult.placed(newCell);
         }
-        organism.spendEnergy(getEnergyCost(properties));
 
         return retVal;
     }
@@ -73,4 +75,15 @@ public class GrowRoot implements PlantBehavior {
     public int getEnergyCost(final UniverseConstants properties) {
         return properties.get(PROPERTY_GROW_ROOT_COST, Integer.class);
     }
+
+    /**
+     * Get the location the new cell would be grown at
+     *
+     * @param activeCell the cell to perform the behavior
+     * @return target location
+     */
+    @Override
+    public SpatialCoordinates getTarget(final Cell activeCell) {
+        return function.apply(activeCell.getCoordinates());
+    }
 }
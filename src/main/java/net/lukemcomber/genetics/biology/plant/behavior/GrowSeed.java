@@ -7,9 +7,9 @@ package net.lukemcomber.genetics.biology.plant.behavior;
 
 import net.lukemcomber.genetics.biology.Cell;
 import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.biology.plant.ActionResult;
 import net.lukemcomber.genetics.biology.plant.PlantBehavior;
 import net.lukemcomber.genetics.biology.plant.cells.SeedCell;
-import net.lukemcomber.genetics.exception.EvolutionException;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.TemporalCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
@@ -48,19 +48,21 @@ public class GrowSeed implements PlantBehavior {
      * @param cell                cell performing the action
      * @param temporalCoordinates time
      * @param metadataStoreGroup  metadata cache
-     * @return a seed cell
+     * @return the outcome, holding the new seed cell if placed
      */
     @Override
-    public Cell performAction(final UniverseConstants properties, final Terrain terrain, final Organism organism, final Cell cell,
-                              final TemporalCoordinates temporalCoordinates, final MetadataStoreGroup metadataStoreGroup) {
-        final long cur = System.currentTimeMillis();
-        Cell retVal = null;
+    public ActionResult performAction(final UniverseConstants properties, final Terrain terrain, final Organism organism, final Cell cell,
+                                      final TemporalCoordinates temporalCoordinates, final MetadataStoreGroup metadataStoreGroup) {
+        final ActionResult retVal;
 
         final SpatialCoordinates newSpatialCoordinates = function.apply(cell.getCoordinates());
 
 
-        //The boolean logic looks weird, but we need to use AND for short circuit
-        if ((!terrain.isOutOfBounds(newSpatialCoordinates)) && (!terrain.hasCell(newSpatialCoordinates))) {
+        if (terrain.isOutOfBounds(newSpatialCoordinates)) {
+            retVal = ActionResult.OUT_OF_BOUNDS;
+        } else if (terrain.hasCell(newSpatialCoordinates)) {
+            retVal = ActionResult.COLLIDED;
+        } else {
 
             if (null != organism) {
                 //Organism shouldn't be null, but we're in mid-redesign ... so blow up if it happens
@@ -70,20 +72,18 @@ public class GrowSeed implements PlantBehavior {
                 /*
                  * DEV NOTE: This is where mutation is initiated!
                  */
-                final SeedCell newCell = new SeedCell(cell, transciber.transcribe(
-                        organism.getGenome()), newSpatialCoordinates, terrain.getProperties());
-                logger.info("Created new seed: " + organism.getUniqueID() + " at " + newSpatialCoordinates);
+                final SeedCell newCell = new SeedCell(cell, transciber.transcribe(organism.getGenome(),
+                        streamKey(organism, temporalCoordinates, newSpatialCoordinates)), newSpatialCoordinates, terrain.getProperties());
+                logger.fine(() -> "Created new seed: " + organism.getUniqueID() + " at " + newSpatialCoordinates);
                 cell.addChild(newCell);
                 terrain.setCell(newCell, organism);
-                retVal = newCell;
+                organism.spendEnergy(getEnergyCost(properties));
+                retVal = ActionResult.placed(newCell);
             } else {
                 throw new RuntimeException("Organism is null!");
             }
-        } else {
-            throw new EvolutionException("Seed growth failed. Collision detected.");
         }
 
-        organism.spendEnergy(getEnergyCost(properties));
         return retVal;
     }
 
@@ -98,4 +98,15 @@ public class GrowSeed implements PlantBehavior {
     public int getEnergyCost(final UniverseConstants properties) {
         return properties.get(PROPERTY_GROW_SEED_COST, Integer.class);
     }
+
+    /**
+     * Get the location the new cell would be grown at
+     *
+     * @param activeCell the cell to perform the behavior
+     * @return target location
+     */
+    @Override
+    public SpatialCoordinates getTarget(final Cell activeCell) {
+        return function.apply(activeCell.getCoordinates());
+    }
 }
@@ -2,6 +2,7 @@ package net.lukemcomber.genetics.biology.plant.behavior;
 
 import net.lukemcomber.genetics.biology.Cell;
 import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.biology.plant.ActionResult;
 import net.lukemcomber.genetics.biology.plant.PlantBehavior;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.TemporalCoordinates;
@@ -24,8 +25,8 @@ public class NoOp implements PlantBehavior {
     }
 
     @Override
-    public Cell performAction(UniverseConstants properties, Terrain terrain, Organism organism, Cell activeCell, TemporalCoordinates temporalCoordinates, MetadataStoreGroup metadataStoreGroup) {
-        return null;
+    public ActionResult performAction(UniverseConstants properties, Terrain terrain, Organism organism, Cell activeCell, TemporalCoordinates temporalCoordinates, MetadataStoreGroup metadataStoreGroup) {
+        return ActionResult.NONE;
     }
 
     @Override
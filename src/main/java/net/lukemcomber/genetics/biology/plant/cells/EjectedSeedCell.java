@@ -3,6 +3,7 @@ package net.lukemcomber.genetics.biology.plant.cells;
 import net.lukemcomber.genetics.biology.Cell;
 import net.lukemcomber.genetics.biology.Genome;
 import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.biology.plant.ActionResult;
 import net.lukemcomber.genetics.biology.plant.PlantBehavior;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.TemporalCoordinates;
@@ -47,7 +48,7 @@ public class EjectedSeedCell extends SeedCell implements PlantBehavior {
     @Override
     public void activate() {
         // Don't allow activation until we are in place
-        logger.info("Squelching activate signal.");
+        logger.fine(() -> "Squelching activate signal.");
     }
 
     /**
@@ -58,35 +59,57 @@ public class EjectedSeedCell extends SeedCell implements PlantBehavior {
      * @param activeCell          cell performing the action
      * @param temporalCoordinates time
      * @param metadataStoreGroup  metadata cache
-     * @return null
+     * @return the outcome of the move, never placing a new cell
      */
     @Override
-    public Cell performAction(final UniverseConstants properties, final Terrain terrain, final Organism organism,
-                              final Cell activeCell, final TemporalCoordinates temporalCoordinates,
-                              final MetadataStoreGroup metadataStoreGroup) {
+    public ActionResult performAction(final UniverseConstants properties, final Terrain terrain, final Organism organism,
+                                      final Cell activeCell, final TemporalCoordinates temporalCoordinates,
+                                      final MetadataStoreGroup metadataStoreGroup) {
 
+        ActionResult retVal = ActionResult.NONE;
         if (0 < energy) {
             // move the cell through the terrain until collision or energy is depletedo
             final SpatialCoordinates newSpatialCoordinates = spatialTransformer.apply(getCoordinates());
 
-            if ((!terrain.isOutOfBounds(newSpatialCoordinates)) && (!terrain.hasCell(newSpatialCoordinates))) {
-                if (terrain.deleteCell(getCoordinates(), organism.getUniqueID())) {
-                    spatialCoordinates = newSpatialCoordinates;
-                    terrain.setCell(this, organism);
-                    energy = energy - getEnergyCost(properties);
-                } else {
-                    throw new RuntimeException("This shouldn't happen");
-                }
+            if (terrain.isOutOfBounds(newSpatialCoordinates)) {
+                retVal = ActionResult.OUT_OF_BOUNDS;
+                land();
+            } else if (terrain.hasCell(newSpatialCoordinates)) {
+                retVal = ActionResult.COLLIDED;
+                land();
+            } else if (terrain.deleteCell(getCoordinates(), organism.getUniqueID())) {
+                spatialCoordinates = newSpatialCoordinates;
+                terrain.setCell(this, organism);
+                energy = energy - getEnergyCost(properties);
             } else {
-                super.activate();
-                logger.info("Collision: Ejected seed activated with wasted energy.");
+                throw new RuntimeException("This shouldn't happen");
             }
         } else {
             super.activate();
-            logger.info("Ejected seed activated.");
+            logger.fine(() -> "Ejected seed activated.");
         }
 
-        return null;
+        return retVal;
+    }
+
+    /**
+     * Stop the seed where it is and activate it, wasting any remaining travel energy. Used when the
+     * seed's next move was lost to another organism.
+     */
+    public void land() {
+        super.activate();
+        logger.fine(() -> "Collision: Ejected seed activated with wasted energy.");
+    }
+
+    /**
+     * Get the location the seed will travel to next
+     *
+     * @param activeCell cell performing the action
+     * @return next location, or null if the seed has no travel energy left
+     */
+    @Override
+    public SpatialCoordinates getTarget(final Cell activeCell) {
+        return 0 < energy ? spatialTransformer.apply(getCoordinates()) : null;
     }
 
     /**
@@ -14,7 +14,6 @@ import net.lukemcomber.genetics.biology.plant.behavior.GrowSeed;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
 import net.lukemcomber.genetics.world.terrain.Terrain;
-import net.lukemcomber.genetics.world.terrain.TerrainProperty;
 import net.lukemcomber.genetics.world.terrain.properties.SolarEnergyTerrainProperty;
 
 import java.util.logging.Logger;
@@ -75,26 +74,14 @@ public class LeafCell extends PlantCell {
      */
     @Override
     public int generateEnergy(final Terrain terrain) {
-        int retVal = 0;
         final int maxEnergyInput = terrain.getProperties().get(PROPERTY_ENERGY, Integer.class);
 
-        final TerrainProperty property = terrain.getTerrainProperty(spatialCoordinates, SolarEnergyTerrainProperty.ID);
-        if( null != property ){
-            final SolarEnergyTerrainProperty solar = (SolarEnergyTerrainProperty) property;
-            int val = solar.getValue();;
-            logger.info( String.format("LeafNode - Current Solar %d at (%d,%d)", val,
-                    spatialCoordinates.xAxis(), spatialCoordinates.yAxis()));
-            /*
-             * DEV NOTE: Since the daily cost is 1, we need to gather at least 2 per tick
-             */
-            if( maxEnergyInput < val){
-                retVal = maxEnergyInput;
-                solar.setValue(val-maxEnergyInput);
-            } else {
-                retVal = val;
-                solar.setValue(0);
-            }
-        }
+        /*
+         * DEV NOTE: Since the daily cost is 1, we need to gather at least 2 per tick
+         */
+        final int retVal = terrain.harvestResource(spatialCoordinates, SolarEnergyTerrainProperty.HANDLE, maxEnergyInput);
+        logger.fine(() -> String.format("LeafNode - Harvested Solar %d at (%d,%d)", retVal,
+                spatialCoordinates.xAxis(), spatialCoordinates.yAxis()));
         totalEnergyCollected += retVal;
         return retVal;
     }
@@ -12,7 +12,6 @@ import net.lukemcomber.genetics.biology.plant.behavior.GrowRoot;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
 import net.lukemcomber.genetics.world.terrain.Terrain;
-import net.lukemcomber.genetics.world.terrain.TerrainProperty;
 import net.lukemcomber.genetics.world.terrain.properties.SoilNutrientsTerrainProperty;
 
 import java.util.logging.Logger;
@@ -29,6 +28,7 @@ public class RootCell extends PlantCell {
     private static final Logger logger = Logger.getLogger(RootCell.class.getName());
     private final SpatialCoordinates spatialCoordinates;
     private final int metabolicCost;
+    private final int maxEnergyInput;
     private int totalEnergyCollected;
 
     /**
@@ -41,6 +41,7 @@ public class RootCell extends PlantCell {
         super(parent);
         this.spatialCoordinates = spatialCoordinates;
         this.metabolicCost = properties.get(PROPERTY_METACOST, Integer.class);
+        this.maxEnergyInput = properties.get(PROPERTY_ENERGY, Integer.class);
         this.totalEnergyCollected = 0;
     }
 
@@ -72,54 +73,16 @@ public class RootCell extends PlantCell {
      */
     @Override
     public int generateEnergy(final Terrain terrain) {
-        int retVal = 0;
-
-        final SpatialCoordinates westNeighbor = new SpatialCoordinates(spatialCoordinates.xAxis()-1, spatialCoordinates.yAxis(),spatialCoordinates.zAxis());
-        final SpatialCoordinates eastNeighbor = new SpatialCoordinates(spatialCoordinates.xAxis()+1, spatialCoordinates.yAxis(),spatialCoordinates.zAxis());
-        final SpatialCoordinates northNeighbor = new SpatialCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis()+1,spatialCoordinates.zAxis());
-        final SpatialCoordinates southNeighbor = new SpatialCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis()-1,spatialCoordinates.zAxis());
-
-        if( (!terrain.isOutOfBounds(westNeighbor) && !terrain.hasCell(westNeighbor))){
-            retVal += harvestEnergyFromSoil(terrain,westNeighbor);
-        }
-        if( (!terrain.isOutOfBounds(eastNeighbor) && !terrain.hasCell(eastNeighbor))){
-            retVal += harvestEnergyFromSoil(terrain,eastNeighbor);
-        }
-        if( ( !terrain.isOutOfBounds(northNeighbor) && !terrain.hasCell(northNeighbor))){
-            retVal += harvestEnergyFromSoil(terrain,northNeighbor);
-        }
-        if( ( !terrain.isOutOfBounds(southNeighbor) && !terrain.hasCell(southNeighbor))){
-            retVal += harvestEnergyFromSoil(terrain,southNeighbor);
-        }
-
-        retVal += harvestEnergyFromSoil(terrain,spatialCoordinates);
+        final int retVal = terrain.harvestNeighbourhood(spatialCoordinates.xAxis(), spatialCoordinates.yAxis(),
+                SoilNutrientsTerrainProperty.HANDLE, maxEnergyInput);
+        logger.fine(() -> String.format("RootNode - Harvested Soil %d around (%d,%d)", retVal,
+                spatialCoordinates.xAxis(), spatialCoordinates.yAxis()));
 
         totalEnergyCollected += retVal;
 
         return retVal;
     }
 
-    private int harvestEnergyFromSoil(final Terrain terrain, final SpatialCoordinates coordinates){
-
-        int retVal = 0;
-        final int maxEnergyInput = terrain.getProperties().get(PROPERTY_ENERGY,Integer.class);
-        final TerrainProperty property = terrain.getTerrainProperty(coordinates, SoilNutrientsTerrainProperty.ID);
-        if( null != property ){
-            final SoilNutrientsTerrainProperty soil = (SoilNutrientsTerrainProperty) property;
-            int val = soil.getValue();
-            logger.info( String.format("RootNode - Current Soil %d at (%d,%d)", val,
-                    coordinates.xAxis(), coordinates.yAxis()));
-            if( maxEnergyInput < val ){
-                retVal = maxEnergyInput;
-                soil.setValue(val-maxEnergyInput);
-            } else {
-                retVal = val;
-                soil.setValue(0);
-            }
-        }
-        return retVal;
-    }
-
     /**
      * Get the cost of being alive
      *
@@ -11,6 +11,7 @@ import net.lukemcomber.genetics.biology.Genome;
 import net.lukemcomber.genetics.biology.GenomeTransciber;
 import net.lukemcomber.genetics.biology.OrganismFactory;
 import net.lukemcomber.genetics.model.UniverseConstants;
+import net.lukemcomber.genetics.utilities.RandomStreams;
 
 import java.util.Arrays;
 import java.util.Random;
@@ -31,9 +32,21 @@ public class AsexualTransposGenomeTranscriber implements GenomeTransciber {
 
     private final UniverseConstants configuration;
     private final Random rng;
+    private final RandomStreams streams;
 
     public AsexualTransposGenomeTranscriber(final UniverseConstants configuraion) {
+        this(configuraion, null);
+    }
+
+    /**
+     * Creates a new instance that draws from random streams when given a stream key
+     *
+     * @param configuraion configuration properties
+     * @param streams      random streams, or null to always use the shared generator
+     */
+    public AsexualTransposGenomeTranscriber(final UniverseConstants configuraion, final RandomStreams streams) {
         this.configuration = configuraion;
+        this.streams = streams;
         final int randomSeed = configuraion.get(GENOME_TRANSPOSE_SEED, Integer.class, 0);
 
         if (0 < randomSeed) {
@@ -52,6 +65,25 @@ public class AsexualTransposGenomeTranscriber implements GenomeTransciber {
      */
     @Override
     public Genome transcribe(final Genome originalGenome) {
+        return transcribe(originalGenome, rng);
+    }
+
+    /**
+     * Transcribe genome while randomly transposing genes, using the random stream for the key
+     *
+     * @param originalGenome source genome
+     * @param streamKey      key of the random stream
+     * @return modified genome
+     */
+    @Override
+    public Genome transcribe(final Genome originalGenome, final long streamKey) {
+        if (null == streams) {
+            return transcribe(originalGenome);
+        }
+        return transcribe(originalGenome, streams.random(streamKey));
+    }
+
+    private Genome transcribe(final Genome originalGenome, final Random rng) {
         final float probability = 1 / configuration.get(GENOME_TRANSPOSE_PROBABILITY, Integer.class).floatValue();
         final int flankLength = configuration.get(GENOME_TRANSPOSE_FLANK_LENGTH, Integer.class, 2);
 
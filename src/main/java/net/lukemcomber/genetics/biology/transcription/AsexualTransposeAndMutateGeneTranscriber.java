@@ -8,6 +8,7 @@ package net.lukemcomber.genetics.biology.transcription;
 import net.lukemcomber.genetics.biology.Genome;
 import net.lukemcomber.genetics.biology.GenomeTransciber;
 import net.lukemcomber.genetics.model.UniverseConstants;
+import net.lukemcomber.genetics.utilities.RandomStreams;
 
 /**
  * A genome transcriber that supports both {@link AsexualTransposGenomeTranscriber}
@@ -15,6 +16,9 @@ import net.lukemcomber.genetics.model.UniverseConstants;
  */
 public class AsexualTransposeAndMutateGeneTranscriber implements GenomeTransciber {
 
+    private static final long TRANSPOSE_STREAM = 1;
+    private static final long MUTATE_STREAM = 2;
+
     private final AsexualTransposGenomeTranscriber asexualTransposGenomeTranscriber;
     private final MutationGenomeTranscriber mutationGenomeTranscriber;
 
@@ -22,8 +26,20 @@ public class AsexualTransposeAndMutateGeneTranscriber implements GenomeTranscibe
      * Creates a new instance
      */
     public AsexualTransposeAndMutateGeneTranscriber(final UniverseConstants configuration) {
-        asexualTransposGenomeTranscriber = new AsexualTransposGenomeTranscriber(configuration);
-        mutationGenomeTranscriber = new MutationGenomeTranscriber(configuration);
+        this(configuration, null);
+    }
+
+    /**
+     * Creates a new instance that draws from random streams when given a stream key
+     *
+     * @param configuration configuration properties
+     * @param streams       random streams, or null to always use the shared generators
+     */
+    public AsexualTransposeAndMutateGeneTranscriber(final UniverseConstants configuration, final RandomStreams streams) {
+        asexualTransposGenomeTranscriber = new AsexualTransposGenomeTranscriber(configuration,
+                null == streams ? null : streams.child(TRANSPOSE_STREAM));
+        mutationGenomeTranscriber = new MutationGenomeTranscriber(configuration,
+                null == streams ? null : streams.child(MUTATE_STREAM));
     }
 
     /**
@@ -40,4 +56,18 @@ public class AsexualTransposeAndMutateGeneTranscriber implements GenomeTranscibe
 
         return mutatedGenome;
     }
+
+    /**
+     * Transcribe genome while randomly mutating and transposing, using the random streams for the key
+     *
+     * @param genome    source genome
+     * @param streamKey key of the random streams
+     * @return modified genome
+     */
+    @Override
+    public Genome transcribe(final Genome genome, final long streamKey) {
+
+        final Genome transposedGenome = asexualTransposGenomeTranscriber.transcribe(genome, streamKey);
+        return mutationGenomeTranscriber.transcribe(transposedGenome, streamKey);
+    }
 }
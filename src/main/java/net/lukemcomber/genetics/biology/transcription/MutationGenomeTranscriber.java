@@ -11,6 +11,7 @@ import net.lukemcomber.genetics.biology.Genome;
 import net.lukemcomber.genetics.biology.GenomeTransciber;
 import net.lukemcomber.genetics.biology.OrganismFactory;
 import net.lukemcomber.genetics.model.UniverseConstants;
+import net.lukemcomber.genetics.utilities.RandomStreams;
 
 import java.util.Random;
 import java.util.logging.Logger;
@@ -27,10 +28,22 @@ public class MutationGenomeTranscriber implements GenomeTransciber {
 
     private final UniverseConstants configuration;
     private final Random rng;
+    private final RandomStreams streams;
 
     public MutationGenomeTranscriber(final UniverseConstants configuration) {
+        this(configuration, null);
+    }
+
+    /**
+     * Creates a new instance that draws from random streams when given a stream key
+     *
+     * @param configuration configuration properties
+     * @param streams       random streams, or null to always use the shared generator
+     */
+    public MutationGenomeTranscriber(final UniverseConstants configuration, final RandomStreams streams) {
 
         this.configuration = configuration;
+        this.streams = streams;
         final long randomSeed = configuration.get(MUTATION_RAND_SEED, Integer.class, 0).longValue();
 
         if (0 < randomSeed) {
@@ -50,15 +63,38 @@ public class MutationGenomeTranscriber implements GenomeTransciber {
      */
     @Override
     public Genome transcribe(final Genome originalGenome) {
+        return transcribe(originalGenome, rng);
+    }
+
+    /**
+     * Transcribe genome while randomly flipping bit, using the random stream for the key
+     *
+     * @param originalGenome source genome
+     * @param streamKey      key of the random stream
+     * @return modified genome
+     */
+    @Override
+    public Genome transcribe(final Genome originalGenome, final long streamKey) {
+        if (null == streams) {
+            return transcribe(originalGenome);
+        }
+        return transcribe(originalGenome, streams.random(streamKey));
+    }
+
+    private Genome transcribe(final Genome originalGenome, final Random random) {
         float mutationProbability = (float) 1 / configuration.get(GENOME_MUTATE_PROBABILITY, Integer.class);
         final Genome genome = originalGenome.clone();
-        mutate(genome, mutationProbability);
+        mutate(genome, mutationProbability, random);
 
         return genome;
     }
 
     @VisibleForTesting
     void mutate(final Genome genome, final float probability) {
+        mutate(genome, probability, rng);
+    }
+
+    private void mutate(final Genome genome, final float probability, final Random rng) {
 
 
         for (int i = 0; i < genome.getNumberOfGenes(); ++i) {
@@ -67,7 +103,7 @@ public class MutationGenomeTranscriber implements GenomeTransciber {
             if (rng.nextFloat() < probability) {
                 // If the random number is less than the mutation probability, perform mutation
                 int bitToFlip = rng.nextInt(32); // Assuming each nucleotide is a byte (8 bits)
-                logger.info("Mutating gene " + gene + " position " + bitToFlip);
+                logger.fine(() -> "Mutating gene " + gene + " position " + bitToFlip);
                 flipBit(gene, bitToFlip);
             }
         }
@@ -0,0 +1,185 @@
+package net.lukemcomber.genetics.io;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.Serializer;
+import com.esotericsoftware.kryo.kryo5.SerializerFactory;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.esotericsoftware.kryo.kryo5.objenesis.strategy.StdInstantiatorStrategy;
+import com.esotericsoftware.kryo.kryo5.serializers.FieldSerializer;
+import com.esotericsoftware.kryo.kryo5.util.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.kryo5.util.ObjectMap;
+import com.esotericsoftware.kryo.kryo5.util.Pool;
+import net.lukemcomber.genetics.exception.EvolutionException;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Deep copies simulation object graphs, preserving shared references and cycles. Records, lambdas,
+ * and instances of the configured shared types are immutable or owned outside the simulation and are
+ * referenced by the copy rather than copied. Individual shared objects may also be swapped for a
+ * substitute in a single copy.
+ */
+public class DeepCopier {
+
+    private static final String SUBSTITUTIONS = "substitutions";
+
+    private final Pool<Kryo> kryoPool;
+
+    /**
+     * Create a new copier
+     *
+     * @param sharedTypes types whose instances are never copied
+     */
+    public DeepCopier(final Class<?>... sharedTypes) {
+        final List<Class<?>> shared = List.of(sharedTypes);
+        kryoPool = new Pool<>(true, false, 4) {
+            protected Kryo create() {
+                return createKryo(shared);
+            }
+        };
+    }
+
+    /**
+     * Deep copy an object graph
+     *
+     * @param original root of the graph
+     * @param <T>      type of the root
+     * @return copy
+     */
+    public <T> T copy(final T original) {
+        return copy(original, Collections.emptyMap());
+    }
+
+    /**
+     * Deep copy an object graph, replacing shared objects as it goes
+     *
+     * @param original      root of the graph
+     * @param substitutions shared objects mapped to what the copy should reference instead
+     * @param <T>           type of the root
+     * @return copy
+     */
+    public <T> T copy(final T original, final Map<?, ?> substitutions) {
+        final Kryo kryo = kryoPool.obtain();
+        try {
+            graphContext(kryo).put(SUBSTITUTIONS, substitutions);
+            return kryo.copy(original);
+        } finally {
+            kryoPool.free(kryo);
+        }
+    }
+
+    private static Kryo createKryo(final List<Class<?>> sharedTypes) {
+        final Kryo kryo = new Kryo();
+        kryo.setRegistrationRequired(false);
+        kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+
+        final FieldSerializer.FieldSerializerConfig fieldConfig = new FieldSerializer.FieldSerializerConfig();
+        fieldConfig.setIgnoreSyntheticFields(false);
+        final SerializerFactory.FieldSerializerFactory fieldFactory = new SerializerFactory.FieldSerializerFactory(fieldConfig);
+        final SharedSerializer shared = new SharedSerializer();
+
+        kryo.setDefaultSerializer(new SerializerFactory.BaseSerializerFactory<>() {
+            @Override
+            @SuppressWarnings("rawtypes") // the signature is fixed by Kryo
+            public Serializer newSerializer(final Kryo kryo, final Class type) {
+                // lambdas hold no simulation state
+                if (type.isSynthetic() || type.getName().contains("$$Lambda")) {
+                    return shared;
+                }
+                return fieldFactory.newSerializer(kryo, type);
+            }
+        });
+        for (final Class<?> type : sharedTypes) {
+            kryo.addDefaultSerializer(type, shared);
+        }
+        kryo.addDefaultSerializer(Record.class, shared);
+        kryo.addDefaultSerializer(UUID.class, shared);
+        kryo.addDefaultSerializer(Random.class, copying(DeepCopier::copyRandom));
+        kryo.addDefaultSerializer(AtomicLong.class, copying((AtomicLong original) -> new AtomicLong(original.get())));
+        kryo.addDefaultSerializer(AtomicInteger.class, copying((AtomicInteger original) -> new AtomicInteger(original.get())));
+        kryo.addDefaultSerializer(AtomicBoolean.class, copying((AtomicBoolean original) -> new AtomicBoolean(original.get())));
+        kryo.addDefaultSerializer(LongAdder.class, copying((LongAdder original) -> {
+            final LongAdder adder = new LongAdder();
+            adder.add(original.sum());
+            return adder;
+        }));
+        return kryo;
+    }
+
+    @SuppressWarnings("unchecked") // Kryo declares the graph context as a raw map
+    private static ObjectMap<Object, Object> graphContext(final Kryo kryo) {
+        return kryo.getGraphContext();
+    }
+
+    private static <T> Serializer<T> copying(final UnaryOperator<T> copier) {
+        return new CopyOnlySerializer<>() {
+            @Override
+            public T copy(final Kryo kryo, final T original) {
+                return copier.apply(original);
+            }
+        };
+    }
+
+    /**
+     * A serializer that only supports copying
+     */
+    private abstract static class CopyOnlySerializer<T> extends Serializer<T> {
+
+        @Override
+        public void write(final Kryo kryo, final Output output, final T object) {
+            throw new EvolutionException("Serializer only supports copying.");
+        }
+
+        @Override
+        public T read(final Kryo kryo, final Input input, final Class<? extends T> type) {
+            throw new EvolutionException("Serializer only supports copying.");
+        }
+    }
+
+    /**
+     * Keeps the original reference, or its substitute if one was given
+     */
+    private static class SharedSerializer extends CopyOnlySerializer<Object> {
+
+        @Override
+        public Object copy(final Kryo kryo, final Object original) {
+            final Map<?, ?> substitutions = (Map<?, ?>) graphContext(kryo).get(SUBSTITUTIONS);
+            if (null != substitutions && substitutions.containsKey(original)) {
+                return substitutions.get(original);
+            }
+            return original;
+        }
+    }
+
+    /**
+     * Random keeps its state in JDK internals, so copy it through java serialization
+     *
+     * @param original generator to copy
+     * @return copy in the same state
+     */
+    private static Random copyRandom(final Random original) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(original);
+            }
+            try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return (Random) in.readObject();
+            }
+        } catch (final IOException | ClassNotFoundException e) {
+            throw new EvolutionException("Failed to copy random number generator.");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package net.lukemcomber.genetics.model.ecosystem.impl;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+/**
+ * What changed while an interactive ecosystem was fast-forwarded
+ *
+ * @param turnsRequested     turns the caller asked for
+ * @param turnsAdvanced      turns actually run, fewer if the ecosystem went inactive
+ * @param startTick          total ticks before fast-forwarding
+ * @param endTick            total ticks after fast-forwarding
+ * @param startDay           total days before fast-forwarding
+ * @param endDay             total days after fast-forwarding
+ * @param startOrganismCount living organisms before fast-forwarding
+ * @param endOrganismCount   living organisms after fast-forwarding
+ * @param organismsBorn      organisms created while fast-forwarding
+ * @param organismsDied      organisms that died while fast-forwarding
+ * @param samplesRecorded    environment records written
+ * @param active             true if the ecosystem is still active
+ * @param elapsedMillis      wall clock time taken
+ */
+public record FastForwardSummary(long turnsRequested,
+                                 long turnsAdvanced,
+                                 long startTick,
+                                 long endTick,
+                                 long startDay,
+                                 long endDay,
+                                 int startOrganismCount,
+                                 int endOrganismCount,
+                                 long organismsBorn,
+                                 long organismsDied,
+                                 long samplesRecorded,
+                                 boolean active,
+                                 long elapsedMillis) {
+}
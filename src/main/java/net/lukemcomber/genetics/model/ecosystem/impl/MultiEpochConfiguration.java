@@ -17,6 +17,20 @@ import java.util.Map;
 @Getter
 public class MultiEpochConfiguration {
 
+    /**
+     * How genomes migrate between islands
+     */
+    public enum MigrationTopology {
+        /**
+         * Each island receives migrants from the previous island
+         */
+        RING,
+        /**
+         * Each island receives migrants from every other island
+         */
+        FULLY_CONNECTED
+    }
+
     private SpatialCoordinates size;
 
     private String name;
@@ -28,6 +42,14 @@ public class MultiEpochConfiguration {
     private int tickDelayMs;
     private int reusePopulation;
 
+    /*
+     * Island model. One island runs a single population, the same as no islands.
+     */
+    private int islands;
+    private int migrationInterval;
+    private int migrationSize;
+    private MigrationTopology migrationTopology;
+
     private long maxDays;
 
     private boolean deleteFilterOnExit;
@@ -0,0 +1,43 @@
+package net.lukemcomber.genetics.model.ecosystem.impl;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import lombok.Builder;
+import lombok.Getter;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+
+import java.util.Map;
+
+@Builder
+@Getter
+public class SteadyStateConfiguration {
+
+    private long maxDays;
+    private long tickDelayMs;
+
+    private int ticksPerDay;
+    private SpatialCoordinates size;
+    private String name;
+    private Map<SpatialCoordinates, String> startOrganisms;
+
+    /*
+     * Population the ecosystem is topped back up to as organisms die
+     */
+    private int population;
+    /*
+     * Number of the fittest recorded organisms offspring are bred from
+     */
+    private int eliteSize;
+    /*
+     * Ticks between injections, the population is always refilled if it dies out
+     */
+    private int injectionInterval;
+    /*
+     * Most organisms injected at once, 0 for no limit
+     */
+    private int injectionSize;
+
+}
@@ -0,0 +1,177 @@
+package net.lukemcomber.genetics.store;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.model.UniverseConstants;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * A {@link MetadataStoreGroup} that holds back writes until they are either flushed to, or discarded
+ * from, the group it wraps. Used for work whose results may be thrown away. Once flushed, writes pass
+ * straight through. Reads always go to the wrapped group.
+ */
+public class BufferedMetadataStoreGroup extends MetadataStoreGroup {
+
+    private record PendingWrite<T extends Metadata>(Class<T> type, T data) {
+    }
+
+    private final MetadataStoreGroup target;
+    private final List<PendingWrite<?>> pending;
+    private boolean passThrough;
+
+    /**
+     * Create a new buffered group
+     *
+     * @param target     group to eventually write to
+     * @param properties configuration properties
+     */
+    public BufferedMetadataStoreGroup(final MetadataStoreGroup target, final UniverseConstants properties) {
+        super(properties);
+        this.target = target;
+        this.pending = new LinkedList<>();
+        this.passThrough = false;
+    }
+
+    /**
+     * Returns a store for a {@link Metadata} type that buffers writes
+     *
+     * @param clazz type of the {@link Metadata}
+     * @param <T>   type of the {@link Metadata}
+     * @return a usable {@link MetadataStore}
+     * @throws EvolutionException
+     */
+    @Override
+    public <T extends Metadata> MetadataStore<T> get(final Class<T> clazz) throws EvolutionException {
+        return new BufferedMetadataStore<>(clazz, target.get(clazz));
+    }
+
+    @Override
+    public Set<Class<? extends Metadata>> getActiveMetadataStores() {
+        return target.getActiveMetadataStores();
+    }
+
+    @Override
+    public void markForExpiration() {
+        target.markForExpiration();
+    }
+
+    @Override
+    public void freeResourcesAndTerminate() {
+        target.freeResourcesAndTerminate();
+    }
+
+    /**
+     * Write everything held, in the order it was stored, and stop buffering
+     */
+    public synchronized void flush() {
+        for (final PendingWrite<?> write : pending) {
+            flush(write);
+        }
+        pending.clear();
+        passThrough = true;
+    }
+
+    /**
+     * Throw away everything held
+     */
+    public synchronized void discard() {
+        pending.clear();
+    }
+
+    /**
+     * Throw away everything held and start buffering again, for a group that was flushed
+     */
+    public synchronized void buffer() {
+        pending.clear();
+        passThrough = false;
+    }
+
+    /**
+     * Throw away everything held and stop buffering
+     */
+    public synchronized void discardAndPassThrough() {
+        pending.clear();
+        passThrough = true;
+    }
+
+    private <T extends Metadata> void flush(final PendingWrite<T> write) {
+        target.get(write.type()).store(write.data());
+    }
+
+    private synchronized <T extends Metadata> void hold(final Class<T> type, final T data) {
+        if (passThrough) {
+            target.get(type).store(data);
+        } else {
+            pending.add(new PendingWrite<>(type, data));
+        }
+    }
+
+    /**
+     * Buffers writes to a store and delegates everything else
+     */
+    private class BufferedMetadataStore<T extends Metadata> extends MetadataStore<T> {
+
+        private final Class<T> type;
+        private final MetadataStore<T> store;
+
+        BufferedMetadataStore(final Class<T> type, final MetadataStore<T> store) {
+            this.type = type;
+            this.store = store;
+        }
+
+        @Override
+        public void initialize(final Callable<Void> onCleanUpHook) {
+            store.initialize(onCleanUpHook);
+        }
+
+        @Override
+        public void store(final T data) {
+            hold(type, data);
+        }
+
+        @Override
+        public void awaitPendingWrites() {
+            store.awaitPendingWrites();
+        }
+
+        @Override
+        public List<T> page(final int pageNumber, final int countPerPage) throws FileNotFoundException {
+            return store.page(pageNumber, countPerPage);
+        }
+
+        @Override
+        public boolean expire(final boolean block) throws IOException {
+            return store.expire(block);
+        }
+
+        @Override
+        public boolean isExpired() {
+            return store.isExpired();
+        }
+
+        @Override
+        public long count() {
+            return store.count();
+        }
+
+        @Override
+        public void freeResourcesAndTerminate() {
+            store.freeResourcesAndTerminate();
+        }
+
+        @Override
+        public Class<T> type() {
+            return type;
+        }
+    }
+}
@@ -30,6 +30,13 @@ public abstract class MetadataStore<T extends Metadata> {
      */
     public abstract void store(final T data);
 
+    /**
+     * Block until everything stored so far can be read back, or the store gives up on it. Stores that
+     * write synchronously return immediately.
+     */
+    public void awaitPendingWrites() {
+    }
+
     /**
      * Returns a page of data stored in the datastore
      *
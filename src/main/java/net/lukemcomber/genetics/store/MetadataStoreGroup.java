@@ -4,11 +4,15 @@ import net.lukemcomber.genetics.exception.EvolutionException;
 import net.lukemcomber.genetics.model.UniverseConstants;
 import net.lukemcomber.genetics.store.impl.KryoMetadataStore;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -21,6 +25,7 @@ public class MetadataStoreGroup {
 
 
     private final Map<String, MetadataStore<? extends Metadata>> groupStore;
+    private final Map<String, Consumer<? extends Metadata>> observers;
     private final UniverseConstants properties;
 
     /**
@@ -30,9 +35,22 @@ public class MetadataStoreGroup {
      */
     protected MetadataStoreGroup(final UniverseConstants properties) {
         groupStore = new ConcurrentHashMap<>();
+        observers = new ConcurrentHashMap<>();
         this.properties = properties;
     }
 
+    /**
+     * Pass everything stored of a {@link Metadata} type to an observer as well, on the thread storing it.
+     *  Replaces any observer the type had.
+     *
+     * @param clazz    type of the {@link Metadata}
+     * @param observer called with every record stored, must be thread safe
+     * @param <T>      type of the {@link Metadata}
+     */
+    public <T extends Metadata> void observe(final Class<T> clazz, final Consumer<T> observer) {
+        observers.put(clazz.getSimpleName(), observer);
+    }
+
     /**
      * Returns the {@link MetadataStore} for a {@link Metadata} type
      *
@@ -58,7 +76,9 @@ public class MetadataStoreGroup {
             });
             groupStore.put(clazz.getSimpleName(), metadataStore);
         }
-        return metadataStore;
+        @SuppressWarnings("unchecked") // observe() keys observers by the type they accept
+        final Consumer<T> observer = (Consumer<T>) observers.get(clazz.getSimpleName());
+        return null == observer ? metadataStore : new ObservedMetadataStore<>(metadataStore, observer);
     }
 
     public synchronized Set<Class<? extends Metadata>> getActiveMetadataStores() {
@@ -84,4 +104,64 @@ public class MetadataStoreGroup {
             store.freeResourcesAndTerminate();
         }
     }
+
+    /**
+     * Passes writes to an observer and delegates everything else
+     */
+    private static class ObservedMetadataStore<T extends Metadata> extends MetadataStore<T> {
+
+        private final MetadataStore<T> store;
+        private final Consumer<T> observer;
+
+        ObservedMetadataStore(final MetadataStore<T> store, final Consumer<T> observer) {
+            this.store = store;
+            this.observer = observer;
+        }
+
+        @Override
+        public void initialize(final Callable<Void> onCleanUpHook) {
+            store.initialize(onCleanUpHook);
+        }
+
+        @Override
+        public void store(final T data) {
+            observer.accept(data);
+            store.store(data);
+        }
+
+        @Override
+        public void awaitPendingWrites() {
+            store.awaitPendingWrites();
+        }
+
+        @Override
+        public List<T> page(final int pageNumber, final int countPerPage) throws FileNotFoundException {
+            return store.page(pageNumber, countPerPage);
+        }
+
+        @Override
+        public boolean expire(final boolean block) throws IOException {
+            return store.expire(block);
+        }
+
+        @Override
+        public boolean isExpired() {
+            return store.isExpired();
+        }
+
+        @Override
+        public long count() {
+            return store.count();
+        }
+
+        @Override
+        public void freeResourcesAndTerminate() {
+            store.freeResourcesAndTerminate();
+        }
+
+        @Override
+        public Class<T> type() {
+            return store.type();
+        }
+    }
 }
@@ -15,6 +15,7 @@ import net.lukemcomber.genetics.store.Indexed;
 import net.lukemcomber.genetics.store.Metadata;
 import net.lukemcomber.genetics.store.MetadataStore;
 import net.lukemcomber.genetics.store.Primary;
+import net.lukemcomber.genetics.utilities.SharedScheduler;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.*;
@@ -26,6 +27,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Logger;
 
@@ -44,7 +46,7 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
         public AtomicInteger length;
     }
 
-    class MetadataComparator implements Comparator<T> {
+    static class MetadataComparator<T extends Metadata> implements Comparator<T> {
 
         @Override
         public int compare(final T o1, final T o2) {
@@ -107,10 +109,13 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
     }
 
     public static final String PROPERTY_TYPE_TTL = "metadata.%s.ttl";
+    public static final String PROPERTY_DRAIN_INTERVAL = "metadata.shared.drain.interval.ms";
+    public static final String PROPERTY_AWAIT_TIMEOUT = "metadata.await.timeout.ms";
 
     private final ConcurrentSkipListMap<T, CachePosition> sortedMetadata;
     private final Map<String, ConcurrentSkipListMap<Object, LinkedBlockingQueue<CachePosition>>> indexedFields;
     private AtomicLong recordCount;
+    private final AtomicLong pendingWrites;
     private boolean enabled; //RW is atomic
     private final Thread writeThread;
     private final BlockingQueue<T> outputQueue;
@@ -123,6 +128,7 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
     private final AtomicBoolean isInitialized;
     private final AtomicBoolean isRunning;
     private final AtomicBoolean isCleanedUp;
+    private final AtomicBoolean isFailed;
     private long cursor;
     private final Class<T> type;
     private final Pool<Kryo> kryoPool;
@@ -131,6 +137,17 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
     private Timer expirationTimer;
     private String primaryIndex;
 
+    /*
+     * In shared execution mode the poller thread and timer are replaced by tasks on the shared scheduler
+     */
+    private final boolean sharedExecution;
+    private final UniverseConstants properties;
+    private final long ttl;
+    private final long awaitTimeoutMillis;
+    private ScheduledFuture<?> drainTask;
+    private ScheduledFuture<?> expirationTask;
+    private Future<?> finalDrainTask;
+
     /**
      * Create new {@link net.lukemcomber.genetics.store.SearchableMetadataStore} of the specified type.
      *
@@ -142,16 +159,20 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
         isCleanedUp = new AtomicBoolean(false);
         isInitialized = new AtomicBoolean(false);
         isRunning = new AtomicBoolean(false);
+        isFailed = new AtomicBoolean(false);
 
-        sortedMetadata = new ConcurrentSkipListMap<>(new MetadataComparator().reversed());
+        sortedMetadata = new ConcurrentSkipListMap<>(pageOrder());
 
         onCleanUpHook = null;
 
-        expirationTimer = new Timer(true);
+        this.properties = properties;
+        sharedExecution = SharedScheduler.isEnabled(properties);
+        expirationTimer = sharedExecution ? null : new Timer(true);
         //Using custom property first, but don't barf if it's not defined
-        final long ttl;
         indexedFields = new ConcurrentSkipListMap<>();
         recordCount = new AtomicLong(0);
+        pendingWrites = new AtomicLong(0);
+        awaitTimeoutMillis = properties.get(PROPERTY_AWAIT_TIMEOUT, Integer.class, 30000);
         final Integer cTtl = properties.get(String.format(PROPERTY_TYPE_TTL, type.getSimpleName()), Integer.class, -1);
         this.type = type;
         if (0 >= cTtl) {
@@ -204,7 +225,7 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
             }
 
             logger.info(String.format("Store:\n\tIdx: %s\n\tDat: %s", idxFilePath.toFile().getAbsolutePath(), datFilePath.toFile().getAbsolutePath()));
-            writeThread = new Thread(String.format("%s-%d-meta-poller", type.getSimpleName(), currentTimeMillis)) {
+            writeThread = sharedExecution ? null : new Thread(String.format("%s-%d-meta-poller", type.getSimpleName(), currentTimeMillis)) {
 
                 @Override
                 public void run() {
@@ -229,6 +250,8 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
                                             throw new RuntimeException(e);
                                         } finally {
                                             writeLock.unlock();
+                                            // only once the record can be found by a page, or will never be
+                                            pendingWrites.decrementAndGet();
                                         }
                                     }
                                 } catch (final InterruptedException e) {
@@ -250,7 +273,11 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
                                 writeThread.notifyAll();
                             }
                         } catch (final IOException e) {
+                            isFailed.set(true);
                             throw new RuntimeException(e);
+                        } catch (final RuntimeException e) {
+                            isFailed.set(true);
+                            throw e;
                         }
                         logger.info(writeThread.getName() + " shutting down.");
                     } else {
@@ -260,7 +287,9 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
                 }
             };
 
-            writeThread.setDaemon(true);
+            if (null != writeThread) {
+                writeThread.setDaemon(true);
+            }
         } else {
             datFilePath = null;
             datFile = null;
@@ -272,6 +301,16 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
 
     }
 
+    /**
+     * Get the order records are paged in, highest {@link Primary} field first
+     *
+     * @param <T> type of the records
+     * @return comparator
+     */
+    public static <T extends Metadata> Comparator<T> pageOrder() {
+        return new MetadataComparator<T>().reversed();
+    }
+
     private void cleanUp() {
         if (isRunning.compareAndSet(true, false) && isCleanedUp.compareAndSet(false, true)) {
             try {
@@ -307,7 +346,13 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
         if (isRunning.get()) {
             try {
                 expire(true);
-                expirationTimer.cancel();
+                if (sharedExecution) {
+                    if (Objects.nonNull(expirationTask)) {
+                        expirationTask.cancel(false);
+                    }
+                } else {
+                    expirationTimer.cancel();
+                }
                 cleanUp();
             } catch (final IOException e) {
                 throw new RuntimeException(e);
@@ -324,7 +369,13 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
     public void initialize(final Callable<Void> onCleanUpHook) {
         if (!isCleanedUp.get() && !isRunning.get() && isInitialized.compareAndSet(false, true)) {
             this.onCleanUpHook = onCleanUpHook;
-            writeThread.start();
+            if (sharedExecution) {
+                isRunning.set(true);
+                final long interval = properties.get(PROPERTY_DRAIN_INTERVAL, Integer.class, 100);
+                drainTask = SharedScheduler.get(properties).scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.MILLISECONDS);
+            } else {
+                writeThread.start();
+            }
         } else {
             logger.warning("Metadata store already initialized.");
         }
@@ -337,9 +388,39 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
      */
     @Override
     public void store(final T data) {
+        if (enabled) {
+            pendingWrites.incrementAndGet();
+        }
         outputQueue.offer(data);
     }
 
+    /**
+     * Block until everything stored so far has been written. In the dedicated mode this waits for the
+     * poller thread to catch up, so it should only be called once writers have stopped. Gives up once the
+     * poller has failed or after {@link #PROPERTY_AWAIT_TIMEOUT}, leaving reads to miss what was not written.
+     */
+    @Override
+    public void awaitPendingWrites() {
+        if (sharedExecution) {
+            drain();
+        } else {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(awaitTimeoutMillis);
+            // the poller may not have started running yet
+            while (enabled && isInitialized.get() && !isCleanedUp.get() && !isFailed.get() && 0 < pendingWrites.get()) {
+                if (0 < System.nanoTime() - deadline) {
+                    logger.warning(String.format("Gave up waiting for %d %s writes after %dms.",
+                            pendingWrites.get(), type.getSimpleName(), awaitTimeoutMillis));
+                    return;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            if (isFailed.get()) {
+                logger.warning(String.format("%s store failed, %d writes were lost.", type.getSimpleName(),
+                        pendingWrites.get()));
+            }
+        }
+    }
+
 
     /**
      * Returns a count of records in the data store
@@ -348,6 +429,7 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
      */
     @Override
     public long count() {
+        drain();
         return recordCount.get();
     }
 
@@ -369,6 +451,7 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
         final List<T> retVal;
 
         if (0 <= pageNumber && 0 < recordsPerPage) {
+            drain();
             retVal = readFromIndex(pageNumber, recordsPerPage);
         } else {
             throw new EvolutionException("Invalid page reference.");
@@ -388,6 +471,7 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
     @Override
     public List<T> find(final String index, final Object value, final int limit) throws IOException {
         final List<T> retVal = new LinkedList<>();
+        drain();
         if (indexedFields.containsKey(index)) {
             final ConcurrentSkipListMap<Object, LinkedBlockingQueue<CachePosition>> indexes = indexedFields.get(index);
             /*
@@ -451,7 +535,26 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
      */
     @Override
     public boolean expire(final boolean block) throws IOException {
-        if (null != writeThread) {
+        if (sharedExecution && Objects.nonNull(drainTask)) {
+            synchronized (this) {
+                if (enabled) {
+                    enabled = false;
+                    drainTask.cancel(false);
+                    final ScheduledExecutorService scheduler = SharedScheduler.get(properties);
+                    finalDrainTask = scheduler.submit(() -> {
+                        drain();
+                        expirationTask = scheduler.schedule(this::cleanUp, ttl, TimeUnit.SECONDS);
+                    });
+                }
+            }
+            if (block) {
+                try {
+                    finalDrainTask.get();
+                } catch (final InterruptedException | ExecutionException e) {
+                    throw new EvolutionException("Failed to drain metadata store %s.".formatted(type.getSimpleName()));
+                }
+            }
+        } else if (null != writeThread) {
             if (enabled) {
                 enabled = false;
                 writeThread.interrupt();
@@ -469,6 +572,34 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
         return !enabled;
     }
 
+    /**
+     * Write everything waiting in the queue. In shared execution mode this replaces the poller thread, and
+     * is also run before reads so that a reader always sees what was stored before it. Does nothing in
+     * the dedicated mode, where the poller thread owns the queue.
+     */
+    private void drain() {
+        if (sharedExecution && null != datFile && !isCleanedUp.get() && !outputQueue.isEmpty()) {
+            final ReentrantReadWriteLock.WriteLock writeLock = ioSystemLock.writeLock();
+            writeLock.lock();
+            try {
+                T metadata;
+                while (null != (metadata = outputQueue.poll())) {
+                    try {
+                        cursor = writeAndCacheMetadata(metadata, cursor, datFile, idxFile);
+                    } finally {
+                        // only once the record can be found by a page, or will never be
+                        pendingWrites.decrementAndGet();
+                    }
+                }
+            } catch (final IOException | IllegalAccessException e) {
+                isFailed.set(true);
+                throw new RuntimeException(e);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
     // may block
     @Override
     public boolean isExpired() {
@@ -540,7 +671,6 @@ public class KryoMetadataStore<T extends Metadata> extends net.lukemcomber.genet
             }
         }
 
-
         return currentPosition + data.length;
     }
 
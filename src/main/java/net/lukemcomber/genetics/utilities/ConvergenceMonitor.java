@@ -0,0 +1,164 @@
+package net.lukemcomber.genetics.utilities;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.model.UniverseConstants;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a simulation has stopped paying off. Criteria are checked as ticks and epochs complete and
+ * only compare against a few remembered values, so checking costs next to nothing. Every criterion is
+ * disabled unless configured.
+ * <ul>
+ *     <li>Stagnation: no organism was born or died for a number of ticks</li>
+ *     <li>Plateau: the best fitness has not improved for a number of epochs</li>
+ *     <li>Budget: a simulation or a whole run has used up its wall clock time</li>
+ * </ul>
+ */
+public class ConvergenceMonitor {
+
+    public static final String PROPERTY_STAGNATION_TICKS = "convergence.stagnation.ticks";
+    public static final String PROPERTY_EPOCH_BUDGET_MS = "convergence.epoch.budget.ms";
+    public static final String PROPERTY_PLATEAU_EPOCHS = "convergence.plateau.epochs";
+    public static final String PROPERTY_PLATEAU_TOLERANCE = "convergence.plateau.tolerance";
+    public static final String PROPERTY_RUN_BUDGET_MS = "convergence.run.budget.ms";
+
+    private final long stagnationTicks;
+    private final int plateauEpochs;
+    private final double plateauTolerance;
+    private final long budgetNanos;
+
+    private long deadline;
+    private int lastOrganismCount;
+    private long lastTotalOrganisms;
+    private long unchangedTicks;
+    private double bestFitness;
+    private int epochsWithoutImprovement;
+    private String reason;
+
+    /**
+     * Create a monitor for a single simulation, checking stagnation and the simulation's time budget
+     *
+     * @param properties configuration properties
+     * @return monitor
+     */
+    public static ConvergenceMonitor forEpoch(final UniverseConstants properties) {
+        return new ConvergenceMonitor(properties.get(PROPERTY_STAGNATION_TICKS, Integer.class, 0), 0, 0,
+                properties.get(PROPERTY_EPOCH_BUDGET_MS, Integer.class, 0));
+    }
+
+    /**
+     * Create a monitor for a run of epochs, checking fitness plateaus and the run's time budget
+     *
+     * @param properties configuration properties
+     * @return monitor
+     */
+    public static ConvergenceMonitor forRun(final UniverseConstants properties) {
+        return new ConvergenceMonitor(0, properties.get(PROPERTY_PLATEAU_EPOCHS, Integer.class, 0),
+                properties.get(PROPERTY_PLATEAU_TOLERANCE, Double.class, 0d),
+                properties.get(PROPERTY_RUN_BUDGET_MS, Integer.class, 0));
+    }
+
+    /**
+     * Create a new monitor. A criterion set to zero is disabled.
+     *
+     * @param stagnationTicks  ticks without a birth or death before the population is stagnant
+     * @param plateauEpochs    epochs without improvement before fitness has plateaued
+     * @param plateauTolerance smallest gain in best fitness that counts as an improvement
+     * @param budgetMs         wall clock time allowed
+     */
+    public ConvergenceMonitor(final long stagnationTicks, final int plateauEpochs, final double plateauTolerance,
+                              final long budgetMs) {
+        this.stagnationTicks = Math.max(0, stagnationTicks);
+        this.plateauEpochs = Math.max(0, plateauEpochs);
+        this.plateauTolerance = Math.max(0, plateauTolerance);
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, budgetMs));
+        this.bestFitness = Double.NEGATIVE_INFINITY;
+        this.lastOrganismCount = -1;
+    }
+
+    /**
+     * Start the time budget
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     */
+    public void start(final long nowNanos) {
+        deadline = nowNanos + budgetNanos;
+    }
+
+    /**
+     * Check if any criterion is configured
+     *
+     * @return true if the monitor can ever report convergence
+     */
+    public boolean isEnabled() {
+        return 0 < stagnationTicks || 0 < plateauEpochs || 0 < budgetNanos;
+    }
+
+    /**
+     * Record a completed tick
+     *
+     * @param organismCount  organisms alive
+     * @param totalOrganisms organisms ever created
+     * @param nowNanos       current {@link System#nanoTime()}
+     * @return true if the simulation should stop
+     */
+    public boolean onTick(final int organismCount, final long totalOrganisms, final long nowNanos) {
+        if (0 < stagnationTicks) {
+            if (organismCount == lastOrganismCount && totalOrganisms == lastTotalOrganisms) {
+                if (++unchangedTicks >= stagnationTicks) {
+                    return converged("no organism was born or died in " + unchangedTicks + " ticks");
+                }
+            } else {
+                lastOrganismCount = organismCount;
+                lastTotalOrganisms = totalOrganisms;
+                unchangedTicks = 0;
+            }
+        }
+        return isOverBudget(nowNanos);
+    }
+
+    /**
+     * Record a completed epoch
+     *
+     * @param epochBestFitness best fitness recorded in the epoch
+     * @param nowNanos         current {@link System#nanoTime()}
+     * @return true if no further epochs should run
+     */
+    public boolean onEpoch(final double epochBestFitness, final long nowNanos) {
+        if (0 < plateauEpochs) {
+            if (epochBestFitness > bestFitness + plateauTolerance) {
+                bestFitness = epochBestFitness;
+                epochsWithoutImprovement = 0;
+            } else if (++epochsWithoutImprovement >= plateauEpochs) {
+                return converged("best fitness " + bestFitness + " has not improved in " + epochsWithoutImprovement + " epochs");
+            }
+        }
+        return isOverBudget(nowNanos);
+    }
+
+    /**
+     * Get why the monitor reported convergence
+     *
+     * @return reason, or null if it has not
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    private boolean isOverBudget(final long nowNanos) {
+        if (0 < budgetNanos && nowNanos - deadline >= 0) {
+            return converged("time budget of " + TimeUnit.NANOSECONDS.toMillis(budgetNanos) + " ms was used up");
+        }
+        return false;
+    }
+
+    private boolean converged(final String reason) {
+        this.reason = reason;
+        return true;
+    }
+}
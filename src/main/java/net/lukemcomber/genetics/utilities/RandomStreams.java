@@ -0,0 +1,130 @@
+package net.lukemcomber.genetics.utilities;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.model.UniverseConstants;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * A hierarchy of random number streams derived from a single master seed. Each stream is identified by a
+ * path of keys, for example ecosystem, then organism, then tick, and its seed is computed from that path
+ * with SplitMix64 mixing. Streams hold no shared state and never depend on the order they were asked for,
+ * so concurrent work draws reproducible numbers without contending on one generator.
+ */
+public class RandomStreams {
+
+    public static final String PROPERTY_MASTER_SEED = "random.master.seed";
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+
+    /**
+     * Create the root of a hierarchy
+     *
+     * @param seed master seed
+     */
+    public RandomStreams(final long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Create streams for a named part of the simulation from the master seed in the configuration properties.
+     *  Unnamed parts all share the streams of the empty name.
+     *
+     * @param properties configuration properties
+     * @param name       name of the part, such as an ecosystem name, or null
+     * @return streams, or null if no master seed is configured
+     */
+    public static RandomStreams forName(final UniverseConstants properties, final String name) {
+        final long masterSeed = properties.get(PROPERTY_MASTER_SEED, Number.class, 0).longValue();
+        if (0 == masterSeed) {
+            return null;
+        }
+        return new RandomStreams(masterSeed).child(key(null == name ? "" : name));
+    }
+
+    /**
+     * Get the seed this level of the hierarchy was derived to
+     *
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Derive a level below this one
+     *
+     * @param keys path to the level
+     * @return streams for the level
+     */
+    public RandomStreams child(final long... keys) {
+        return new RandomStreams(derive(seed, keys));
+    }
+
+    /**
+     * Get the stream for a path of keys
+     *
+     * @param keys path to the stream
+     * @return a new generator positioned at the start of the stream
+     */
+    public SplittableRandom stream(final long... keys) {
+        return new SplittableRandom(derive(seed, keys));
+    }
+
+    /**
+     * Get the stream for a path of keys as a {@link Random}, for code written against it
+     *
+     * @param keys path to the stream
+     * @return a new generator positioned at the start of the stream
+     */
+    public Random random(final long... keys) {
+        return new Random(derive(seed, keys));
+    }
+
+    /**
+     * Turn a string, such as an organism id, into a key
+     *
+     * @param value string to convert
+     * @return key
+     */
+    public static long key(final String value) {
+        long hash = 1125899906842597L;
+        for (int i = 0; i < value.length(); ++i) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * Combine an id and further parts into a single key
+     *
+     * @param id    string id
+     * @param parts further parts of the key
+     * @return key
+     */
+    public static long key(final String id, final long... parts) {
+        return derive(key(id), parts);
+    }
+
+    private static long derive(final long seed, final long... keys) {
+        long value = seed;
+        for (final long key : keys) {
+            value = mix64((value + GOLDEN_GAMMA) ^ mix64(key + GOLDEN_GAMMA));
+        }
+        return value;
+    }
+
+    private static long mix64(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
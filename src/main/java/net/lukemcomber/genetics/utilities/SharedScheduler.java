@@ -0,0 +1,66 @@
+package net.lukemcomber.genetics.utilities;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.model.UniverseConstants;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A JVM wide scheduler for the shared execution mode. Rather than dedicating a thread to every ecosystem
+ * and metadata store, their work is broken into short tasks run by a small pool of daemon threads. Sleeps
+ * become scheduled delays and blocking queue polls become periodic drains, so the number of live
+ * simulations is no longer bound by the number of OS threads.
+ */
+public class SharedScheduler {
+
+    public static final String PROPERTY_EXECUTION_MODE = "execution.mode";
+    public static final String PROPERTY_SHARED_THREADS = "execution.shared.threads";
+
+    public static final String MODE_DEDICATED = "dedicated";
+    public static final String MODE_SHARED = "shared";
+
+    private static ScheduledThreadPoolExecutor instance;
+
+    private SharedScheduler() {
+    }
+
+    /**
+     * Check if the configuration asks for shared execution
+     *
+     * @param properties configuration properties
+     * @return true if work should run on the shared scheduler
+     */
+    public static boolean isEnabled(final UniverseConstants properties) {
+        return MODE_SHARED.equalsIgnoreCase(properties.get(PROPERTY_EXECUTION_MODE, String.class, MODE_DEDICATED));
+    }
+
+    /**
+     * Get the shared scheduler, creating it on first use. The pool size is taken from the configuration
+     * of the first caller and defaults to the number of available processors.
+     *
+     * @param properties configuration properties
+     * @return scheduler
+     */
+    public static synchronized ScheduledExecutorService get(final UniverseConstants properties) {
+        if (null == instance) {
+            final int threads = properties.get(PROPERTY_SHARED_THREADS, Integer.class,
+                    Runtime.getRuntime().availableProcessors());
+            final AtomicInteger threadCount = new AtomicInteger(0);
+            final ThreadFactory threadFactory = runnable -> {
+                final Thread thread = new Thread(runnable, "shared-scheduler-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+            instance = new ScheduledThreadPoolExecutor(Math.max(1, threads), threadFactory);
+            instance.setRemoveOnCancelPolicy(true);
+        }
+        return instance;
+    }
+}
@@ -86,6 +86,11 @@ public class SimpleSimulator {
                     .tickDelayMs(inputJson.path("tickDelayMs").asInt())
                     .ticksPerDay(inputJson.path("ticksPerDay").asInt())
                     .deleteFilterOnExit(inputJson.path("deleteFilterOnExit").asBoolean(false))
+                    .islands(inputJson.path("islands").asInt(1))
+                    .migrationInterval(inputJson.path("migrationInterval").asInt(1))
+                    .migrationSize(inputJson.path("migrationSize").asInt(0))
+                    .migrationTopology(MultiEpochConfiguration.MigrationTopology.valueOf(
+                            inputJson.path("migrationTopology").asText("RING").toUpperCase()))
                     .build();
             final MultiEpochEcosystem ecosystem = new MultiEpochEcosystem(universe, configuration);
             ecosystem.initialize(null);
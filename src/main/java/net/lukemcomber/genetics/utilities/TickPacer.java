@@ -0,0 +1,147 @@
+package net.lukemcomber.genetics.utilities;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.model.UniverseConstants;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces ticks at a fixed rate. Deadlines are absolute points on a {@link System#nanoTime()} schedule
+ * rather than sleeps measured from the end of the last tick, so time spent ticking, scheduling, or
+ * oversleeping never accumulates as drift. What happens when ticks fall behind the schedule is
+ * decided by the {@link CatchUp} policy.
+ */
+public class TickPacer {
+
+    public static final String PROPERTY_PACING_MODE = "ecosystem.pacing.mode";
+    public static final String PROPERTY_CATCH_UP = "ecosystem.pacing.catchup";
+    public static final String PROPERTY_MAX_BURST = "ecosystem.pacing.catchup.max.burst";
+
+    /**
+     * How ticks are paced
+     */
+    public enum Mode {
+        /**
+         * Ticks follow the fixed rate schedule
+         */
+        PACED,
+        /**
+         * Ticks run back to back as fast as possible, ignoring the tick delay
+         */
+        UNTHROTTLED
+    }
+
+    /**
+     * What to do once ticks fall behind the schedule
+     */
+    public enum CatchUp {
+        /**
+         * Run late ticks back to back until the schedule is met again, never more than the maximum
+         * burst behind
+         */
+        BURST,
+        /**
+         * Drop missed slots and wait for the next one on the original schedule
+         */
+        SKIP,
+        /**
+         * Start the schedule again from the late tick
+         */
+        RESET
+    }
+
+    private final Mode mode;
+    private final CatchUp catchUp;
+    private final long periodNanos;
+    private final int maxBurst;
+    private long deadline;
+
+    /**
+     * Create a pacer from configuration properties
+     *
+     * @param properties  configuration properties
+     * @param tickDelayMs time between ticks
+     */
+    public TickPacer(final UniverseConstants properties, final long tickDelayMs) {
+        this(Mode.valueOf(properties.get(PROPERTY_PACING_MODE, String.class, Mode.PACED.name()).toUpperCase()),
+                CatchUp.valueOf(properties.get(PROPERTY_CATCH_UP, String.class, CatchUp.RESET.name()).toUpperCase()),
+                TimeUnit.MILLISECONDS.toNanos(tickDelayMs),
+                properties.get(PROPERTY_MAX_BURST, Integer.class, 10));
+    }
+
+    /**
+     * Create a new pacer
+     *
+     * @param mode        pacing mode
+     * @param catchUp     catch up policy
+     * @param periodNanos time between ticks
+     * @param maxBurst    most ticks a burst may run behind the schedule
+     */
+    public TickPacer(final Mode mode, final CatchUp catchUp, final long periodNanos, final int maxBurst) {
+        if (0 > periodNanos || 1 > maxBurst) {
+            throw new EvolutionException(String.format("Invalid pacing of %d ns with burst %d.", periodNanos, maxBurst));
+        }
+        this.mode = mode;
+        this.catchUp = catchUp;
+        this.periodNanos = periodNanos;
+        this.maxBurst = maxBurst;
+    }
+
+    /**
+     * Get the pacing mode
+     *
+     * @return mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Anchor the schedule. The first tick is due immediately.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     */
+    public void start(final long nowNanos) {
+        deadline = nowNanos;
+    }
+
+    /**
+     * Called once a tick has completed to find out when the next tick is due
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return nanoseconds to wait before the next tick, 0 to run it immediately
+     */
+    public long delayAfterTick(final long nowNanos) {
+        if (Mode.UNTHROTTLED == mode || 0 == periodNanos) {
+            deadline = nowNanos;
+            return 0;
+        }
+        deadline += periodNanos;
+        if (deadline - nowNanos >= 0) {
+            return deadline - nowNanos;
+        }
+        switch (catchUp) {
+            case BURST -> {
+                final long oldest = nowNanos - maxBurst * periodNanos;
+                if (deadline - oldest < 0) {
+                    deadline = oldest;
+                }
+                return 0;
+            }
+            case SKIP -> {
+                final long missed = (nowNanos - deadline + periodNanos - 1) / periodNanos;
+                deadline += missed * periodNanos;
+                return deadline - nowNanos;
+            }
+            default -> {
+                deadline = nowNanos;
+                return 0;
+            }
+        }
+    }
+}
@@ -9,7 +9,9 @@ import net.lukemcomber.genetics.exception.EvolutionException;
 import net.lukemcomber.genetics.model.SpatialCoordinates;
 import net.lukemcomber.genetics.model.UniverseConstants;
 import net.lukemcomber.genetics.store.MetadataStoreGroup;
+import net.lukemcomber.genetics.world.terrain.impl.ChunkedWorld;
 import net.lukemcomber.genetics.world.terrain.impl.FlatWorld;
+import net.lukemcomber.genetics.world.terrain.impl.MappedWorld;
 import net.lukemcomber.genetics.world.terrain.Terrain;
 
 /**
@@ -25,12 +27,31 @@ public class TerrainFactory {
      * @return a ne {@link Terrain}
      */
     public static Terrain create(final SpatialCoordinates spatialBounds, final UniverseConstants properties, final MetadataStoreGroup metadataStoreGroup) {
+        return create(spatialBounds, properties, metadataStoreGroup, null);
+    }
+
+    /**
+     * Build a new {@link Terrain} for an ecosystem from the given {@link UniverseConstants} and {@link MetadataStoreGroup}
+     *
+     * @param properties         configuration properties
+     * @param metadataStoreGroup metadata store group
+     * @param owner              id of the ecosystem the terrain belongs to, or null
+     * @return a new {@link Terrain}
+     */
+    public static Terrain create(final SpatialCoordinates spatialBounds, final UniverseConstants properties,
+                                 final MetadataStoreGroup metadataStoreGroup, final String owner) {
         Terrain world;
         final String worldType = properties.get(Terrain.PROPERTY_TERRAIN_TYPE, String.class);
         switch (worldType) {
             case FlatWorld.ID:
                 world = new FlatWorld(spatialBounds, properties, metadataStoreGroup);
                 break;
+            case ChunkedWorld.ID:
+                world = new ChunkedWorld(spatialBounds, properties, metadataStoreGroup);
+                break;
+            case MappedWorld.ID:
+                world = new MappedWorld(spatialBounds, properties, metadataStoreGroup, owner);
+                break;
             default:
                 throw new EvolutionException("World type [" + worldType + "] not recognized.");
         }
@@ -0,0 +1,131 @@
+package net.lukemcomber.genetics.world.terrain;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.KryoCopyable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An int array indexed like a {@link MortonLayout} and split into its tiles, which copies share until they
+ * write to them. Copying through Kryo only copies the table of tiles, and a grid clones a tile the first
+ * time it writes to it after a copy, so a copy costs in proportion to what is changed afterward.
+ * <p>
+ * Locations in different tiles may be written from different threads. A tile is cloned at most once per
+ * copy, under the grid's lock.
+ */
+public class CopyOnWriteGrid implements KryoCopyable<CopyOnWriteGrid> {
+
+    private static final int TILE_LENGTH = MortonLayout.TILE_SIZE * MortonLayout.TILE_SIZE;
+    private static final int TILE_MASK = TILE_LENGTH - 1;
+
+    /*
+     * Each tile ends with the id of the grid that may write to it, every grid and copy gets its own
+     */
+    private static final int OWNER = TILE_LENGTH;
+    private static final AtomicInteger owners = new AtomicInteger();
+
+    /**
+     * A cloned tile is published to threads writing other locations in it
+     */
+    private static final VarHandle TILES = MethodHandles.arrayElementVarHandle(int[][].class);
+
+    private final int[][] tiles;
+    private int owner;
+
+    /**
+     * Create a new grid
+     *
+     * @param size  number of locations, see {@link MortonLayout#size()}
+     * @param value initial value of every location
+     */
+    public CopyOnWriteGrid(final int size, final int value) {
+        owner = owners.incrementAndGet();
+        tiles = new int[(size + TILE_MASK) / TILE_LENGTH][];
+        for (int tile = 0; tile < tiles.length; ++tile) {
+            tiles[tile] = createTile(value);
+        }
+    }
+
+    private CopyOnWriteGrid(final int[][] tiles) {
+        owner = owners.incrementAndGet();
+        this.tiles = tiles;
+    }
+
+    /**
+     * Get the value at a location
+     *
+     * @param index location index
+     * @return value
+     */
+    public int get(final int index) {
+        return tiles[MortonLayout.tile(index)][index & TILE_MASK];
+    }
+
+    /**
+     * Set the value at a location
+     *
+     * @param index location index
+     * @param value value
+     */
+    public void set(final int index, final int value) {
+        writableTile(MortonLayout.tile(index))[index & TILE_MASK] = value;
+    }
+
+    /**
+     * Set every location to the same value. Tiles shared with a copy are replaced instead of cloned.
+     *
+     * @param value value
+     */
+    public void fill(final int value) {
+        for (int tile = 0; tile < tiles.length; ++tile) {
+            if (owner == tiles[tile][OWNER]) {
+                Arrays.fill(tiles[tile], 0, TILE_LENGTH, value);
+            } else {
+                tiles[tile] = createTile(value);
+            }
+        }
+    }
+
+    /**
+     * Copy the grid, sharing every tile. The original must not be written while it is copied.
+     *
+     * @param kryo kryo doing the copying
+     * @return copy
+     */
+    @Override
+    public CopyOnWriteGrid copy(final Kryo kryo) {
+        // this grid no longer owns its tiles either
+        owner = owners.incrementAndGet();
+        return new CopyOnWriteGrid(tiles.clone());
+    }
+
+    private int[] createTile(final int value) {
+        final int[] retVal = new int[TILE_LENGTH + 1];
+        Arrays.fill(retVal, 0, TILE_LENGTH, value);
+        retVal[OWNER] = owner;
+        return retVal;
+    }
+
+    private int[] writableTile(final int tile) {
+        int[] retVal = (int[]) TILES.getAcquire(tiles, tile);
+        if (owner != retVal[OWNER]) {
+            synchronized (this) {
+                retVal = tiles[tile];
+                if (owner != retVal[OWNER]) {
+                    retVal = retVal.clone();
+                    retVal[OWNER] = owner;
+                    TILES.setRelease(tiles, tile, retVal);
+                }
+            }
+        }
+        return retVal;
+    }
+}
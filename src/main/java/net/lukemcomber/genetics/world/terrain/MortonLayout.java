@@ -0,0 +1,96 @@
+package net.lukemcomber.genetics.world.terrain;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+/**
+ * Maps 2-dimensional coordinates onto a flat array of 8x8 tiles. Tiles are stored one after another
+ * and the cells inside a tile follow a Z-order (Morton) curve, so cells that are close on the grid
+ * are close in memory.
+ */
+public class MortonLayout {
+
+    public static final int TILE_BITS = 3;
+    public static final int TILE_SIZE = 1 << TILE_BITS;
+
+    private static final int TILE_CELLS = TILE_SIZE * TILE_SIZE;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    private final int tilesPerRow;
+    private final int size;
+
+    /**
+     * Create a layout for a grid
+     *
+     * @param width  size of the x-axis
+     * @param height size of the y-axis
+     */
+    public MortonLayout(final int width, final int height) {
+        this.tilesPerRow = (width + TILE_MASK) >> TILE_BITS;
+        final int tileRows = (height + TILE_MASK) >> TILE_BITS;
+        this.size = tilesPerRow * tileRows * TILE_CELLS;
+    }
+
+    /**
+     * Get the length of an array that holds the grid
+     *
+     * @return array length
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of tiles in a row of the grid
+     *
+     * @return tiles per row
+     */
+    public int getTilesPerRow() {
+        return tilesPerRow;
+    }
+
+    /**
+     * Get the tile an array index falls in. Tiles are numbered row by row.
+     *
+     * @param index array index
+     * @return tile number
+     */
+    public static int tile(final int index) {
+        return index >> (2 * TILE_BITS);
+    }
+
+    /**
+     * Get the array index of a cell
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return array index
+     */
+    public int index(final int x, final int y) {
+        final int tile = (y >> TILE_BITS) * tilesPerRow + (x >> TILE_BITS);
+        return tile * TILE_CELLS + (int) encode(x & TILE_MASK, y & TILE_MASK);
+    }
+
+    /**
+     * Interleave the bits of two coordinates into their position along a Z-order curve
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return Morton code
+     */
+    public static long encode(final int x, final int y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(final int value) {
+        long v = value & 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+}
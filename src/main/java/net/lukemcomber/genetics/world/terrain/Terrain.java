@@ -19,6 +19,9 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntUnaryOperator;
 import java.util.logging.Logger;
 
 /**
@@ -29,12 +32,30 @@ public abstract class Terrain {
     public static final String PROPERTY_TERRAIN_TYPE = "terrain.type";
     private static final Logger logger = Logger.getLogger(Terrain.class.getName());
 
+    /*
+     * offsets to the west, east, north, and south neighbours of a location
+     */
+    private static final int[] NEIGHBOUR_X = {-1, 1, 0, 0};
+    private static final int[] NEIGHBOUR_Y = {0, 0, 1, -1};
+
+    /**
+     * An organism and its position in storage order
+     *
+     * @param key      position in storage order
+     * @param organism organism
+     */
+    private record Keyed(long key, Organism organism) {
+    }
+
     private final SpatialCoordinates spatialBounds;
     private final UniverseConstants constants;
     public final UUID uuid;
     private final Map<String, Organism> population;
     private final MetadataStoreGroup metadataStoreGroup;
-    private long totalOrganisms;
+    private final AtomicLong totalOrganisms;
+    private final LongAdder modifications;
+    private final MortonLayout spatialLayout;
+    private List<Organism> spatialOrder;
 
 
 
@@ -44,13 +65,22 @@ public abstract class Terrain {
         this.constants = constants;
         this.population = new ConcurrentSkipListMap<>();
         this.uuid = UUID.randomUUID();
-        this.totalOrganisms = 0;
+        this.totalOrganisms = new AtomicLong(0);
+        this.modifications = new LongAdder();
         this.metadataStoreGroup = store;
+        this.spatialLayout = new MortonLayout(spatialBounds.xAxis(), spatialBounds.yAxis());
 
     }
 
     public abstract void clear();
 
+    /**
+     * Free the terrain once its ecosystem is done with it. The terrain must not be used afterwards.
+     */
+    public void release() {
+        clear();
+    }
+
     /**
      * Set a specific terrain property for the tile at coordinations of (x,y,z)
      *
@@ -81,6 +111,151 @@ public abstract class Terrain {
      * @return list of properties
      */
     public abstract List<TerrainProperty> getTerrainProperties(final SpatialCoordinates spatialCoordinates);
+
+    /**
+     * Get the value of an integer terrain property by its handle, see {@link TerrainPropertyFactory#getHandle(String)}
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param defaultValue       value to return if the property is not set
+     * @return value of the property
+     */
+    public int getResource(final SpatialCoordinates spatialCoordinates, final int handle, final int defaultValue) {
+        final TerrainProperty<?> property = getTerrainProperty(spatialCoordinates, TerrainPropertyFactory.getId(handle));
+        if (null == property || null == property.getValue()) {
+            return defaultValue;
+        }
+        return (Integer) property.getValue();
+    }
+
+    /**
+     * Set the value of an integer terrain property by its handle
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param value              value to set
+     */
+    @SuppressWarnings("unchecked")
+    public void setResource(final SpatialCoordinates spatialCoordinates, final int handle, final int value) {
+        final TerrainProperty<Integer> property = (TerrainProperty<Integer>) TerrainPropertyFactory.createTerrainProperty(handle);
+        property.setValue(value);
+        setTerrainProperty(spatialCoordinates, property);
+    }
+
+    /**
+     * Take up to a maximum amount from an integer terrain property. The property is reduced by the amount taken.
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param maximum            most to take
+     * @return amount taken, 0 if the property is not set
+     */
+    @SuppressWarnings("unchecked")
+    public int harvestResource(final SpatialCoordinates spatialCoordinates, final int handle, final int maximum) {
+        final TerrainProperty<Integer> property = (TerrainProperty<Integer>) getTerrainProperty(spatialCoordinates,
+                TerrainPropertyFactory.getId(handle));
+        if (null == property || null == property.getValue()) {
+            return 0;
+        }
+        final int value = property.getValue();
+        final int taken = Math.min(maximum, value);
+        property.setValue(value - taken);
+        return taken;
+    }
+
+    /**
+     * Take up to a maximum amount from an integer terrain property at a location on the ground. The default
+     * allocates coordinates for {@link #harvestResource(SpatialCoordinates, int, int)} on every call, terrains
+     * that can find a location by its x and y override this to avoid that.
+     *
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param handle  handle of the property
+     * @param maximum most to take
+     * @return amount taken, 0 if the property is not set
+     */
+    public int harvestResource(final int x, final int y, final int handle, final int maximum) {
+        return harvestResource(new SpatialCoordinates(x, y, 0), handle, maximum);
+    }
+
+    /**
+     * Take up to a maximum amount from an integer terrain property at a location and at each of its von Neumann
+     * neighbours that is inside the terrain and not taken by a cell. The location itself is harvested whether or
+     * not it holds a cell.
+     *
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param handle  handle of the property
+     * @param maximum most to take from each location
+     * @return total amount taken
+     */
+    public int harvestNeighbourhood(final int x, final int y, final int handle, final int maximum) {
+        int retVal = harvestResource(x, y, handle, maximum);
+        for (int i = 0; i < NEIGHBOUR_X.length; ++i) {
+            final int neighbourX = x + NEIGHBOUR_X[i];
+            final int neighbourY = y + NEIGHBOUR_Y[i];
+            if (!isOutOfBounds(neighbourX, neighbourY) && !hasCell(neighbourX, neighbourY)) {
+                retVal += harvestResource(neighbourX, neighbourY, handle, maximum);
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * Set an integer terrain property to the same value everywhere
+     *
+     * @param handle handle of the property
+     * @param value  value to set
+     */
+    public void fillResource(final int handle, final int value) {
+        fillResource(handle, value, 0, 0, getSizeOfXAxis(), getSizeOfYAxis());
+    }
+
+    /**
+     * Set an integer terrain property to the same value over a rectangular region. The region is clipped to
+     * the terrain.
+     *
+     * @param handle handle of the property
+     * @param value  value to set
+     * @param minX   first x coordinate of the region
+     * @param minY   first y coordinate of the region
+     * @param maxX   x coordinate just past the region
+     * @param maxY   y coordinate just past the region
+     */
+    public void fillResource(final int handle, final int value, final int minX, final int minY, final int maxX, final int maxY) {
+        for (int x = Math.max(0, minX); x < Math.min(maxX, getSizeOfXAxis()); ++x) {
+            for (int y = Math.max(0, minY); y < Math.min(maxY, getSizeOfYAxis()); ++y) {
+                setResource(new SpatialCoordinates(x, y, 0), handle, value);
+            }
+        }
+    }
+
+    /**
+     * Renew an integer terrain property to the same value everywhere. Unlike {@link #fillResource(int, int)},
+     * terrains may defer the work until each location is next accessed.
+     *
+     * @param handle handle of the property
+     * @param value  value to renew to
+     */
+    public void renewResource(final int handle, final int value) {
+        fillResource(handle, value);
+    }
+
+    /**
+     * Replace the value of an integer terrain property everywhere with a function of its current value
+     *
+     * @param handle       handle of the property
+     * @param defaultValue value passed to the function where the property is not set
+     * @param function     computes the new value from the current one
+     */
+    public void updateResource(final int handle, final int defaultValue, final IntUnaryOperator function) {
+        for (int x = 0; x < getSizeOfXAxis(); ++x) {
+            for (int y = 0; y < getSizeOfYAxis(); ++y) {
+                final SpatialCoordinates coordinates = new SpatialCoordinates(x, y, 0);
+                setResource(coordinates, handle, function.applyAsInt(getResource(coordinates, handle, defaultValue)));
+            }
+        }
+    }
     /**
      * Initialize the terrain to the given dimensions
      *
@@ -97,6 +272,17 @@ public abstract class Terrain {
      */
     public abstract boolean hasCell(final SpatialCoordinates spatialCoordinates);
 
+    /**
+     * Check if there is a cell at a location on the ground
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return true if there is a cell at (x,y,0) otherwise false
+     */
+    public boolean hasCell(final int x, final int y) {
+        return hasCell(new SpatialCoordinates(x, y, 0));
+    }
+
     /**
      * Attempts to place a cell at the (x,y,z) coordinates. If a cell already exists in that space, nothing
      * is done.
@@ -120,6 +306,17 @@ public abstract class Terrain {
      */
     public abstract Cell getCell(final SpatialCoordinates spatialCoordinates);
 
+    /**
+     * Returns a reference to the cell at a location on the ground
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return the cell at position (x,y,0) or null if one doesn't exist
+     */
+    public Cell getCell(final int x, final int y) {
+        return getCell(new SpatialCoordinates(x, y, 0));
+    }
+
     /**
      * Check if spatial coordinates are out of bounds
      *
@@ -134,6 +331,17 @@ public abstract class Terrain {
                 && 0 <= spatialCoordinates.yAxis()
                 && 0 <= spatialCoordinates.zAxis());
     }
+
+    /**
+     * Check if a location on the ground is out of bounds
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return true if the coordinates are out of bounds
+     */
+    public boolean isOutOfBounds(final int x, final int y) {
+        return 0 > x || 0 > y || getSizeOfXAxis() <= x || getSizeOfYAxis() <= y;
+    }
     /**
      * Get the size of the x-axis
      *
@@ -186,8 +394,9 @@ public abstract class Terrain {
                 if (doesOrganismFit) {
                     cells.forEach(c -> setCell(c, organism));
                     population.put(organism.getUniqueID(), organism);
+                    markModified();
                     retVal = true;
-                    totalOrganisms++;
+                    totalOrganisms.incrementAndGet();
 
                 } else {
                     throw new RuntimeException("Failed to create terrain. Organisms physically conflict.");
@@ -206,6 +415,17 @@ public abstract class Terrain {
      */
     public abstract Organism getOrganism(final SpatialCoordinates spatialCoordinates);
 
+    /**
+     * Get the organism that has a cell at a location on the ground
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return an organism or null if one does not exist
+     */
+    public Organism getOrganism(final int x, final int y) {
+        return getOrganism(new SpatialCoordinates(x, y, 0));
+    }
+
     /**
      * Get the organism with the provided id
      *
@@ -233,6 +453,54 @@ public abstract class Terrain {
     public Iterator<Organism> getOrganisms() {
         return population.values().iterator();
     }
+
+    /**
+     * Get a snapshot of the organisms in the terrain ordered by where the first cell of each is stored, see
+     * {@link #getStorageOrder(int, int)}, so organisms that are neighbours on the grid are next to each other
+     * in the list. Each call starts from the previous order, which organisms rarely leave, so keeping it
+     * sorted costs close to linear time.
+     *
+     * @return organisms in spatial order
+     */
+    public List<Organism> getOrganismsInSpatialOrder() {
+        final List<Keyed> keyed = new ArrayList<>(population.size());
+        final Set<Organism> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (null != spatialOrder) {
+            for (final Organism organism : spatialOrder) {
+                if (organism == population.get(organism.getUniqueID()) && seen.add(organism)) {
+                    keyed.add(new Keyed(getStorageOrder(organism), organism));
+                }
+            }
+        }
+        for (final Organism organism : population.values()) {
+            if (seen.add(organism)) {
+                keyed.add(new Keyed(getStorageOrder(organism), organism));
+            }
+        }
+        keyed.sort(Comparator.comparingLong(Keyed::key));
+
+        spatialOrder = new ArrayList<>(keyed.size());
+        keyed.forEach(entry -> spatialOrder.add(entry.organism()));
+        return Collections.unmodifiableList(spatialOrder);
+    }
+
+    /**
+     * Get the position of a location in the order the terrain stores locations in. The default is the order
+     * of {@link MortonLayout}, terrains that store locations differently should override it.
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return position in storage order
+     */
+    protected long getStorageOrder(final int x, final int y) {
+        return spatialLayout.index(x, y);
+    }
+
+    private long getStorageOrder(final Organism organism) {
+        final SpatialCoordinates coordinates = organism.getFirstCell().getCoordinates();
+        return getStorageOrder(coordinates.xAxis(), coordinates.yAxis());
+    }
+
     /**
      * Returns true if the organism exists
      *
@@ -259,19 +527,49 @@ public abstract class Terrain {
                         deleteCell(cell.getCoordinates(), organism.getUniqueID());
                     });
             retVal = population.remove(organism.getUniqueID()) != null;
+            markModified();
 
         }
 
         return retVal;
     }
 
+    /**
+     * Get the number of changes made to the terrain's cells, organisms, and properties. Two equal readings
+     *  mean nothing was changed through the terrain in between. Values held inside properties and organisms
+     *  are not tracked.
+     *
+     * @return modification count
+     */
+    public long getModificationCount() {
+        return modifications.sum();
+    }
+
+    /**
+     * Get what has changed since the last call, so a consumer that calls once per tick can update only the
+     * tiles that changed. Must not be called while the terrain is being ticked. Terrains that do not track
+     * changes report everything as changed.
+     *
+     * @return changes
+     */
+    public TerrainChanges drainChanges() {
+        return TerrainChanges.EVERYTHING;
+    }
+
+    /**
+     * Record a change to the terrain. May be called concurrently.
+     */
+    protected void markModified() {
+        modifications.increment();
+    }
+
     /**
      * Get count of all organisms that have existed
      *
      * @return count
      */
     public long getTotalOrganismCount() {
-        return totalOrganisms;
+        return totalOrganisms.get();
     }
 
 
@@ -0,0 +1,136 @@
+package net.lukemcomber.genetics.world.terrain;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+/**
+ * What changed in a {@link Terrain} between two calls to {@link Terrain#drainChanges()}. Changes are reported
+ * by {@link MortonLayout} tile rather than by location, so consumers re-read the tiles listed instead of
+ * scanning the whole terrain. Cells being placed or removed and terrain properties changing are tracked
+ * separately.
+ */
+public class TerrainChanges {
+
+    /**
+     * Changes for a terrain that does not track them. Everything may have changed.
+     */
+    public static final TerrainChanges EVERYTHING = new TerrainChanges(0, null, null, true, true);
+
+    /**
+     * Receives the tiles that changed
+     */
+    @FunctionalInterface
+    public interface TileVisitor {
+        /**
+         * Visit a changed tile
+         *
+         * @param minX first x coordinate of the tile
+         * @param minY first y coordinate of the tile
+         */
+        void visit(final int minX, final int minY);
+    }
+
+    private final int tilesPerRow;
+    private final long[] cellTiles;
+    private final long[] resourceTiles;
+    private final boolean allCells;
+    private final boolean allResources;
+
+    /**
+     * Create a new instance
+     *
+     * @param tilesPerRow   tiles in a row of the terrain
+     * @param cellTiles     bitmap of tiles whose cells changed, one bit per tile
+     * @param resourceTiles bitmap of tiles whose terrain properties changed, one bit per tile
+     * @param allCells      true if any cell may have changed
+     * @param allResources  true if any terrain property may have changed
+     */
+    public TerrainChanges(final int tilesPerRow, final long[] cellTiles, final long[] resourceTiles,
+                          final boolean allCells, final boolean allResources) {
+        this.tilesPerRow = tilesPerRow;
+        this.cellTiles = cellTiles;
+        this.resourceTiles = resourceTiles;
+        this.allCells = allCells;
+        this.allResources = allResources;
+    }
+
+    /**
+     * Get the width and height of the tiles changes are reported in
+     *
+     * @return tile size
+     */
+    public int getTileSize() {
+        return MortonLayout.TILE_SIZE;
+    }
+
+    /**
+     * Check if cells may have been placed or removed anywhere, in which case no cell tiles are listed
+     *
+     * @return true if the whole terrain needs to be re-read for cells
+     */
+    public boolean areAllCellsChanged() {
+        return allCells;
+    }
+
+    /**
+     * Check if terrain properties may have changed anywhere, in which case no resource tiles are listed
+     *
+     * @return true if the whole terrain needs to be re-read for terrain properties
+     */
+    public boolean areAllResourcesChanged() {
+        return allResources;
+    }
+
+    /**
+     * Check if nothing changed
+     *
+     * @return true if there are no changes
+     */
+    public boolean isEmpty() {
+        return !allCells && !allResources && 0 == count(cellTiles) && 0 == count(resourceTiles);
+    }
+
+    /**
+     * Visit the tiles where cells were placed or removed
+     *
+     * @param visitor receives each tile
+     */
+    public void forEachCellTile(final TileVisitor visitor) {
+        visit(cellTiles, allCells, visitor);
+    }
+
+    /**
+     * Visit the tiles where terrain properties changed
+     *
+     * @param visitor receives each tile
+     */
+    public void forEachResourceTile(final TileVisitor visitor) {
+        visit(resourceTiles, allResources, visitor);
+    }
+
+    private void visit(final long[] tiles, final boolean all, final TileVisitor visitor) {
+        if (all || null == tiles) {
+            return;
+        }
+        for (int word = 0; word < tiles.length; ++word) {
+            long bits = tiles[word];
+            while (0 != bits) {
+                final int tile = (word << 6) + Long.numberOfTrailingZeros(bits);
+                visitor.visit((tile % tilesPerRow) * MortonLayout.TILE_SIZE, (tile / tilesPerRow) * MortonLayout.TILE_SIZE);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private static int count(final long[] tiles) {
+        int retVal = 0;
+        if (null != tiles) {
+            for (final long word : tiles) {
+                retVal += Long.bitCount(word);
+            }
+        }
+        return retVal;
+    }
+}
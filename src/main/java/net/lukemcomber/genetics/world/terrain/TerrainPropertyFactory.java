@@ -16,6 +16,11 @@ import net.lukemcomber.genetics.world.terrain.properties.SolarEnergyTerrainPrope
  */
 public class TerrainPropertyFactory {
 
+    /**
+     * Number of property handles. Handles are numbered from 0, so they can index arrays.
+     */
+    public static final int HANDLE_COUNT = 4;
+
     /**
      * Return a new {@link TerrainProperty} of type that matches the id
      *
@@ -42,4 +47,46 @@ public class TerrainPropertyFactory {
         }
         return retVal;
     }
+
+    /**
+     * Return a new {@link TerrainProperty} of the type that matches the handle
+     *
+     * @param handle handle of the {@link TerrainProperty} type
+     * @return new {@link TerrainProperty}
+     */
+    public static TerrainProperty<?> createTerrainProperty(final int handle) {
+        return createTerrainProperty(getId(handle));
+    }
+
+    /**
+     * Get the integer handle of a {@link TerrainProperty} type
+     *
+     * @param id type of {@link TerrainProperty}
+     * @return handle
+     */
+    public static int getHandle(final String id) {
+        return switch (id) {
+            case SolarEnergyTerrainProperty.ID -> SolarEnergyTerrainProperty.HANDLE;
+            case SoilNutrientsTerrainProperty.ID -> SoilNutrientsTerrainProperty.HANDLE;
+            case SoilToxicityTerrainProperty.ID -> SoilToxicityTerrainProperty.HANDLE;
+            case RadioactiveTerrainProperty.ID -> RadioactiveTerrainProperty.HANDLE;
+            default -> throw new EvolutionException("Unknown terrain property: " + id);
+        };
+    }
+
+    /**
+     * Get the id of a {@link TerrainProperty} type from its handle
+     *
+     * @param handle handle of the {@link TerrainProperty} type
+     * @return id
+     */
+    public static String getId(final int handle) {
+        return switch (handle) {
+            case SolarEnergyTerrainProperty.HANDLE -> SolarEnergyTerrainProperty.ID;
+            case SoilNutrientsTerrainProperty.HANDLE -> SoilNutrientsTerrainProperty.ID;
+            case SoilToxicityTerrainProperty.HANDLE -> SoilToxicityTerrainProperty.ID;
+            case RadioactiveTerrainProperty.HANDLE -> RadioactiveTerrainProperty.ID;
+            default -> throw new EvolutionException("Unknown terrain property handle: " + handle);
+        };
+    }
 }
@@ -0,0 +1,547 @@
+package net.lukemcomber.genetics.world.terrain.impl;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.Cell;
+import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.UniverseConstants;
+import net.lukemcomber.genetics.store.MetadataStoreGroup;
+import net.lukemcomber.genetics.world.ResourceManager;
+import net.lukemcomber.genetics.world.terrain.MortonLayout;
+import net.lukemcomber.genetics.world.terrain.Terrain;
+import net.lukemcomber.genetics.world.terrain.TerrainProperty;
+import net.lukemcomber.genetics.world.terrain.TerrainPropertyFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.logging.Logger;
+
+/**
+ * A 2-dimensional implementation of {@link Terrain} for worlds too large to allocate up front. The world is
+ * split into fixed-size square chunks that are only allocated when something is first written to them, so
+ * memory grows with the area organisms have touched rather than the size of the world.
+ * <p>
+ * Setting a terrain property everywhere, like the {@link ResourceManager} does with the values from
+ * {@link UniverseConstants}, only records a default. A chunk takes its own copy of a property the first time
+ * the property is written inside it, and until then every location in it reads the default. Terrain
+ * properties are stored as primitives, so {@link TerrainProperty} objects returned are copies, and changes
+ * are saved by setting them back.
+ */
+public class ChunkedWorld extends Terrain {
+
+    private static final Logger logger = Logger.getLogger(ChunkedWorld.class.getName());
+
+    public static final String ID = "CHUNKED_WORLD";
+
+    public static final int CHUNK_BITS = 6;
+    public static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+    private static final MortonLayout CHUNK_LAYOUT = new MortonLayout(CHUNK_SIZE, CHUNK_SIZE);
+
+    /*
+     * marks a property that is not set
+     */
+    private static final int UNSET = Integer.MIN_VALUE;
+
+    /*
+     * Chunks are ticked from several threads at once, so chunks and their property arrays are published
+     * with a compare and set, and occupancy bits are set and cleared atomically
+     */
+    private static final VarHandle CHUNKS = MethodHandles.arrayElementVarHandle(Chunk[].class);
+    private static final VarHandle RESOURCES = MethodHandles.arrayElementVarHandle(int[][].class);
+    private static final VarHandle OCCUPANCY = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * A square of the world, with its locations in Z-order
+     */
+    private static final class Chunk {
+        final long[] occupancy = new long[CHUNK_CELLS >> 6];
+        final Cell[] cells = new Cell[CHUNK_CELLS];
+        final Organism[] organisms = new Organism[CHUNK_CELLS];
+        final int[][] resources = new int[TerrainPropertyFactory.HANDLE_COUNT][];
+    }
+
+    private final ResourceManager resourceManager;
+    private final int chunksPerRow;
+    private final int chunkCount;
+    private final int[] defaults;
+    private Chunk[] chunks;
+
+    /**
+     * Create a new instance from the given configuration properties and a metadata store group
+     *
+     * @param spatialBounds size of environment
+     * @param constants     configuration propertied
+     * @param store         metadata store group
+     */
+    public ChunkedWorld(final SpatialCoordinates spatialBounds, final UniverseConstants constants, final MetadataStoreGroup store) {
+        super(spatialBounds, constants, store);
+        resourceManager = new FlatWorldResourceManager(this, constants);
+        chunksPerRow = (spatialBounds.xAxis() + CHUNK_MASK) >> CHUNK_BITS;
+        final long count = (long) chunksPerRow * ((spatialBounds.yAxis() + CHUNK_MASK) >> CHUNK_BITS);
+        if (Integer.MAX_VALUE < count) {
+            throw new EvolutionException("World size [" + spatialBounds.xAxis() + "," + spatialBounds.yAxis() + "] is too large.");
+        }
+        chunkCount = (int) count;
+        defaults = new int[TerrainPropertyFactory.HANDLE_COUNT];
+        clear();
+        logger.info(String.format("World %s initialized to (%d,%d,%d).", ID, spatialBounds.xAxis(), spatialBounds.yAxis(), spatialBounds.zAxis()));
+    }
+
+    @Override
+    public void clear() {
+        chunks = new Chunk[chunkCount];
+        Arrays.fill(defaults, UNSET);
+        markModified();
+    }
+
+    /**
+     * Drop the chunks instead of clearing them, which would allocate the chunk table again
+     */
+    @Override
+    public void release() {
+        chunks = null;
+        markModified();
+    }
+
+    /**
+     * Sets the {@link TerrainProperty} at the {@link SpatialCoordinates}
+     *
+     * @param spatialCoordinates location
+     * @param terrainProperty    the terrain property to set
+     */
+    @Override
+    @SuppressWarnings("rawtypes") // the signature is fixed by Terrain
+    public void setTerrainProperty(final SpatialCoordinates spatialCoordinates, final TerrainProperty terrainProperty) {
+        if (0 == spatialCoordinates.zAxis()) {
+            //we are flat, ignore anything above the z axis
+            final Object value = terrainProperty.getValue();
+            store(spatialCoordinates.xAxis(), spatialCoordinates.yAxis(), TerrainPropertyFactory.getHandle(terrainProperty.getId()),
+                    null == value ? UNSET : (Integer) value);
+        }
+    }
+
+    /**
+     * Gets a copy of the {@link TerrainProperty} at the given {@link SpatialCoordinates}
+     *
+     * @param spatialCoordinates location
+     * @param id                 the id of the property to return
+     * @return property, or null if not set
+     */
+    @Override
+    public TerrainProperty<?> getTerrainProperty(final SpatialCoordinates spatialCoordinates, final String id) {
+        final int handle = TerrainPropertyFactory.getHandle(id);
+        return view(handle, load(spatialCoordinates.xAxis(), spatialCoordinates.yAxis(), handle));
+    }
+
+    /**
+     * Delete the respective property from the location
+     *
+     * @param spatialCoordinates location
+     * @param id                 the id of the property to delete
+     */
+    @Override
+    public void deleteTerrainProperty(final SpatialCoordinates spatialCoordinates, final String id) {
+        store(spatialCoordinates.xAxis(), spatialCoordinates.yAxis(), TerrainPropertyFactory.getHandle(id), UNSET);
+    }
+
+    /**
+     * Get copies of all the {@link TerrainProperty} at a specific location
+     *
+     * @param spatialCoordinates location
+     * @return list of properties
+     */
+    @Override
+    @SuppressWarnings("rawtypes") // the signature is fixed by Terrain
+    public List<TerrainProperty> getTerrainProperties(final SpatialCoordinates spatialCoordinates) {
+        final List<TerrainProperty> retVal = new ArrayList<>();
+        for (int handle = 0; handle < TerrainPropertyFactory.HANDLE_COUNT; ++handle) {
+            final TerrainProperty<?> property = view(handle, load(spatialCoordinates.xAxis(), spatialCoordinates.yAxis(), handle));
+            if (null != property) {
+                retVal.add(property);
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * Get the value of an integer terrain property by its handle
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param defaultValue       value to return if the property is not set
+     * @return value of the property
+     */
+    @Override
+    public int getResource(final SpatialCoordinates spatialCoordinates, final int handle, final int defaultValue) {
+        final int value = load(spatialCoordinates.xAxis(), spatialCoordinates.yAxis(), handle);
+        return UNSET == value ? defaultValue : value;
+    }
+
+    /**
+     * Set the value of an integer terrain property by its handle
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param value              value to set
+     */
+    @Override
+    public void setResource(final SpatialCoordinates spatialCoordinates, final int handle, final int value) {
+        if (0 == spatialCoordinates.zAxis()) {
+            store(spatialCoordinates.xAxis(), spatialCoordinates.yAxis(), handle, value);
+        }
+    }
+
+    /**
+     * Take up to a maximum amount from an integer terrain property
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param maximum            most to take
+     * @return amount taken, 0 if the property is not set
+     */
+    @Override
+    public int harvestResource(final SpatialCoordinates spatialCoordinates, final int handle, final int maximum) {
+        return harvestResource(spatialCoordinates.xAxis(), spatialCoordinates.yAxis(), handle, maximum);
+    }
+
+    /**
+     * Take up to a maximum amount from an integer terrain property at a location on the ground
+     *
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param handle  handle of the property
+     * @param maximum most to take
+     * @return amount taken, 0 if the property is not set
+     */
+    @Override
+    public int harvestResource(final int x, final int y, final int handle, final int maximum) {
+        if (UNSET == load(x, y, handle)) {
+            return 0;
+        }
+        final int[] values = resources(chunkForWrite(x, y), handle);
+        final int index = localIndex(x, y);
+        final int taken = Math.min(maximum, values[index]);
+        values[index] -= taken;
+        return taken;
+    }
+
+    /**
+     * Set an integer terrain property to the same value over a rectangular region. A region covering the whole
+     * world only replaces the default and drops every chunk's copy of the property.
+     *
+     * @param handle handle of the property
+     * @param value  value to set
+     * @param minX   first x coordinate of the region
+     * @param minY   first y coordinate of the region
+     * @param maxX   x coordinate just past the region
+     * @param maxY   y coordinate just past the region
+     */
+    @Override
+    public void fillResource(final int handle, final int value, final int minX, final int minY, final int maxX, final int maxY) {
+        if (0 >= minX && 0 >= minY && maxX >= getSizeOfXAxis() && maxY >= getSizeOfYAxis()) {
+            defaults[handle] = value;
+            for (final Chunk chunk : chunks) {
+                if (null != chunk) {
+                    chunk.resources[handle] = null;
+                }
+            }
+        } else {
+            for (int y = Math.max(0, minY); y < Math.min(maxY, getSizeOfYAxis()); ++y) {
+                for (int x = Math.max(0, minX); x < Math.min(maxX, getSizeOfXAxis()); ++x) {
+                    resources(chunkForWrite(x, y), handle)[localIndex(x, y)] = value;
+                }
+            }
+        }
+        markModified();
+    }
+
+    /**
+     * Replace the value of an integer terrain property everywhere with a function of its current value. Only
+     * the default and the chunks that hold their own copy of the property are visited.
+     *
+     * @param handle       handle of the property
+     * @param defaultValue value passed to the function where the property is not set
+     * @param function     computes the new value from the current one
+     */
+    @Override
+    public void updateResource(final int handle, final int defaultValue, final IntUnaryOperator function) {
+        defaults[handle] = function.applyAsInt(UNSET == defaults[handle] ? defaultValue : defaults[handle]);
+        for (final Chunk chunk : chunks) {
+            final int[] values = null == chunk ? null : chunk.resources[handle];
+            if (null != values) {
+                for (int i = 0; i < values.length; ++i) {
+                    values[i] = function.applyAsInt(UNSET == values[i] ? defaultValue : values[i]);
+                }
+            }
+        }
+        markModified();
+    }
+
+    /**
+     * Get the organism that has a cell at the given coordinate
+     *
+     * @param spatialCoordinates location
+     * @return an organism or null if one does not exist
+     */
+    @Override
+    public Organism getOrganism(final SpatialCoordinates spatialCoordinates) {
+        return getOrganism(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    /**
+     * Get the organism that has a cell at the given location
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return an organism or null if one does not exist
+     */
+    @Override
+    public Organism getOrganism(final int x, final int y) {
+        final Chunk chunk = chunk(x, y);
+        final int index = localIndex(x, y);
+        return null != chunk && isOccupied(chunk, index) ? chunk.organisms[index] : null;
+    }
+
+    /**
+     * Initialize the terrain to the given dimensions
+     *
+     * @param x width
+     * @param y height
+     * @param z depth
+     */
+    @Override
+    public void initialize(int x, int y, int z) {
+    }
+
+    /**
+     * Returns true if there is an organism at the given coordinates
+     *
+     * @return true if an organism exists at the location
+     */
+    @Override
+    public boolean hasCell(final SpatialCoordinates spatialCoordinates) {
+        return hasCell(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    /**
+     * Returns true if there is a cell at the given location
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return true if a cell exists at the location
+     */
+    @Override
+    public boolean hasCell(final int x, final int y) {
+        final Chunk chunk = chunk(x, y);
+        return null != chunk && isOccupied(chunk, localIndex(x, y));
+    }
+
+    /**
+     * Attempt to add a cell to the terrain. If there is already a cell at the same position,
+     * nothing is changed and false is returned.
+     *
+     * @param cell     the cell to attempt to place
+     * @param organism cell's organism
+     * @return true if set
+     */
+    @Override
+    public boolean setCell(final Cell cell, final Organism organism) {
+        final int x = cell.getCoordinates().xAxis();
+        final int y = cell.getCoordinates().yAxis();
+        final Chunk chunk = chunkForWrite(x, y);
+        final int index = localIndex(x, y);
+        if (isOccupied(chunk, index)) {
+            return false;
+        }
+        chunk.cells[index] = cell;
+        chunk.organisms[index] = organism;
+        OCCUPANCY.getAndBitwiseOr(chunk.occupancy, index >> 6, 1L << index);
+        markModified();
+        return true;
+    }
+
+    /**
+     * Delete the cell at the given coordinates
+     *
+     * @param spatialCoordinates location
+     * @param id                 id of the organism the cell belongs to
+     * @return true if cell is deleted
+     */
+    @Override
+    public boolean deleteCell(final SpatialCoordinates spatialCoordinates, final String id) {
+        final Chunk chunk = chunk(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+        final int index = localIndex(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+        if (null != chunk && isOccupied(chunk, index) && chunk.organisms[index].getUniqueID().equals(id)) {
+            OCCUPANCY.getAndBitwiseAnd(chunk.occupancy, index >> 6, ~(1L << index));
+            chunk.cells[index] = null;
+            chunk.organisms[index] = null;
+            markModified();
+        } else {
+            throw new RuntimeException("CRITICAL: Terrain has become corrupted!!");
+        }
+        return true;
+    }
+
+    /**
+     * Get the cell at the given coordinates
+     *
+     * @param spatialCoordinates location
+     * @return cell or null if one does not exist
+     */
+    @Override
+    public Cell getCell(final SpatialCoordinates spatialCoordinates) {
+        return getCell(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    /**
+     * Get the cell at the given location
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return cell or null if one does not exist
+     */
+    @Override
+    public Cell getCell(final int x, final int y) {
+        final Chunk chunk = chunk(x, y);
+        final int index = localIndex(x, y);
+        return null != chunk && isOccupied(chunk, index) ? chunk.cells[index] : null;
+    }
+
+    /**
+     * Get the resource manager
+     *
+     * @return resource manager
+     */
+    @Override
+    public ResourceManager getResourceManager() {
+        return resourceManager;
+    }
+
+    /**
+     * Check if spatial coordinates are out of bounds. The z-axis is ignored because the world is flat.
+     *
+     * @param spatialCoordinates location
+     * @return true if the coordinates are out of bounds
+     */
+    @Override
+    public boolean isOutOfBounds(final SpatialCoordinates spatialCoordinates) {
+        return isOutOfBounds(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    /**
+     * Get the number of chunks that have been allocated
+     *
+     * @return chunk count
+     */
+    int getAllocatedChunkCount() {
+        int count = 0;
+        for (final Chunk chunk : chunks) {
+            if (null != chunk) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    private int load(final int x, final int y, final int handle) {
+        final Chunk chunk = chunk(x, y);
+        final int[] values = null == chunk ? null : (int[]) RESOURCES.getAcquire(chunk.resources, handle);
+        return null == values ? defaults[handle] : values[localIndex(x, y)];
+    }
+
+    private void store(final int x, final int y, final int handle, final int value) {
+        resources(chunkForWrite(x, y), handle)[localIndex(x, y)] = value;
+        markModified();
+    }
+
+    /**
+     * Get a chunk's copy of a property, taking one from the default if the chunk does not have its own yet
+     *
+     * @param chunk  chunk
+     * @param handle handle of the property
+     * @return values in Z-order
+     */
+    private int[] resources(final Chunk chunk, final int handle) {
+        final int[] values = (int[]) RESOURCES.getAcquire(chunk.resources, handle);
+        if (null != values) {
+            return values;
+        }
+        final int[] created = new int[CHUNK_CELLS];
+        Arrays.fill(created, defaults[handle]);
+        final int[] witness = (int[]) RESOURCES.compareAndExchange(chunk.resources, handle, null, created);
+        return null == witness ? created : witness;
+    }
+
+    /**
+     * Copy a property value out as a {@link TerrainProperty}
+     *
+     * @param handle handle of the property
+     * @param value  stored value
+     * @return property, or null if not set
+     */
+    @SuppressWarnings("unchecked")
+    private TerrainProperty<?> view(final int handle, final int value) {
+        if (UNSET == value) {
+            return null;
+        }
+        final TerrainProperty<Integer> property = (TerrainProperty<Integer>) TerrainPropertyFactory.createTerrainProperty(handle);
+        property.setValue(value);
+        return property;
+    }
+
+    private Chunk chunk(final int x, final int y) {
+        return (Chunk) CHUNKS.getAcquire(chunks, chunkIndex(x, y));
+    }
+
+    private Chunk chunkForWrite(final int x, final int y) {
+        final int index = chunkIndex(x, y);
+        final Chunk chunk = (Chunk) CHUNKS.getAcquire(chunks, index);
+        if (null != chunk) {
+            return chunk;
+        }
+        final Chunk created = new Chunk();
+        final Chunk witness = (Chunk) CHUNKS.compareAndExchange(chunks, index, null, created);
+        return null == witness ? created : witness;
+    }
+
+    /**
+     * Get the position of a location in storage order, chunk by chunk
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return position in storage order
+     */
+    @Override
+    protected long getStorageOrder(final int x, final int y) {
+        return ((long) chunkIndex(x, y) << (2 * CHUNK_BITS)) | localIndex(x, y);
+    }
+
+    private boolean isOccupied(final Chunk chunk, final int index) {
+        return 0 != (chunk.occupancy[index >> 6] & (1L << index));
+    }
+
+    private int chunkIndex(final int x, final int y) {
+        // chunks are padded, so an out of bounds coordinate can still land inside the directory
+        if (0 > x || 0 > y || x >= getSizeOfXAxis() || y >= getSizeOfYAxis()) {
+            throw new ArrayIndexOutOfBoundsException("SpatialCoordinates (" + x + "," + y
+                    + ") are out of bounds for world size [" + getSizeOfXAxis() + "," + getSizeOfYAxis() + "].");
+        }
+        return (y >> CHUNK_BITS) * chunksPerRow + (x >> CHUNK_BITS);
+    }
+
+    private static int localIndex(final int x, final int y) {
+        return CHUNK_LAYOUT.index(x & CHUNK_MASK, y & CHUNK_MASK);
+    }
+}
@@ -12,42 +12,97 @@ import net.lukemcomber.genetics.model.UniverseConstants;
 import net.lukemcomber.genetics.io.CellHelper;
 import net.lukemcomber.genetics.store.MetadataStoreGroup;
 import net.lukemcomber.genetics.world.ResourceManager;
+import net.lukemcomber.genetics.world.terrain.CopyOnWriteGrid;
+import net.lukemcomber.genetics.world.terrain.MortonLayout;
 import net.lukemcomber.genetics.world.terrain.Terrain;
+import net.lukemcomber.genetics.world.terrain.TerrainChanges;
 import net.lukemcomber.genetics.world.terrain.TerrainProperty;
-import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.world.terrain.TerrainPropertyFactory;
 import org.apache.commons.lang3.StringUtils;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
- * A 2-dimensional implementation of {@link Terrain}
+ * A 2-dimensional implementation of {@link Terrain}. Cells are stored in Z-ordered tiles, see {@link MortonLayout}.
+ * <p>
+ * By default terrain properties are {@link TerrainProperty} objects kept per location, and changing one
+ * in place changes the terrain. In {@link Storage#GRID} mode, set through {@link #PROPERTY_STORAGE}, they are
+ * held in one primitive array per property type instead and are best accessed by handle. {@link TerrainProperty}
+ * objects are then only a view: those returned are copies, and changes are only saved by setting them back.
+ * Renewing a property is lazy. Each location records the renewal it was last brought up to date with and takes
+ * the renewed value the next time it is accessed, so a renewal costs the same however large the world is. The
+ * arrays are {@link CopyOnWriteGrid}s, so a copy of the world shares their tiles until one side changes them.
+ * <p>
+ * With {@link #PROPERTY_TRACK_CHANGES} set, the tiles where cells are placed or removed and where properties
+ * change are recorded in bitmaps, and {@link #drainChanges()} hands them to consumers that only want to
+ * re-read what changed. Changes made across the whole world, like a renewal, are reported as such instead of
+ * tile by tile.
  */
 public class FlatWorld extends Terrain {
 
     private static final Logger logger = Logger.getLogger(FlatWorld.class.getName());
 
     public static final String ID = "FLAT_WORLD";
+    public static final String PROPERTY_STORAGE = "terrain.flat.storage";
+    public static final String PROPERTY_TRACK_CHANGES = "terrain.flat.track.changes";
 
+    /**
+     * How terrain properties are stored
+     */
+    public enum Storage {
+        /**
+         * A map of property objects per location, the default
+         */
+        MAP,
+        /**
+         * A flat int array per property type, indexed by location. Property objects are detached copies.
+         */
+        GRID
+    }
 
-    private class MatrixCell {
-        Cell cell;
-        Organism organism;
-
-        boolean isNotEmpty() {
-            return null != cell && null != organism;
-        }
+    /*
+     * Marks a location where a property is not set
+     */
+    private static final int UNSET = Integer.MIN_VALUE;
 
-    }
+    /**
+     * Occupancy and change words are shared by neighbouring locations and tiles, which may be ticked on
+     * different threads, so bits are only ever set and cleared atomically
+     */
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
 
-    private MatrixCell[][] organismMap;
-    private Map<String, TerrainProperty>[][] environmentMap;
+    /*
+     * One bit per location, in Morton order, so an 8x8 tile is exactly one word. The cell and organism
+     * arrays are only read once the bit says the location is taken.
+     */
+    private long[] occupancy;
+    private Cell[] cells;
+    private Organism[] organisms;
+    private Map<String, TerrainProperty<?>>[] environmentMap;
+    private CopyOnWriteGrid[] resourceGrid;
+    private CopyOnWriteGrid[] renewalStamps;
+    private int[] renewals;
+    private int[] renewalValues;
     private final ResourceManager resourceManager;
 
+    /*
+     * One bit per tile, for tiles changed since the last drain
+     */
+    private final boolean trackChanges;
+    private long[] changedCells;
+    private long[] changedResources;
+    private boolean allCellsChanged;
+    private boolean allResourcesChanged;
+
     private final SpatialCoordinates bounds;
+    private final MortonLayout layout;
 
     /**
      * Create a new instance from the given configuration properties and a metadata store group
@@ -60,23 +115,65 @@ public class FlatWorld extends Terrain {
         super(spatialBounds, constants, store);
         resourceManager = new FlatWorldResourceManager(this, constants);
         bounds = spatialBounds;
+        layout = new MortonLayout(spatialBounds.xAxis(), spatialBounds.yAxis());
+        trackChanges = constants.get(PROPERTY_TRACK_CHANGES, Boolean.class, false);
 
-        organismMap = new MatrixCell[spatialBounds.xAxis()][spatialBounds.yAxis()];
-        environmentMap = new HashMap[spatialBounds.xAxis()][spatialBounds.yAxis()];
-
-        //we are at load time, spend extra time now initializing and less time later overall
-        for (int i = 0; i < spatialBounds.xAxis(); ++i) {
-            for (int j = 0; j < spatialBounds.yAxis(); ++j) {
-                environmentMap[i][j] = new HashMap<>();
-            }
+        createOccupancy();
+        if (Storage.GRID == Storage.valueOf(constants.get(PROPERTY_STORAGE, String.class, Storage.MAP.name()).toUpperCase())) {
+            createResourceGrid();
+        } else {
+            createEnvironmentMap();
         }
+        resetChanges();
+        allCellsChanged = true;
+        allResourcesChanged = true;
         logger.info(String.format("World %s initialized to (%d,%d,%d).", ID, spatialBounds.xAxis(), spatialBounds.yAxis(), spatialBounds.zAxis()));
     }
 
     @Override
     public void clear() {
-        organismMap = new MatrixCell[bounds.xAxis()][bounds.yAxis()];
-        environmentMap = new HashMap[bounds.xAxis()][bounds.yAxis()];
+        createOccupancy();
+        if (null != resourceGrid) {
+            createResourceGrid();
+        } else {
+            createEnvironmentMap();
+        }
+        allCellsChanged = true;
+        allResourcesChanged = true;
+        markModified();
+    }
+
+    /**
+     * Drop the storage instead of clearing it, which would allocate all of it again
+     */
+    @Override
+    public void release() {
+        occupancy = null;
+        cells = null;
+        organisms = null;
+        environmentMap = null;
+        resourceGrid = null;
+        renewalStamps = null;
+        changedCells = null;
+        changedResources = null;
+        markModified();
+    }
+
+    /**
+     * Get the tiles changed since the last call. Changes are only tracked if {@link #PROPERTY_TRACK_CHANGES}
+     * is set, otherwise everything is reported as changed.
+     *
+     * @return changes
+     */
+    @Override
+    public TerrainChanges drainChanges() {
+        if (!trackChanges) {
+            return super.drainChanges();
+        }
+        final TerrainChanges retVal = new TerrainChanges(layout.getTilesPerRow(), changedCells, changedResources,
+                allCellsChanged, allResourcesChanged);
+        resetChanges();
+        return retVal;
     }
 
     /**
@@ -86,6 +183,7 @@ public class FlatWorld extends Terrain {
      * @param terrainProperty    the terrain property to set
      */
     @Override
+    @SuppressWarnings("rawtypes") // the signature is fixed by Terrain
     public void setTerrainProperty(final SpatialCoordinates spatialCoordinates, final TerrainProperty terrainProperty) {
 
         if (0 == spatialCoordinates.zAxis()) {
@@ -93,7 +191,15 @@ public class FlatWorld extends Terrain {
             checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
 
             //on conflict overwrites
-            environmentMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()].put(terrainProperty.getId(), terrainProperty);
+            if (null != resourceGrid) {
+                final Object value = terrainProperty.getValue();
+                final int handle = TerrainPropertyFactory.getHandle(terrainProperty.getId());
+                resourceGrid[handle].set(materialize(handle, index(spatialCoordinates)), null == value ? UNSET : (Integer) value);
+            } else {
+                environmentMap[index(spatialCoordinates)].put(terrainProperty.getId(), terrainProperty);
+            }
+            markChanged(changedResources, index(spatialCoordinates));
+            markModified();
         }
 
     }
@@ -106,9 +212,12 @@ public class FlatWorld extends Terrain {
      * @return
      */
     @Override
-    public TerrainProperty getTerrainProperty(final SpatialCoordinates spatialCoordinates, final String id) {
+    public TerrainProperty<?> getTerrainProperty(final SpatialCoordinates spatialCoordinates, final String id) {
         checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
-        return environmentMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()].get(id);
+        if (null != resourceGrid) {
+            return view(TerrainPropertyFactory.getHandle(id), index(spatialCoordinates));
+        }
+        return environmentMap[index(spatialCoordinates)].get(id);
     }
 
     /**
@@ -120,7 +229,14 @@ public class FlatWorld extends Terrain {
     @Override
     public void deleteTerrainProperty(final SpatialCoordinates spatialCoordinates, final String id) {
         checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
-        environmentMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()].remove(id);
+        if (null != resourceGrid) {
+            final int handle = TerrainPropertyFactory.getHandle(id);
+            resourceGrid[handle].set(materialize(handle, index(spatialCoordinates)), UNSET);
+        } else {
+            environmentMap[index(spatialCoordinates)].remove(id);
+        }
+        markChanged(changedResources, index(spatialCoordinates));
+        markModified();
     }
 
     /**
@@ -130,9 +246,212 @@ public class FlatWorld extends Terrain {
      * @return list of properties
      */
     @Override
+    @SuppressWarnings("rawtypes") // the signature is fixed by Terrain
     public List<TerrainProperty> getTerrainProperties(final SpatialCoordinates spatialCoordinates) {
         checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
-        return new ArrayList<>(environmentMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()].values());
+        if (null != resourceGrid) {
+            final List<TerrainProperty> retVal = new ArrayList<>();
+            final int index = index(spatialCoordinates);
+            for (int handle = 0; handle < TerrainPropertyFactory.HANDLE_COUNT; ++handle) {
+                final TerrainProperty<?> property = view(handle, index);
+                if (null != property) {
+                    retVal.add(property);
+                }
+            }
+            return retVal;
+        }
+        return new ArrayList<>(environmentMap[index(spatialCoordinates)].values());
+    }
+
+    /**
+     * Get the value of an integer terrain property by its handle
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param defaultValue       value to return if the property is not set
+     * @return value of the property
+     */
+    @Override
+    public int getResource(final SpatialCoordinates spatialCoordinates, final int handle, final int defaultValue) {
+        if (null == resourceGrid) {
+            return super.getResource(spatialCoordinates, handle, defaultValue);
+        }
+        checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+        final int value = resourceGrid[handle].get(materialize(handle, index(spatialCoordinates)));
+        return UNSET == value ? defaultValue : value;
+    }
+
+    /**
+     * Set the value of an integer terrain property by its handle
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param value              value to set
+     */
+    @Override
+    public void setResource(final SpatialCoordinates spatialCoordinates, final int handle, final int value) {
+        if (null == resourceGrid) {
+            super.setResource(spatialCoordinates, handle, value);
+        } else if (0 == spatialCoordinates.zAxis()) {
+            checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+            resourceGrid[handle].set(materialize(handle, index(spatialCoordinates)), value);
+            markChanged(changedResources, index(spatialCoordinates));
+            markModified();
+        }
+    }
+
+    /**
+     * Take up to a maximum amount from an integer terrain property
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param maximum            most to take
+     * @return amount taken, 0 if the property is not set
+     */
+    @Override
+    public int harvestResource(final SpatialCoordinates spatialCoordinates, final int handle, final int maximum) {
+        checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+        if (null == resourceGrid) {
+            return harvestProperty(handle, index(spatialCoordinates), maximum);
+        }
+        return harvest(handle, index(spatialCoordinates), maximum);
+    }
+
+    /**
+     * Take up to a maximum amount from an integer terrain property at a location on the ground
+     *
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param handle  handle of the property
+     * @param maximum most to take
+     * @return amount taken, 0 if the property is not set
+     */
+    @Override
+    public int harvestResource(final int x, final int y, final int handle, final int maximum) {
+        checkCoordinates(x, y);
+        if (null == resourceGrid) {
+            return harvestProperty(handle, layout.index(x, y), maximum);
+        }
+        return harvest(handle, layout.index(x, y), maximum);
+    }
+
+    /**
+     * Take up to a maximum amount from an integer terrain property at a location and at each of its von Neumann
+     * neighbours that is inside the terrain and not taken by a cell. Neighbours are checked against the edges
+     * and the occupancy bitmap directly, without going through coordinates.
+     *
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param handle  handle of the property
+     * @param maximum most to take from each location
+     * @return total amount taken
+     */
+    @Override
+    public int harvestNeighbourhood(final int x, final int y, final int handle, final int maximum) {
+        if (null == resourceGrid) {
+            return super.harvestNeighbourhood(x, y, handle, maximum);
+        }
+        checkCoordinates(x, y);
+        int retVal = harvest(handle, layout.index(x, y), maximum);
+        if (0 < x) {
+            retVal += harvestOpen(handle, layout.index(x - 1, y), maximum);
+        }
+        if (getSizeOfXAxis() - 1 > x) {
+            retVal += harvestOpen(handle, layout.index(x + 1, y), maximum);
+        }
+        if (getSizeOfYAxis() - 1 > y) {
+            retVal += harvestOpen(handle, layout.index(x, y + 1), maximum);
+        }
+        if (0 < y) {
+            retVal += harvestOpen(handle, layout.index(x, y - 1), maximum);
+        }
+        return retVal;
+    }
+
+    /**
+     * Set an integer terrain property to the same value over a rectangular region
+     *
+     * @param handle handle of the property
+     * @param value  value to set
+     * @param minX   first x coordinate of the region
+     * @param minY   first y coordinate of the region
+     * @param maxX   x coordinate just past the region
+     * @param maxY   y coordinate just past the region
+     */
+    @Override
+    public void fillResource(final int handle, final int value, final int minX, final int minY, final int maxX, final int maxY) {
+        final boolean everywhere = 0 >= minX && 0 >= minY && maxX >= getSizeOfXAxis() && maxY >= getSizeOfYAxis();
+        if (null == resourceGrid) {
+            super.fillResource(handle, value, minX, minY, maxX, maxY);
+            allResourcesChanged |= everywhere;
+            return;
+        }
+        final CopyOnWriteGrid grid = resourceGrid[handle];
+        if (everywhere) {
+            // padding outside the world is never read, so the whole array can be filled
+            grid.fill(value);
+            if (null != renewalStamps[handle]) {
+                renewalStamps[handle].fill(renewals[handle]);
+            }
+            allResourcesChanged = true;
+        } else {
+            for (int y = Math.max(0, minY); y < Math.min(maxY, getSizeOfYAxis()); ++y) {
+                for (int x = Math.max(0, minX); x < Math.min(maxX, getSizeOfXAxis()); ++x) {
+                    final int index = layout.index(x, y);
+                    grid.set(materialize(handle, index), value);
+                    markChanged(changedResources, index);
+                }
+            }
+        }
+        markModified();
+    }
+
+    /**
+     * Replace the value of an integer terrain property everywhere with a function of its current value
+     *
+     * @param handle       handle of the property
+     * @param defaultValue value passed to the function where the property is not set
+     * @param function     computes the new value from the current one
+     */
+    @Override
+    public void updateResource(final int handle, final int defaultValue, final IntUnaryOperator function) {
+        if (null == resourceGrid) {
+            super.updateResource(handle, defaultValue, function);
+            allResourcesChanged = true;
+            return;
+        }
+        final CopyOnWriteGrid grid = resourceGrid[handle];
+        for (int y = 0; y < getSizeOfYAxis(); ++y) {
+            for (int x = 0; x < getSizeOfXAxis(); ++x) {
+                final int index = materialize(handle, layout.index(x, y));
+                final int value = grid.get(index);
+                grid.set(index, function.applyAsInt(UNSET == value ? defaultValue : value));
+            }
+        }
+        allResourcesChanged = true;
+        markModified();
+    }
+
+    /**
+     * Set an integer terrain property to the same value everywhere. Locations take the value the next time
+     * they are accessed, so a renewal does not touch the grid.
+     *
+     * @param handle handle of the property
+     * @param value  value to set
+     */
+    @Override
+    public void renewResource(final int handle, final int value) {
+        if (null == resourceGrid) {
+            super.renewResource(handle, value);
+            return;
+        }
+        if (null == renewalStamps[handle]) {
+            renewalStamps[handle] = new CopyOnWriteGrid(layout.size(), 0);
+        }
+        ++renewals[handle];
+        renewalValues[handle] = value;
+        allResourcesChanged = true;
+        markModified();
     }
 
 
@@ -144,11 +463,21 @@ public class FlatWorld extends Terrain {
      */
     @Override
     public Organism getOrganism(final SpatialCoordinates spatialCoordinates) {
-        checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
-        if (null != organismMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()]) {
-            return organismMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()].organism;
-        }
-        return null;
+        return getOrganism(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    /**
+     * Get the organism that has a cell at the given location
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return an organism or null if one does not exist
+     */
+    @Override
+    public Organism getOrganism(final int x, final int y) {
+        checkCoordinates(x, y);
+        final int index = layout.index(x, y);
+        return isOccupied(index) ? organisms[index] : null;
     }
 
     /**
@@ -169,12 +498,25 @@ public class FlatWorld extends Terrain {
      */
     @Override
     public boolean hasCell(final SpatialCoordinates spatialCoordinates) {
-        return null != organismMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()];
+        return hasCell(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    /**
+     * Returns true if there is a cell at the given location
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return true if a cell exists at the location
+     */
+    @Override
+    public boolean hasCell(final int x, final int y) {
+        checkCoordinates(x, y);
+        return isOccupied(layout.index(x, y));
     }
 
     /**
-     * Attempt to af cell to the terrain. If there is already a cell at the same position,
-     * false is returned.
+     * Attempt to add a cell to the terrain. If there is already a cell at the same position,
+     * nothing is changed and false is returned.
      *
      * @param cell     the cell to attempt to place
      * @param organism cell's organism
@@ -183,17 +525,16 @@ public class FlatWorld extends Terrain {
     @Override
     public boolean setCell(final Cell cell, final Organism organism) {
         checkCoordinates(cell.getCoordinates().xAxis(), cell.getCoordinates().yAxis());
-        final MatrixCell currentCell = organismMap[cell.getCoordinates().xAxis()][cell.getCoordinates().yAxis()];
-        if (null == currentCell) {
-            final MatrixCell mCell = new MatrixCell();
-            mCell.cell = cell;
-            mCell.organism = organism;
-
-            organismMap[cell.getCoordinates().xAxis()][cell.getCoordinates().yAxis()] = mCell;
-        } else {
-            throw new EvolutionException("Collision!!!");
+        final int index = index(cell.getCoordinates());
+        if (isOccupied(index)) {
+            return false;
         }
-        return null == currentCell;
+        cells[index] = cell;
+        organisms[index] = organism;
+        WORDS.getAndBitwiseOr(occupancy, index >> 6, 1L << index);
+        markChanged(changedCells, index);
+        markModified();
+        return true;
     }
 
     /**
@@ -205,9 +546,13 @@ public class FlatWorld extends Terrain {
     @Override
     public boolean deleteCell(final SpatialCoordinates spatialCoordinates, final String id) {
         checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
-        final MatrixCell currentCell = organismMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()];
-        if( currentCell.organism.getUniqueID().equals(id)) {
-            organismMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()] = null;
+        final int index = index(spatialCoordinates);
+        if (isOccupied(index) && organisms[index].getUniqueID().equals(id)) {
+            WORDS.getAndBitwiseAnd(occupancy, index >> 6, ~(1L << index));
+            cells[index] = null;
+            organisms[index] = null;
+            markChanged(changedCells, index);
+            markModified();
         } else {
             throw new RuntimeException("CRITICAL: Terrain has become corrupted!!");
         }
@@ -223,11 +568,21 @@ public class FlatWorld extends Terrain {
      */
     @Override
     public Cell getCell(final SpatialCoordinates spatialCoordinates) {
-        checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
-        if (null != organismMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()]) {
-            return organismMap[spatialCoordinates.xAxis()][spatialCoordinates.yAxis()].cell;
-        }
-        return null;
+        return getCell(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    /**
+     * Get the cell at the given location
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return cell or null if one does not exist
+     */
+    @Override
+    public Cell getCell(final int x, final int y) {
+        checkCoordinates(x, y);
+        final int index = layout.index(x, y);
+        return isOccupied(index) ? cells[index] : null;
     }
 
     /**
@@ -260,8 +615,141 @@ public class FlatWorld extends Terrain {
     }
 
 
+    private void createResourceGrid() {
+        resourceGrid = new CopyOnWriteGrid[TerrainPropertyFactory.HANDLE_COUNT];
+        for (int handle = 0; handle < resourceGrid.length; ++handle) {
+            resourceGrid[handle] = new CopyOnWriteGrid(layout.size(), UNSET);
+        }
+        renewalStamps = new CopyOnWriteGrid[TerrainPropertyFactory.HANDLE_COUNT];
+        renewals = new int[TerrainPropertyFactory.HANDLE_COUNT];
+        renewalValues = new int[TerrainPropertyFactory.HANDLE_COUNT];
+    }
+
+    /**
+     * Bring a location up to date with the latest renewal of a property
+     *
+     * @param handle handle of the property
+     * @param index  grid index
+     * @return the grid index
+     */
+    private int materialize(final int handle, final int index) {
+        final CopyOnWriteGrid stamps = renewalStamps[handle];
+        if (null != stamps && stamps.get(index) != renewals[handle]) {
+            stamps.set(index, renewals[handle]);
+            resourceGrid[handle].set(index, renewalValues[handle]);
+        }
+        return index;
+    }
+
+    /**
+     * Copy a property out of the grid as a {@link TerrainProperty}
+     *
+     * @param handle handle of the property
+     * @param index  grid index
+     * @return property, or null if not set
+     */
+    @SuppressWarnings("unchecked")
+    private TerrainProperty<?> view(final int handle, final int index) {
+        final int value = resourceGrid[handle].get(materialize(handle, index));
+        if (UNSET == value) {
+            return null;
+        }
+        final TerrainProperty<Integer> property = (TerrainProperty<Integer>) TerrainPropertyFactory.createTerrainProperty(handle);
+        property.setValue(value);
+        return property;
+    }
+
+    private int harvest(final int handle, final int index, final int maximum) {
+        final CopyOnWriteGrid grid = resourceGrid[handle];
+        final int value = grid.get(materialize(handle, index));
+        if (UNSET == value) {
+            return 0;
+        }
+        final int taken = Math.min(maximum, value);
+        grid.set(index, value - taken);
+        if (0 < taken) {
+            markChanged(changedResources, index);
+        }
+        return taken;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int harvestProperty(final int handle, final int index, final int maximum) {
+        final TerrainProperty<Integer> property = (TerrainProperty<Integer>) environmentMap[index]
+                .get(TerrainPropertyFactory.getId(handle));
+        if (null == property || null == property.getValue()) {
+            return 0;
+        }
+        final int value = property.getValue();
+        final int taken = Math.min(maximum, value);
+        // property objects are changed in place, so the change is only seen here
+        property.setValue(value - taken);
+        if (0 < taken) {
+            markChanged(changedResources, index);
+        }
+        return taken;
+    }
+
+    private int harvestOpen(final int handle, final int index, final int maximum) {
+        return isOccupied(index) ? 0 : harvest(handle, index, maximum);
+    }
+
+    private void resetChanges() {
+        if (trackChanges) {
+            final int words = ((layout.size() >> (2 * MortonLayout.TILE_BITS)) + 63) >> 6;
+            changedCells = new long[words];
+            changedResources = new long[words];
+        }
+        allCellsChanged = false;
+        allResourcesChanged = false;
+    }
+
+    /**
+     * Record that the tile holding a location has changed
+     *
+     * @param tiles changed tiles
+     * @param index grid index of the location
+     */
+    private void markChanged(final long[] tiles, final int index) {
+        if (trackChanges) {
+            final int tile = MortonLayout.tile(index);
+            final long bit = 1L << tile;
+            // most changes land in a tile that has already changed, which a plain read can tell
+            if (0 == (tiles[tile >> 6] & bit)) {
+                WORDS.getAndBitwiseOr(tiles, tile >> 6, bit);
+            }
+        }
+    }
+
+    private void createEnvironmentMap() {
+        // generic arrays can't be created directly
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        final Map<String, TerrainProperty<?>>[] map = new Map[layout.size()];
+        environmentMap = map;
+        for (int i = 0; i < bounds.xAxis(); ++i) {
+            for (int j = 0; j < bounds.yAxis(); ++j) {
+                environmentMap[layout.index(i, j)] = new HashMap<>();
+            }
+        }
+    }
+
+    private void createOccupancy() {
+        occupancy = new long[(layout.size() + 63) >> 6];
+        cells = new Cell[layout.size()];
+        organisms = new Organism[layout.size()];
+    }
+
+    private boolean isOccupied(final int index) {
+        return 0 != (occupancy[index >> 6] & (1L << index));
+    }
+
+    private int index(final SpatialCoordinates spatialCoordinates) {
+        return layout.index(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
     private void checkCoordinates(final int x, final int y) {
-        if (x >= getSizeOfXAxis() || y >= getSizeOfYAxis()) {
+        // tiles are padded, so an out of bounds coordinate can still land inside the arrays
+        if (0 > x || 0 > y || x >= getSizeOfXAxis() || y >= getSizeOfYAxis()) {
             throw new ArrayIndexOutOfBoundsException("SpatialCoordinates (" + x + "," + y
                     + ") are out of bounds for world size [" + getSizeOfXAxis() + "," + getSizeOfYAxis() + "].");
         }
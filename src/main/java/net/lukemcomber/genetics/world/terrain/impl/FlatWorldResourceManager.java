@@ -57,13 +57,7 @@ public class FlatWorldResourceManager implements ResourceManager {
     public boolean renewDailyEnvironmentResource() {
 
         final Integer dailySolarRefresh = properties.get(DAILY_SOLAR_PROPERTY, Integer.class);
-
-        for (int x = 0; x < terrain.getSizeOfXAxis(); ++x) {
-            for (int y = 0; y < terrain.getSizeOfYAxis(); ++y) {
-                final SpatialCoordinates coord = new SpatialCoordinates(x, y, 0);
-                terrain.setTerrainProperty(coord, new SolarEnergyTerrainProperty(dailySolarRefresh));
-            }
-        }
+        terrain.renewResource(SolarEnergyTerrainProperty.HANDLE, dailySolarRefresh);
         return true;
     }
 
@@ -78,13 +72,10 @@ public class FlatWorldResourceManager implements ResourceManager {
     public boolean renewEnvironmentResourceFromCellDeath(final Organism organism, final Cell cell) {
         final int nutrients = (int) Math.round(Math.log(organism.getMetabolismCost()));
         final SpatialCoordinates coords = cell.getCoordinates();
-        SoilNutrientsTerrainProperty soil = (SoilNutrientsTerrainProperty) terrain.getTerrainProperty(coords, SoilNutrientsTerrainProperty.ID);
-        if (null == soil) {
-            //erm how?
-            soil = new SoilNutrientsTerrainProperty(properties.get(INITIAL_SOIL_PROPERTY, Integer.class));
-        }
-        soil.setValue(soil.getValue() + nutrients);
-        terrain.setTerrainProperty(coords, soil);
+        //erm how would it not be set?
+        final int soil = terrain.getResource(coords, SoilNutrientsTerrainProperty.HANDLE,
+                properties.get(INITIAL_SOIL_PROPERTY, Integer.class));
+        terrain.setResource(coords, SoilNutrientsTerrainProperty.HANDLE, soil + nutrients);
 
         return true;
     }
@@ -99,13 +90,8 @@ public class FlatWorldResourceManager implements ResourceManager {
         final Integer solarEnergy = properties.get(DAILY_SOLAR_PROPERTY, Integer.class);
         final Integer soilEnergy = properties.get(INITIAL_SOIL_PROPERTY, Integer.class);
 
-        for (int x = 0; x < terrain.getSizeOfXAxis(); ++x) {
-            for (int y = 0; y < terrain.getSizeOfYAxis(); ++y) {
-                final SpatialCoordinates coord = new SpatialCoordinates(x, y, 0);
-                terrain.setTerrainProperty(coord, new SolarEnergyTerrainProperty(solarEnergy));
-                terrain.setTerrainProperty(coord, new SoilNutrientsTerrainProperty(soilEnergy));
-            }
-        }
+        terrain.fillResource(SolarEnergyTerrainProperty.HANDLE, solarEnergy);
+        terrain.fillResource(SoilNutrientsTerrainProperty.HANDLE, soilEnergy);
         return true;
     }
 
@@ -0,0 +1,622 @@
+package net.lukemcomber.genetics.world.terrain.impl;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.Cell;
+import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.UniverseConstants;
+import net.lukemcomber.genetics.store.MetadataStoreGroup;
+import net.lukemcomber.genetics.world.ResourceManager;
+import net.lukemcomber.genetics.world.terrain.MortonLayout;
+import net.lukemcomber.genetics.world.terrain.Terrain;
+import net.lukemcomber.genetics.world.terrain.TerrainProperty;
+import net.lukemcomber.genetics.world.terrain.TerrainPropertyFactory;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+import java.util.logging.Logger;
+
+/**
+ * A 2-dimensional implementation of {@link Terrain} whose terrain properties and cell occupancy live in a
+ * memory-mapped file instead of on the heap. The grids are never scanned by the garbage collector, can be
+ * larger than the heap, and the file is an image of the world that other tools can read while it runs.
+ * Only the cells and organisms themselves are kept on the heap, and only for occupied locations.
+ * <p>
+ * The file is written little-endian, locations are in the order of {@link MortonLayout}:
+ * <ul>
+ *     <li>a header of {@link #HEADER_BYTES}: {@link #MAGIC}, {@link #VERSION}, width, height, tile bits,
+ *     handle count, then the offsets of the occupancy bitmap and the first property grid as longs</li>
+ *     <li>the occupancy bitmap, one bit per location, in 64-bit words</li>
+ *     <li>one grid of 32-bit values per property handle, stored with their sign bit flipped so that
+ *     a zeroed file reads as every property unset</li>
+ * </ul>
+ * Terrain properties are stored as primitives, so {@link TerrainProperty} objects returned are copies, and
+ * changes are saved by setting them back. The mapping cannot be deep copied, so this terrain does not
+ * support speculative or rewindable ecosystems.
+ * <p>
+ * A configured file is suffixed with the id of the ecosystem the terrain belongs to, since islands and
+ * epochs run side by side and truncating a file another terrain has mapped crashes the JVM. A temporary
+ * file is deleted when the terrain is {@link #release() released}.
+ */
+public class MappedWorld extends Terrain {
+
+    private static final Logger logger = Logger.getLogger(MappedWorld.class.getName());
+
+    public static final String ID = "MAPPED_WORLD";
+    public static final String PROPERTY_FILE = "terrain.mapped.file";
+
+    public static final int MAGIC = 0x43544E47;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 64;
+
+    /*
+     * a single mapping is limited to 2GB, so the file is mapped in segments. Values are aligned to their
+     * size and never straddle two segments.
+     */
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    /*
+     * marks a property that is not set
+     */
+    private static final int UNSET = Integer.MIN_VALUE;
+
+    /*
+     * occupancy words are shared by neighbouring locations, which may be ticked on different threads
+     */
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * What is at an occupied location
+     *
+     * @param cell     the cell
+     * @param organism the cell's organism
+     */
+    private record Occupant(Cell cell, Organism organism) {
+    }
+
+    private final ResourceManager resourceManager;
+    private final MortonLayout layout;
+    private final Path path;
+    private final boolean temporary;
+    private MappedByteBuffer[] segments;
+    private final long occupancyOffset;
+    private final long gridOffset;
+    private final long gridBytes;
+    private final Map<Integer, Occupant> occupants;
+
+    /**
+     * Create a new instance from the given configuration properties and a metadata store group. The file
+     * named by {@link #PROPERTY_FILE} is overwritten; without one, a temporary file is used.
+     *
+     * @param spatialBounds size of environment
+     * @param constants     configuration propertied
+     * @param store         metadata store group
+     */
+    public MappedWorld(final SpatialCoordinates spatialBounds, final UniverseConstants constants, final MetadataStoreGroup store) {
+        this(spatialBounds, constants, store, null);
+    }
+
+    /**
+     * Create a new instance for an ecosystem. The file named by {@link #PROPERTY_FILE}, suffixed with the
+     * owner, is overwritten; without one, a temporary file is used.
+     *
+     * @param spatialBounds size of environment
+     * @param constants     configuration propertied
+     * @param store         metadata store group
+     * @param owner         id of the ecosystem the terrain belongs to, or null to use the file as named
+     */
+    public MappedWorld(final SpatialCoordinates spatialBounds, final UniverseConstants constants,
+                       final MetadataStoreGroup store, final String owner) {
+        super(spatialBounds, constants, store);
+        resourceManager = new FlatWorldResourceManager(this, constants);
+        layout = new MortonLayout(spatialBounds.xAxis(), spatialBounds.yAxis());
+        occupants = new ConcurrentHashMap<>();
+
+        occupancyOffset = HEADER_BYTES;
+        gridOffset = occupancyOffset + 8L * ((layout.size() + 63) >> 6);
+        gridBytes = 4L * layout.size();
+        final long fileBytes = gridOffset + gridBytes * TerrainPropertyFactory.HANDLE_COUNT;
+
+        final String file = constants.get(PROPERTY_FILE, String.class, "");
+        temporary = StringUtils.isBlank(file);
+        path = temporary ? createTempPath() : Path.of(withOwner(file, owner));
+        segments = new MappedByteBuffer[(int) ((fileBytes + SEGMENT_MASK) >> SEGMENT_BITS)];
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < segments.length; ++i) {
+                final long position = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(fileBytes - position, 1L << SEGMENT_BITS));
+                segments[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (final IOException e) {
+            throw new EvolutionException("Failed to map terrain file " + path + ": " + e.getMessage());
+        }
+        writeHeader(spatialBounds);
+        logger.info(String.format("World %s initialized to (%d,%d,%d) in %s.", ID, spatialBounds.xAxis(), spatialBounds.yAxis(),
+                spatialBounds.zAxis(), path));
+    }
+
+    /**
+     * Add the owner to a file name, before its extension
+     *
+     * @param file  file name
+     * @param owner owner id, or null
+     * @return file name
+     */
+    private static String withOwner(final String file, final String owner) {
+        if (StringUtils.isBlank(owner)) {
+            return file;
+        }
+        final int extension = file.lastIndexOf('.');
+        return extension > file.lastIndexOf(File.separatorChar)
+                ? file.substring(0, extension) + "-" + owner + file.substring(extension)
+                : file + "-" + owner;
+    }
+
+    private static Path createTempPath() {
+        try {
+            final File tmp = File.createTempFile("terrain", ".map");
+            tmp.deleteOnExit();
+            return tmp.toPath();
+        } catch (final IOException e) {
+            throw new EvolutionException("Failed to create terrain file: " + e.getMessage());
+        }
+    }
+
+    private void writeHeader(final SpatialCoordinates spatialBounds) {
+        final MappedByteBuffer header = segments[0];
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, spatialBounds.xAxis());
+        header.putInt(12, spatialBounds.yAxis());
+        header.putInt(16, MortonLayout.TILE_BITS);
+        header.putInt(20, TerrainPropertyFactory.HANDLE_COUNT);
+        header.putLong(24, occupancyOffset);
+        header.putLong(32, gridOffset);
+    }
+
+    @Override
+    public void clear() {
+        // the zeroed file reads as empty with every property unset
+        final long end = gridOffset + gridBytes * TerrainPropertyFactory.HANDLE_COUNT;
+        for (long position = occupancyOffset; position < end; position += 8) {
+            segment(position).putLong(offset(position), 0);
+        }
+        occupants.clear();
+        markModified();
+    }
+
+    /**
+     * Drop the mapping and delete the file if it is temporary. The file is unmapped once the mapping is
+     * garbage collected; until then the space of a deleted file stays in use.
+     */
+    @Override
+    public void release() {
+        occupants.clear();
+        segments = null;
+        markModified();
+        if (temporary) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (final IOException e) {
+                logger.warning("Failed to delete terrain file " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the file the terrain is mapped from
+     *
+     * @return path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Write any changes to the mapped file through to storage
+     */
+    public void force() {
+        for (final MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Sets the {@link TerrainProperty} at the {@link SpatialCoordinates}
+     *
+     * @param spatialCoordinates location
+     * @param terrainProperty    the terrain property to set
+     */
+    @Override
+    @SuppressWarnings("rawtypes") // the signature is fixed by Terrain
+    public void setTerrainProperty(final SpatialCoordinates spatialCoordinates, final TerrainProperty terrainProperty) {
+        if (0 == spatialCoordinates.zAxis()) {
+            //we are flat, ignore anything above the z axis
+            final Object value = terrainProperty.getValue();
+            store(TerrainPropertyFactory.getHandle(terrainProperty.getId()), index(spatialCoordinates), null == value ? UNSET : (Integer) value);
+            markModified();
+        }
+    }
+
+    /**
+     * Gets a copy of the {@link TerrainProperty} at the given {@link SpatialCoordinates}
+     *
+     * @param spatialCoordinates location
+     * @param id                 the id of the property to return
+     * @return property, or null if not set
+     */
+    @Override
+    public TerrainProperty<?> getTerrainProperty(final SpatialCoordinates spatialCoordinates, final String id) {
+        final int handle = TerrainPropertyFactory.getHandle(id);
+        return view(handle, load(handle, index(spatialCoordinates)));
+    }
+
+    /**
+     * Delete the respective property from the location
+     *
+     * @param spatialCoordinates location
+     * @param id                 the id of the property to delete
+     */
+    @Override
+    public void deleteTerrainProperty(final SpatialCoordinates spatialCoordinates, final String id) {
+        store(TerrainPropertyFactory.getHandle(id), index(spatialCoordinates), UNSET);
+        markModified();
+    }
+
+    /**
+     * Get copies of all the {@link TerrainProperty} at a specific location
+     *
+     * @param spatialCoordinates location
+     * @return list of properties
+     */
+    @Override
+    @SuppressWarnings("rawtypes") // the signature is fixed by Terrain
+    public List<TerrainProperty> getTerrainProperties(final SpatialCoordinates spatialCoordinates) {
+        final List<TerrainProperty> retVal = new ArrayList<>();
+        final int index = index(spatialCoordinates);
+        for (int handle = 0; handle < TerrainPropertyFactory.HANDLE_COUNT; ++handle) {
+            final TerrainProperty<?> property = view(handle, load(handle, index));
+            if (null != property) {
+                retVal.add(property);
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * Get the value of an integer terrain property by its handle
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param defaultValue       value to return if the property is not set
+     * @return value of the property
+     */
+    @Override
+    public int getResource(final SpatialCoordinates spatialCoordinates, final int handle, final int defaultValue) {
+        final int value = load(handle, index(spatialCoordinates));
+        return UNSET == value ? defaultValue : value;
+    }
+
+    /**
+     * Set the value of an integer terrain property by its handle
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param value              value to set
+     */
+    @Override
+    public void setResource(final SpatialCoordinates spatialCoordinates, final int handle, final int value) {
+        if (0 == spatialCoordinates.zAxis()) {
+            store(handle, index(spatialCoordinates), value);
+            markModified();
+        }
+    }
+
+    /**
+     * Take up to a maximum amount from an integer terrain property
+     *
+     * @param spatialCoordinates location
+     * @param handle             handle of the property
+     * @param maximum            most to take
+     * @return amount taken, 0 if the property is not set
+     */
+    @Override
+    public int harvestResource(final SpatialCoordinates spatialCoordinates, final int handle, final int maximum) {
+        return harvestResource(spatialCoordinates.xAxis(), spatialCoordinates.yAxis(), handle, maximum);
+    }
+
+    /**
+     * Take up to a maximum amount from an integer terrain property at a location on the ground
+     *
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param handle  handle of the property
+     * @param maximum most to take
+     * @return amount taken, 0 if the property is not set
+     */
+    @Override
+    public int harvestResource(final int x, final int y, final int handle, final int maximum) {
+        checkCoordinates(x, y);
+        final int index = layout.index(x, y);
+        final int value = load(handle, index);
+        if (UNSET == value) {
+            return 0;
+        }
+        final int taken = Math.min(maximum, value);
+        store(handle, index, value - taken);
+        return taken;
+    }
+
+    /**
+     * Set an integer terrain property to the same value over a rectangular region
+     *
+     * @param handle handle of the property
+     * @param value  value to set
+     * @param minX   first x coordinate of the region
+     * @param minY   first y coordinate of the region
+     * @param maxX   x coordinate just past the region
+     * @param maxY   y coordinate just past the region
+     */
+    @Override
+    public void fillResource(final int handle, final int value, final int minX, final int minY, final int maxX, final int maxY) {
+        if (0 >= minX && 0 >= minY && maxX >= getSizeOfXAxis() && maxY >= getSizeOfYAxis()) {
+            // padding outside the world is never read, so the whole grid can be filled in file order
+            for (int index = 0; index < layout.size(); ++index) {
+                store(handle, index, value);
+            }
+        } else {
+            for (int y = Math.max(0, minY); y < Math.min(maxY, getSizeOfYAxis()); ++y) {
+                for (int x = Math.max(0, minX); x < Math.min(maxX, getSizeOfXAxis()); ++x) {
+                    store(handle, layout.index(x, y), value);
+                }
+            }
+        }
+        markModified();
+    }
+
+    /**
+     * Replace the value of an integer terrain property everywhere with a function of its current value
+     *
+     * @param handle       handle of the property
+     * @param defaultValue value passed to the function where the property is not set
+     * @param function     computes the new value from the current one
+     */
+    @Override
+    public void updateResource(final int handle, final int defaultValue, final IntUnaryOperator function) {
+        for (int index = 0; index < layout.size(); ++index) {
+            final int value = load(handle, index);
+            store(handle, index, function.applyAsInt(UNSET == value ? defaultValue : value));
+        }
+        markModified();
+    }
+
+    /**
+     * Get the organism that has a cell at the given coordinate
+     *
+     * @param spatialCoordinates location
+     * @return an organism or null if one does not exist
+     */
+    @Override
+    public Organism getOrganism(final SpatialCoordinates spatialCoordinates) {
+        return getOrganism(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    /**
+     * Get the organism that has a cell at the given location
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return an organism or null if one does not exist
+     */
+    @Override
+    public Organism getOrganism(final int x, final int y) {
+        final Occupant occupant = getOccupant(x, y);
+        return null == occupant ? null : occupant.organism();
+    }
+
+    /**
+     * Initialize the terrain to the given dimensions
+     *
+     * @param x width
+     * @param y height
+     * @param z depth
+     */
+    @Override
+    public void initialize(int x, int y, int z) {
+    }
+
+    /**
+     * Returns true if there is an organism at the given coordinates
+     *
+     * @return true if an organism exists at the location
+     */
+    @Override
+    public boolean hasCell(final SpatialCoordinates spatialCoordinates) {
+        return hasCell(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    /**
+     * Returns true if there is a cell at the given location
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return true if a cell exists at the location
+     */
+    @Override
+    public boolean hasCell(final int x, final int y) {
+        checkCoordinates(x, y);
+        return isOccupied(layout.index(x, y));
+    }
+
+    /**
+     * Attempt to add a cell to the terrain. If there is already a cell at the same position,
+     * nothing is changed and false is returned.
+     *
+     * @param cell     the cell to attempt to place
+     * @param organism cell's organism
+     * @return true if set
+     */
+    @Override
+    public boolean setCell(final Cell cell, final Organism organism) {
+        final int index = index(cell.getCoordinates());
+        if (isOccupied(index)) {
+            return false;
+        }
+        occupants.put(index, new Occupant(cell, organism));
+        final long position = wordPosition(index);
+        WORDS.getAndBitwiseOr(segment(position), offset(position), 1L << index);
+        markModified();
+        return true;
+    }
+
+    /**
+     * Delete the cell at the given coordinates
+     *
+     * @param spatialCoordinates location
+     * @param id                 id of the organism the cell belongs to
+     * @return true if cell is deleted
+     */
+    @Override
+    public boolean deleteCell(final SpatialCoordinates spatialCoordinates, final String id) {
+        final int index = index(spatialCoordinates);
+        final Occupant occupant = isOccupied(index) ? occupants.get(index) : null;
+        if (null != occupant && occupant.organism().getUniqueID().equals(id)) {
+            final long position = wordPosition(index);
+            WORDS.getAndBitwiseAnd(segment(position), offset(position), ~(1L << index));
+            occupants.remove(index);
+            markModified();
+        } else {
+            throw new RuntimeException("CRITICAL: Terrain has become corrupted!!");
+        }
+        return true;
+    }
+
+    /**
+     * Get the cell at the given coordinates
+     *
+     * @param spatialCoordinates location
+     * @return cell or null if one does not exist
+     */
+    @Override
+    public Cell getCell(final SpatialCoordinates spatialCoordinates) {
+        return getCell(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    /**
+     * Get the cell at the given location
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return cell or null if one does not exist
+     */
+    @Override
+    public Cell getCell(final int x, final int y) {
+        final Occupant occupant = getOccupant(x, y);
+        return null == occupant ? null : occupant.cell();
+    }
+
+    /**
+     * Get the resource manager
+     *
+     * @return resource manager
+     */
+    @Override
+    public ResourceManager getResourceManager() {
+        return resourceManager;
+    }
+
+    /**
+     * Check if spatial coordinates are out of bounds. The z-axis is ignored because the world is flat.
+     *
+     * @param spatialCoordinates location
+     * @return true if the coordinates are out of bounds
+     */
+    @Override
+    public boolean isOutOfBounds(final SpatialCoordinates spatialCoordinates) {
+        return isOutOfBounds(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    private Occupant getOccupant(final int x, final int y) {
+        checkCoordinates(x, y);
+        final int index = layout.index(x, y);
+        return isOccupied(index) ? occupants.get(index) : null;
+    }
+
+    private boolean isOccupied(final int index) {
+        final long position = wordPosition(index);
+        return 0 != (segment(position).getLong(offset(position)) & (1L << index));
+    }
+
+    private int load(final int handle, final int index) {
+        final long position = gridOffset + handle * gridBytes + 4L * index;
+        return segment(position).getInt(offset(position)) ^ UNSET;
+    }
+
+    private void store(final int handle, final int index, final int value) {
+        final long position = gridOffset + handle * gridBytes + 4L * index;
+        segment(position).putInt(offset(position), value ^ UNSET);
+    }
+
+    /**
+     * Copy a property value out as a {@link TerrainProperty}
+     *
+     * @param handle handle of the property
+     * @param value  stored value
+     * @return property, or null if not set
+     */
+    @SuppressWarnings("unchecked")
+    private TerrainProperty<?> view(final int handle, final int value) {
+        if (UNSET == value) {
+            return null;
+        }
+        final TerrainProperty<Integer> property = (TerrainProperty<Integer>) TerrainPropertyFactory.createTerrainProperty(handle);
+        property.setValue(value);
+        return property;
+    }
+
+    private long wordPosition(final int index) {
+        return occupancyOffset + 8L * (index >> 6);
+    }
+
+    private MappedByteBuffer segment(final long position) {
+        return segments[(int) (position >> SEGMENT_BITS)];
+    }
+
+    private static int offset(final long position) {
+        return (int) (position & SEGMENT_MASK);
+    }
+
+    private int index(final SpatialCoordinates spatialCoordinates) {
+        checkCoordinates(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+        return layout.index(spatialCoordinates.xAxis(), spatialCoordinates.yAxis());
+    }
+
+    private void checkCoordinates(final int x, final int y) {
+        // tiles are padded, so an out of bounds coordinate can still land inside the file
+        if (0 > x || 0 > y || x >= getSizeOfXAxis() || y >= getSizeOfYAxis()) {
+            throw new ArrayIndexOutOfBoundsException("SpatialCoordinates (" + x + "," + y
+                    + ") are out of bounds for world size [" + getSizeOfXAxis() + "," + getSizeOfYAxis() + "].");
+        }
+    }
+}
@@ -13,6 +13,7 @@ import net.lukemcomber.genetics.world.terrain.TerrainProperty;
 public class RadioactiveTerrainProperty implements TerrainProperty<Integer> {
 
     public static final String ID = "RADIOACTIVE";
+    public static final int HANDLE = 3;
     private Integer value;
 
     /**
@@ -13,6 +13,7 @@ import net.lukemcomber.genetics.world.terrain.TerrainProperty;
 public class SoilNutrientsTerrainProperty implements TerrainProperty<Integer> {
 
     public static final String ID = "SOIL_NUTRIENTS";
+    public static final int HANDLE = 1;
     private Integer value;
 
     /**
@@ -13,6 +13,7 @@ import net.lukemcomber.genetics.world.terrain.TerrainProperty;
 public class SoilToxicityTerrainProperty implements TerrainProperty<Integer> {
 
     public static final String ID = "SOIL_TOXICITY";
+    public static final int HANDLE = 2;
     private Integer value;
 
     /**
@@ -13,6 +13,7 @@ import net.lukemcomber.genetics.world.terrain.TerrainProperty;
 public class SolarEnergyTerrainProperty implements TerrainProperty<Integer> {
 
     public static final String ID = "SOLAR_ENERGY";
+    public static final int HANDLE = 0;
     private Integer value;
 
     /**
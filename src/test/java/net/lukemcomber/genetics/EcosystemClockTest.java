@@ -0,0 +1,59 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.model.TemporalCoordinates;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+@Test
+public class EcosystemClockTest {
+
+    public void testSingleTicksRollOverDays() {
+        final EcosystemClock clock = new EcosystemClock(10);
+
+        for (int i = 0; i < 9; ++i) {
+            clock.advance(1);
+        }
+        assertEquals(clock.now(), new TemporalCoordinates(9, 0, 9));
+
+        clock.advance(1);
+        assertEquals(clock.now(), new TemporalCoordinates(10, 1, 0));
+    }
+
+    public void testMultiDayStep() {
+        final EcosystemClock clock = new EcosystemClock(10);
+        clock.advance(3);
+
+        final TemporalCoordinates time = clock.advance(25);
+        assertEquals(time, new TemporalCoordinates(28, 2, 8));
+        assertEquals(clock.now(), time);
+    }
+
+    public void testStepMatchesSingleTicks() {
+        final EcosystemClock stepped = new EcosystemClock(7);
+        final EcosystemClock ticked = new EcosystemClock(7);
+
+        stepped.advance(100);
+        for (int i = 0; i < 100; ++i) {
+            ticked.advance(1);
+        }
+        assertEquals(stepped.now(), ticked.now());
+    }
+
+    public void testSettersOnlyChangeOneField() {
+        final EcosystemClock clock = new EcosystemClock(10);
+        clock.advance(12);
+
+        clock.setTotalTicks(50);
+        assertEquals(clock.now(), new TemporalCoordinates(50, 1, 2));
+        clock.setTotalDays(4);
+        assertEquals(clock.now(), new TemporalCoordinates(50, 4, 2));
+        clock.setCurrentTick(7);
+        assertEquals(clock.now(), new TemporalCoordinates(50, 4, 7));
+    }
+}
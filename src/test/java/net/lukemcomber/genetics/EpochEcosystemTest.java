@@ -0,0 +1,50 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.ecosystem.impl.EpochEcosystemConfiguration;
+import net.lukemcomber.genetics.store.MetadataStore;
+import net.lukemcomber.genetics.store.MetadataStoreFactory;
+import net.lukemcomber.genetics.store.metadata.Performance;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.*;
+
+@Test
+public class EpochEcosystemTest {
+
+    public void testCleanUpHookSeesEveryRecord() throws Exception {
+        final EpochEcosystem ecosystem = new EpochEcosystem(new TestUniverse(SeededWorld.properties()),
+                EpochEcosystemConfiguration.builder()
+                        .name("epoch")
+                        .size(new SpatialCoordinates(SeededWorld.WIDTH, SeededWorld.HEIGHT, 0))
+                        .ticksPerDay(10)
+                        .maxDays(5)
+                        .startOrganisms(SeededWorld.population())
+                        .build());
+        final AtomicLong organisms = new AtomicLong(-1);
+        final AtomicLong recorded = new AtomicLong(-1);
+        ecosystem.setQuiet(true);
+        ecosystem.initialize(() -> {
+            organisms.set(ecosystem.getTerrain().getTotalOrganismCount());
+            final MetadataStore<Performance> store = MetadataStoreFactory.getMetadataStore(ecosystem.getId(),
+                    ecosystem.getProperties()).get(Performance.class);
+            // an organism that hits several limits at once is recorded once for each
+            recorded.set(store.page(0, (int) store.count()).stream().map(Performance::getName).distinct().count());
+            return null;
+        });
+
+        ecosystem.getCompletion().get(1, TimeUnit.MINUTES);
+
+        // every organism, including those killed when time ran out, stored its performance before the hook ran
+        assertTrue(0 < organisms.get());
+        assertEquals(recorded.get(), organisms.get());
+    }
+}
@@ -0,0 +1,62 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import com.google.common.collect.ImmutableMap;
+import net.lukemcomber.genetics.biology.plant.GrowthIntent;
+import net.lukemcomber.genetics.biology.plant.behavior.GrowLeaf;
+import net.lukemcomber.genetics.biology.plant.behavior.GrowRoot;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.world.terrain.impl.FlatWorld;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.testng.Assert.assertEquals;
+
+@Test
+public class IntentOrganismTickerTest {
+
+    private String run(final Map<SpatialCoordinates, String> population, final int turns, final Object... overrides) throws IOException {
+        final SteppableEcosystem ecosystem = SeededWorld.create("intent", SeededWorld.properties(overrides), population);
+        for (int i = 0; i < turns; ++i) {
+            ecosystem.advance();
+        }
+        return SeededWorld.fingerprint(ecosystem);
+    }
+
+    public void testIntentRunMatchesSerialRunWithoutCollisions() throws IOException {
+        final Map<SpatialCoordinates, String> population = SeededWorld.sparsePopulation();
+
+        assertEquals(run(population, 15, Ecosystem.PROPERTY_TICK_MODE, Ecosystem.TickMode.INTENT.name()),
+                run(population, 15));
+    }
+
+    public void testCollisionResolutionDoesNotDependOnParallelism() throws IOException {
+        final String single = run(SeededWorld.population(), 100, Ecosystem.PROPERTY_TICK_MODE, Ecosystem.TickMode.INTENT.name(),
+                Ecosystem.PROPERTY_TICK_PARALLELISM, 1);
+        final String pooled = run(SeededWorld.population(), 100, Ecosystem.PROPERTY_TICK_MODE, Ecosystem.TickMode.INTENT.name(),
+                Ecosystem.PROPERTY_TICK_PARALLELISM, 4);
+
+        assertEquals(pooled, single);
+    }
+
+    public void testFirstClaimInPopulationOrderWins() {
+        final FlatWorld terrain = new FlatWorld(new SpatialCoordinates(10, 10, 1), new TestUniverse(ImmutableMap.of()), null);
+        final SpatialCoordinates contested = new SpatialCoordinates(4, 4, 0);
+        final GrowthIntent first = new GrowthIntent(null, null, new GrowLeaf(Function.identity()), contested);
+        final GrowthIntent second = new GrowthIntent(null, null, new GrowRoot(Function.identity()), contested);
+        final GrowthIntent free = new GrowthIntent(null, null, null, new SpatialCoordinates(5, 4, 0));
+        final GrowthIntent outside = new GrowthIntent(null, null, null, new SpatialCoordinates(10, 4, 0));
+
+        assertEquals(IntentOrganismTicker.resolve(terrain, List.of(List.of(first), List.of(second, free, outside)), false),
+                Set.of(first, free));
+        assertEquals(IntentOrganismTicker.resolve(terrain, List.of(List.of(second, free, outside), List.of(first)), false),
+                Set.of(second, free));
+    }
+}
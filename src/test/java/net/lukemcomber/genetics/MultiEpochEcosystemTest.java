@@ -0,0 +1,117 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.ecosystem.impl.MultiEpochConfiguration;
+import net.lukemcomber.genetics.store.MetadataStoreFactory;
+import net.lukemcomber.genetics.store.metadata.Performance;
+import net.lukemcomber.genetics.utilities.SharedScheduler;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.testng.Assert.*;
+
+@Test
+public class MultiEpochEcosystemTest {
+
+    private static final int MIGRATION_SIZE = 3;
+
+    private MultiEpochConfiguration configuration(final String name, final int epochs) {
+        return MultiEpochConfiguration.builder()
+                .name(name)
+                .size(new SpatialCoordinates(SeededWorld.WIDTH, SeededWorld.HEIGHT, 0))
+                .epochs(epochs)
+                .initialPopulation(60)
+                .maxDays(8)
+                .ticksPerDay(10)
+                .reusePopulation(10)
+                .islands(2)
+                .migrationInterval(1)
+                .migrationSize(MIGRATION_SIZE)
+                .migrationTopology(MultiEpochConfiguration.MigrationTopology.RING)
+                .deleteFilterOnExit(true)
+                .build();
+    }
+
+    private void runToCompletion(final MultiEpochEcosystem ecosystem) throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        ecosystem.initialize(() -> {
+            done.countDown();
+            return null;
+        });
+        assertTrue(done.await(2, TimeUnit.MINUTES), "Simulation did not finish.");
+        // the hook runs before the simulation completes
+        ecosystem.getCompletion().exceptionally(e -> null).get(1, TimeUnit.MINUTES);
+    }
+
+    private static List<String> fittest(final EpochEcosystem ecosystem, final int count) {
+        try {
+            final List<String> retVal = new ArrayList<>(count);
+            MetadataStoreFactory.getMetadataStore(ecosystem.getId(), ecosystem.getProperties()).get(Performance.class)
+                    .page(0, count).forEach(performance -> retVal.add(performance.getDna()));
+            return retVal;
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void testMigrationMovesGenomesBetweenIslands() throws Exception {
+        final Map<String, List<String>> emigrants = new ConcurrentHashMap<>();
+        final Map<String, Collection<String>> populations = new ConcurrentHashMap<>();
+        final Consumer<EpochEcosystem> onStart = epoch -> populations.put(epoch.getName(), epoch.getInitialPopulation().values());
+        final Consumer<EpochEcosystem> onEnd = epoch -> emigrants.put(epoch.getName(), fittest(epoch, MIGRATION_SIZE));
+
+        runToCompletion(new MultiEpochEcosystem(new TestUniverse(SeededWorld.properties()),
+                configuration("migration", 2), onStart, onEnd));
+
+        // in a ring of two, each island receives the other's fittest genomes
+        for (int island = 0; island < 2; ++island) {
+            final List<String> sent = emigrants.get("migration-Island-" + island + "-Epoch-0");
+            final Collection<String> received = populations.get("migration-Island-" + (1 - island) + "-Epoch-1");
+            assertFalse(sent.isEmpty());
+            assertTrue(received.containsAll(sent), "Island " + island + " migrants did not arrive.");
+        }
+    }
+
+    public void testSharedExecutionCompletes() throws Exception {
+        final MultiEpochEcosystem ecosystem = new MultiEpochEcosystem(new TestUniverse(SeededWorld.properties(
+                SharedScheduler.PROPERTY_EXECUTION_MODE, SharedScheduler.MODE_SHARED)), configuration("shared", 2));
+
+        runToCompletion(ecosystem);
+
+        assertEquals(ecosystem.getEpochs().size(), 4);
+        assertTrue(ecosystem.getCompletion().isDone());
+        assertFalse(ecosystem.getCompletion().isCompletedExceptionally());
+    }
+
+    public void testSharedExecutionFailureStillCleansUp() throws Exception {
+        for (final int failingEpoch : new int[]{0, 1}) {
+            final Consumer<EpochEcosystem> onStart = epoch -> {
+                if (epoch.getName().endsWith("-Epoch-" + failingEpoch)) {
+                    throw new IllegalStateException("Epoch " + failingEpoch + " failed.");
+                }
+            };
+            final MultiEpochEcosystem ecosystem = new MultiEpochEcosystem(new TestUniverse(SeededWorld.properties(
+                    SharedScheduler.PROPERTY_EXECUTION_MODE, SharedScheduler.MODE_SHARED)),
+                    configuration("failing", 2), onStart, null);
+
+            runToCompletion(ecosystem);
+
+            assertTrue(ecosystem.getCompletion().isCompletedExceptionally());
+            final ExecutionException failure = expectThrows(ExecutionException.class, () -> ecosystem.getCompletion().get());
+            assertTrue(failure.getCause() instanceof IllegalStateException
+                    || failure.getCause().getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.Cell;
+import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.io.CellHelper;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.ecosystem.impl.SteppableEcosystemConfiguration;
+import net.lukemcomber.genetics.store.MetadataStore;
+import net.lukemcomber.genetics.store.impl.MetadataStorage;
+import net.lukemcomber.genetics.store.metadata.Environment;
+import net.lukemcomber.genetics.store.metadata.Performance;
+import net.lukemcomber.genetics.universes.FlatFloraUniverse;
+import net.lukemcomber.genetics.utilities.RandomGenomeCreator;
+import net.lukemcomber.genetics.utilities.RandomStreams;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * A small flora world with a fixed starting population and master seed, for tests that compare runs
+ */
+public class SeededWorld {
+
+    public static final int WIDTH = 90;
+    public static final int HEIGHT = 60;
+    public static final int ORGANISMS = 150;
+    public static final int MASTER_SEED = 7;
+
+    /**
+     * Get the flora universe properties with metadata export off and the master seed set
+     *
+     * @param overrides alternating property names and values to add
+     * @return modifiable properties
+     */
+    public static Map<String, Object> properties(final Object... overrides) {
+        final Map<String, Object> retVal = new HashMap<>();
+        new FlatFloraUniverse().toMap().forEach((key, value) -> retVal.put(key, parse(value)));
+        retVal.put(RandomStreams.PROPERTY_MASTER_SEED, MASTER_SEED);
+        retVal.put(MetadataStore.METADATA_EXPORT, false);
+        retVal.put(MetadataStorage.PROPERTY_METADATA_EXPORT_TEMPLATE.formatted(Performance.class.getSimpleName()), false);
+        retVal.put(MetadataStorage.PROPERTY_METADATA_EXPORT_TEMPLATE.formatted(Environment.class.getSimpleName()), false);
+        for (int i = 0; i + 1 < overrides.length; i += 2) {
+            retVal.put((String) overrides[i], overrides[i + 1]);
+        }
+        return retVal;
+    }
+
+    /**
+     * Get the starting population, the same for every call
+     *
+     * @return genomes by location
+     */
+    public static Map<SpatialCoordinates, String> population() {
+        final RandomGenomeCreator creator = new RandomGenomeCreator(new HashSet<>(), 42L);
+        final Map<SpatialCoordinates, String> retVal = new TreeMap<>(Comparator.comparing(SpatialCoordinates::toString));
+        retVal.putAll(creator.generateRandomLocations(WIDTH, HEIGHT, creator.generateRandomGenomes("PLANT", ORGANISMS), null));
+        return retVal;
+    }
+
+    /**
+     * Get a population of four organisms too far apart to reach one another within a few turns
+     *
+     * @return genomes by location
+     */
+    public static Map<SpatialCoordinates, String> sparsePopulation() {
+        final RandomGenomeCreator creator = new RandomGenomeCreator(new HashSet<>(), 42L);
+        final Iterator<String> genomes = creator.generateRandomGenomes("PLANT", 4).iterator();
+        final Map<SpatialCoordinates, String> retVal = new TreeMap<>(Comparator.comparing(SpatialCoordinates::toString));
+        for (final SpatialCoordinates coordinates : List.of(new SpatialCoordinates(10, 10, 0), new SpatialCoordinates(70, 10, 0),
+                new SpatialCoordinates(10, 45, 0), new SpatialCoordinates(70, 45, 0))) {
+            retVal.put(coordinates, genomes.next());
+        }
+        return retVal;
+    }
+
+    /**
+     * Create an initialized ecosystem with the starting population that advances one tick per turn
+     *
+     * @param name       ecosystem name
+     * @param properties configuration properties
+     * @return ecosystem
+     * @throws IOException if the metadata store can not be created
+     */
+    public static SteppableEcosystem create(final String name, final Map<String, Object> properties) throws IOException {
+        return create(name, properties, population());
+    }
+
+    /**
+     * Create an initialized ecosystem that advances one tick per turn
+     *
+     * @param name       ecosystem name
+     * @param properties configuration properties
+     * @param population genomes by location
+     * @return ecosystem
+     * @throws IOException if the metadata store can not be created
+     */
+    public static SteppableEcosystem create(final String name, final Map<String, Object> properties,
+                                            final Map<SpatialCoordinates, String> population) throws IOException {
+        return create(name, properties, population, 1);
+    }
+
+    /**
+     * Create an initialized ecosystem
+     *
+     * @param name         ecosystem name
+     * @param properties   configuration properties
+     * @param population   genomes by location
+     * @param ticksPerTurn ticks advanced per turn
+     * @return ecosystem
+     * @throws IOException if the metadata store can not be created
+     */
+    public static SteppableEcosystem create(final String name, final Map<String, Object> properties,
+                                            final Map<SpatialCoordinates, String> population,
+                                            final int ticksPerTurn) throws IOException {
+        final SteppableEcosystem retVal = new SteppableEcosystem(new TestUniverse(properties),
+                SteppableEcosystemConfiguration.builder()
+                        .ticksPerDay(10)
+                        .ticksPerTurn(ticksPerTurn)
+                        .size(new SpatialCoordinates(WIDTH, HEIGHT, 0))
+                        .name(name)
+                        .startOrganisms(population)
+                        .build());
+        retVal.setQuiet(true);
+        retVal.initialize(null);
+        return retVal;
+    }
+
+    /**
+     * Digest every living cell, its organism, and the organism's energy, independent of population order
+     *
+     * @param ecosystem ecosystem to digest
+     * @return digest
+     */
+    public static String fingerprint(final Ecosystem ecosystem) {
+        final List<String> cells = new ArrayList<>();
+        for (final Iterator<Organism> it = ecosystem.getTerrain().getOrganisms(); it.hasNext(); ) {
+            final Organism organism = it.next();
+            for (final Cell cell : CellHelper.getAllOrganismsCells(organism.getFirstCell())) {
+                cells.add(organism.getUniqueID() + " " + organism.getEnergy() + " " + cell.getCellType() + " "
+                        + cell.getCoordinates());
+            }
+        }
+        Collections.sort(cells);
+        return ecosystem.getTerrain().getTotalOrganismCount() + ":" + DigestUtils.sha1Hex(String.join("\n", cells));
+    }
+
+    private static Object parse(final String value) {
+        if (value.matches("-?\\d+")) {
+            return Integer.valueOf(value);
+        }
+        if ("true".equals(value) || "false".equals(value)) {
+            return Boolean.valueOf(value);
+        }
+        return value;
+    }
+}
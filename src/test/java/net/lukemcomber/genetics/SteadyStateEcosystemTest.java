@@ -0,0 +1,107 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.UniverseConstants;
+import net.lukemcomber.genetics.model.ecosystem.impl.SteadyStateConfiguration;
+import net.lukemcomber.genetics.store.MetadataStore;
+import net.lukemcomber.genetics.store.metadata.Performance;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+@Test
+public class SteadyStateEcosystemTest {
+
+    private static final int ELITE_SIZE = 5;
+
+    /**
+     * Records every organism injected after a tick along with the elite it was bred from
+     */
+    private static class RecordingEcosystem extends SteadyStateEcosystem {
+
+        private final List<String> injections = new ArrayList<>();
+        private int fromElite;
+        private int notFromElite;
+
+        RecordingEcosystem(final UniverseConstants universe, final SteadyStateConfiguration configuration) throws IOException {
+            super(universe, configuration);
+        }
+
+        @Override
+        protected void afterTick() {
+            final Set<String> before = new HashSet<>();
+            getTerrain().getOrganisms().forEachRemaining(organism -> before.add(organism.getUniqueID()));
+
+            super.afterTick();
+            // nothing dies while injecting, so this is the elite the offspring were bred from
+            final Set<String> elite = elite();
+
+            for (final Iterator<Organism> it = getTerrain().getOrganisms(); it.hasNext(); ) {
+                final Organism organism = it.next();
+                if (!before.contains(organism.getUniqueID())) {
+                    injections.add(organism.getParentId() + " " + organism.getFirstCell().getCoordinates());
+                    if (elite.contains(organism.getParentId())) {
+                        ++fromElite;
+                    } else if (!elite.isEmpty()) {
+                        ++notFromElite;
+                    }
+                }
+            }
+        }
+
+        private Set<String> elite() {
+            final MetadataStore<Performance> store = metadataStoreGroup.get(Performance.class);
+            final Set<String> retVal = new HashSet<>();
+            // the ecosystem keeps its elite in memory, the store catches up in the background
+            store.awaitPendingWrites();
+            try {
+                store.page(0, ELITE_SIZE).forEach(performance -> retVal.add(performance.getName()));
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+            return retVal;
+        }
+    }
+
+    private static RecordingEcosystem run(final String name) throws Exception {
+        final RecordingEcosystem ecosystem = new RecordingEcosystem(new TestUniverse(SeededWorld.properties()),
+                SteadyStateConfiguration.builder()
+                        .name(name)
+                        .size(new SpatialCoordinates(SeededWorld.WIDTH, SeededWorld.HEIGHT, 0))
+                        .ticksPerDay(10)
+                        .maxDays(10)
+                        .population(60)
+                        .eliteSize(ELITE_SIZE)
+                        .injectionInterval(5)
+                        .build());
+        ecosystem.setQuiet(true);
+        ecosystem.initialize(null);
+        ecosystem.getCompletion().get(1, TimeUnit.MINUTES);
+        return ecosystem;
+    }
+
+    public void testDepletedPopulationIsRefilledFromElite() throws Exception {
+        final RecordingEcosystem ecosystem = run("steady");
+
+        assertTrue(0 < ecosystem.fromElite, "No organisms were bred from the elite.");
+        assertEquals(ecosystem.notFromElite, 0);
+    }
+
+    public void testSeededRunIsReproducible() throws Exception {
+        final RecordingEcosystem first = run("steady");
+        final RecordingEcosystem second = run("steady");
+
+        assertFalse(first.injections.isEmpty());
+        assertEquals(second.injections, first.injections);
+    }
+}
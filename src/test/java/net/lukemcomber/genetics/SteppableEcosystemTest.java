@@ -0,0 +1,229 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.biology.plant.PlantOrganism;
+import net.lukemcomber.genetics.biology.transcription.MutationGenomeTranscriber;
+import net.lukemcomber.genetics.exception.EvolutionException;
+import net.lukemcomber.genetics.model.ecosystem.impl.FastForwardSummary;
+import net.lukemcomber.genetics.utilities.RandomStreams;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.testng.Assert.*;
+
+@Test
+public class SteppableEcosystemTest {
+
+    private static final int TURNS = 40;
+    private static final int TICKS_PER_HEAVY_TURN = 150;
+    private static final long PAUSE_MILLIS = 150;
+    private static final int TIMED_TURNS = 5;
+
+    public void testFastForwardMatchesAdvancingTurnByTurn() throws IOException {
+        final SteppableEcosystem stepped = SeededWorld.create("steppable", SeededWorld.properties());
+        for (int i = 0; i < TURNS; ++i) {
+            stepped.advance();
+        }
+
+        final SteppableEcosystem forwarded = SeededWorld.create("steppable", SeededWorld.properties());
+        final FastForwardSummary summary = forwarded.fastForward(TURNS, 7);
+
+        assertEquals(summary.turnsAdvanced(), TURNS);
+        assertEquals(forwarded.getTotalTicks(), stepped.getTotalTicks());
+        assertEquals(SeededWorld.fingerprint(forwarded), SeededWorld.fingerprint(stepped));
+    }
+
+    public void testForkDivergesWithoutChangingSource() throws IOException {
+        final SteppableEcosystem source = SeededWorld.create("source", SeededWorld.properties());
+        for (int i = 0; i < TURNS / 2; ++i) {
+            source.advance();
+        }
+        final String branchPoint = SeededWorld.fingerprint(source);
+        final long branchTicks = source.getTotalTicks();
+
+        final SteppableEcosystem same = fork(source, SeededWorld.properties());
+        final SteppableEcosystem starved = fork(source, SeededWorld.properties(
+                PlantOrganism.PROPERTY_STARVATION_LIMIT, Integer.MAX_VALUE));
+        assertNotSame(starved.getTerrain(), source.getTerrain());
+        assertEquals(SeededWorld.fingerprint(starved), branchPoint);
+
+        for (int i = 0; i < TURNS / 2; ++i) {
+            same.advance();
+            starved.advance();
+        }
+
+        assertEquals(SeededWorld.fingerprint(source), branchPoint);
+        assertEquals(source.getTotalTicks(), branchTicks);
+        assertNotEquals(SeededWorld.fingerprint(starved), SeededWorld.fingerprint(same));
+        assertEquals(starved.getTerrain().getOrganismCount(), 0);
+    }
+
+    public void testUnnamedSeededRunsRepeat() throws IOException {
+        // mutate every gene so any difference in the transcriber's streams shows
+        final SteppableEcosystem first = SeededWorld.create(null, SeededWorld.properties(
+                MutationGenomeTranscriber.GENOME_MUTATE_PROBABILITY, 1));
+        final SteppableEcosystem second = SeededWorld.create(null, SeededWorld.properties(
+                MutationGenomeTranscriber.GENOME_MUTATE_PROBABILITY, 1,
+                RandomStreams.PROPERTY_MASTER_SEED, (long) SeededWorld.MASTER_SEED));
+        for (int i = 0; i < TURNS * 5; ++i) {
+            first.advance();
+            second.advance();
+        }
+
+        assertNotEquals(second.getName(), first.getName());
+        assertEquals(SeededWorld.fingerprint(second), SeededWorld.fingerprint(first));
+    }
+
+    public void testRewindPastDepthKeepsJournal() throws IOException {
+        final SteppableEcosystem ecosystem = SeededWorld.create("rewind", SeededWorld.properties(
+                SteppableEcosystem.PROPERTY_REWIND_DEPTH, 5,
+                SteppableEcosystem.PROPERTY_REWIND_INTERVAL, 2));
+        final List<String> history = new ArrayList<>();
+        for (int i = 0; i < TURNS / 2; ++i) {
+            ecosystem.advance();
+            history.add(SeededWorld.fingerprint(ecosystem));
+        }
+        final long earliest = ecosystem.getEarliestRewindTick();
+
+        assertThrows(EvolutionException.class, () -> ecosystem.rewind(TURNS / 2 - 1));
+        assertEquals(ecosystem.getEarliestRewindTick(), earliest);
+        assertEquals(SeededWorld.fingerprint(ecosystem), history.get(history.size() - 1));
+
+        ecosystem.rewind(3);
+        assertEquals(SeededWorld.fingerprint(ecosystem), history.get(history.size() - 4));
+        for (int i = 0; i < 3; ++i) {
+            ecosystem.advance();
+        }
+        assertEquals(SeededWorld.fingerprint(ecosystem), history.get(history.size() - 1));
+    }
+
+    private static SteppableEcosystem fork(final SteppableEcosystem source, final Map<String, Object> properties) throws IOException {
+        final SteppableEcosystem retVal = source.fork(new TestUniverse(properties), "fork");
+        retVal.setQuiet(true);
+        retVal.initialize(null);
+        return retVal;
+    }
+
+    private static Organism first(final Ecosystem ecosystem) {
+        final List<Organism> organisms = new ArrayList<>();
+        ecosystem.getTerrain().getOrganisms().forEachRemaining(organisms::add);
+        return organisms.stream().min(Comparator.comparing(Organism::getUniqueID)).orElseThrow();
+    }
+
+    public void testFastForwardDoesNotLogEveryOrganism() throws IOException {
+        final SteppableEcosystem ecosystem = SeededWorld.create("steppable", SeededWorld.properties());
+        final List<LogRecord> records = new ArrayList<>();
+        final Handler handler = new Handler() {
+            @Override
+            public void publish(final LogRecord record) {
+                if (record.getLevel().intValue() >= Level.INFO.intValue()) {
+                    records.add(record);
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final Logger biology = Logger.getLogger("net.lukemcomber.genetics.biology");
+        biology.addHandler(handler);
+        try {
+            // most of the starting population dies within the first turns
+            ecosystem.fastForward(TURNS, 7);
+        } finally {
+            biology.removeHandler(handler);
+        }
+
+        assertTrue(0 < ecosystem.getTerrain().getTotalOrganismCount() - ecosystem.getTerrain().getOrganismCount());
+        assertTrue(records.isEmpty(), records.isEmpty() ? "" : records.get(0).getMessage());
+    }
+
+    public void testSpeculativeTurnIsAdopted() throws IOException {
+        final SteppableEcosystem serial = SeededWorld.create("speculative", SeededWorld.properties());
+        final SteppableEcosystem speculative = SeededWorld.create("speculative", SeededWorld.properties(
+                SteppableEcosystem.PROPERTY_SPECULATIVE, true));
+
+        for (int i = 0; i < TURNS; ++i) {
+            final EcosystemState before = speculative.getState();
+            serial.advance();
+            speculative.advance();
+            // an adopted turn replaces the state, a computed one updates it in place
+            assertNotSame(speculative.getState(), before);
+        }
+        assertEquals(SeededWorld.fingerprint(speculative), SeededWorld.fingerprint(serial));
+    }
+
+    public void testSpeculativeTurnIsDiscardedWhenTerrainChanges() throws IOException {
+        final SteppableEcosystem serial = SeededWorld.create("speculative", SeededWorld.properties());
+        final SteppableEcosystem speculative = SeededWorld.create("speculative", SeededWorld.properties(
+                SteppableEcosystem.PROPERTY_SPECULATIVE, true));
+        serial.advance();
+        speculative.advance();
+
+        // change both terrains while the next turn is being speculated
+        serial.getTerrain().deleteOrganism(first(serial));
+        speculative.getTerrain().deleteOrganism(first(speculative));
+        final EcosystemState before = speculative.getState();
+        serial.advance();
+        speculative.advance();
+
+        assertSame(speculative.getState(), before);
+        assertEquals(SeededWorld.fingerprint(speculative), SeededWorld.fingerprint(serial));
+    }
+
+    public void testSpeculativeAdvanceIsFaster() throws Exception {
+        // warm up the JIT on throwaway runs, the early turns are the busiest
+        timeAdvances(heavy(false), PAUSE_MILLIS);
+        timeAdvances(heavy(true), PAUSE_MILLIS);
+
+        final SteppableEcosystem serial = heavy(false);
+        final SteppableEcosystem speculative = heavy(true);
+        final long serialNanos = timeAdvances(serial, 0);
+        final long speculativeNanos = timeAdvances(speculative, PAUSE_MILLIS);
+
+        assertEquals(SeededWorld.fingerprint(speculative), SeededWorld.fingerprint(serial));
+        assertTrue(speculativeNanos < serialNanos / 2,
+                String.format("fastest advance speculative %dus, serial %dus", speculativeNanos / 1_000, serialNanos / 1_000));
+    }
+
+    private static SteppableEcosystem heavy(final boolean speculative) throws IOException {
+        return SeededWorld.create("speculative", SeededWorld.properties(
+                SteppableEcosystem.PROPERTY_SPECULATIVE, speculative), SeededWorld.population(), TICKS_PER_HEAVY_TURN);
+    }
+
+    /**
+     * Advance {@link #TIMED_TURNS} turns and time each call
+     *
+     * @return fewest nanoseconds spent in one call to {@link SteppableEcosystem#advance()}, garbage
+     *  collections and other threads can only stretch a call
+     */
+    private static long timeAdvances(final SteppableEcosystem ecosystem, final long pauseMillis) throws InterruptedException {
+        long retVal = Long.MAX_VALUE;
+        for (int i = 0; i < TIMED_TURNS; ++i) {
+            // leave time between turns for the background to finish, as a viewer would
+            Thread.sleep(pauseMillis);
+            final long start = System.nanoTime();
+            ecosystem.advance();
+            retVal = Math.min(retVal, System.nanoTime() - start);
+        }
+        return retVal;
+    }
+}
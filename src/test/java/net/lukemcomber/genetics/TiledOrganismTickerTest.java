@@ -0,0 +1,60 @@
+package net.lukemcomber.genetics;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+@Test
+public class TiledOrganismTickerTest {
+
+    private static final int TURNS = 150;
+
+    private String run(final String name, final Object... overrides) throws IOException {
+        return runWith(name, SeededWorld.population(), TURNS, overrides);
+    }
+
+    private String runWith(final String name, final Map<SpatialCoordinates, String> population, final int turns,
+                           final Object... overrides) throws IOException {
+        final SteppableEcosystem ecosystem = SeededWorld.create(name, SeededWorld.properties(overrides), population);
+        for (int i = 0; i < turns; ++i) {
+            ecosystem.advance();
+        }
+        return SeededWorld.fingerprint(ecosystem);
+    }
+
+    public void testTiledRunMatchesSerialRun() throws IOException {
+        final String serial = run("tiled", Ecosystem.PROPERTY_TICK_ORDER, Ecosystem.TickOrder.TILE.name(),
+                Ecosystem.PROPERTY_TICK_TILE_SIZE, 16);
+        final String tiled = run("tiled", Ecosystem.PROPERTY_TICK_MODE, Ecosystem.TickMode.TILED.name(),
+                Ecosystem.PROPERTY_TICK_TILE_SIZE, 16, Ecosystem.PROPERTY_TICK_PARALLELISM, 4);
+
+        assertEquals(tiled, serial);
+    }
+
+    public void testTiledRunMatchesIdOrderWithoutInteractions() throws IOException {
+        // organisms that never reach one another can not be affected by the order they are visited in
+        final String serial = runWith("tiled", SeededWorld.sparsePopulation(), 15);
+        final String tiled = runWith("tiled", SeededWorld.sparsePopulation(), 15, Ecosystem.PROPERTY_TICK_MODE, Ecosystem.TickMode.TILED.name(),
+                Ecosystem.PROPERTY_TICK_TILE_SIZE, 16, Ecosystem.PROPERTY_TICK_PARALLELISM, 4);
+
+        assertEquals(tiled, serial);
+    }
+
+    public void testTiledRunDoesNotDependOnParallelism() throws IOException {
+        final String single = run("tiled", Ecosystem.PROPERTY_TICK_MODE, Ecosystem.TickMode.TILED.name(),
+                Ecosystem.PROPERTY_TICK_PARALLELISM, 1);
+        final String pooled = run("tiled", Ecosystem.PROPERTY_TICK_MODE, Ecosystem.TickMode.TILED.name(),
+                Ecosystem.PROPERTY_TICK_PARALLELISM, 3);
+
+        assertEquals(pooled, single);
+    }
+}
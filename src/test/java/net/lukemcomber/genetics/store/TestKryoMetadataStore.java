@@ -8,6 +8,7 @@ package net.lukemcomber.genetics.store;
 import com.google.common.collect.ImmutableMap;
 import net.lukemcomber.genetics.TestUniverse;
 import net.lukemcomber.genetics.model.UniverseConstants;
+import net.lukemcomber.genetics.store.impl.KryoMetadataStore;
 import net.lukemcomber.genetics.world.terrain.Terrain;
 import net.lukemcomber.genetics.world.terrain.impl.FlatWorld;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -16,6 +17,7 @@ import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import static org.testng.Assert.assertEquals;
@@ -107,4 +109,28 @@ public class TestKryoMetadataStore {
         //final List<TestSearchableMetadata> leakedData = testMetaStore.retrieve();
         //assertNull(leakedData, "Data leaked after expiration.");
     }
+
+    public void testAwaitPendingWritesReturnsWhenPollerFails() throws IOException {
+        final var testUniverse = new TestUniverse(ImmutableMap.of(
+                Terrain.PROPERTY_TERRAIN_TYPE, FlatWorld.ID,
+                TestSearchableMetadata.PROPERTY_ENABLED, true,
+                MetadataStore.PROPERTY_DATASTORE_TTL, 1000000,
+                KryoMetadataStore.PROPERTY_AWAIT_TIMEOUT, 60000
+        ));
+        final MetadataStoreGroup group = MetadataStoreFactory.getMetadataStore("unit-test-failed-poller", testUniverse);
+        final MetadataStore<TestSearchableMetadata> testMetaStore = group.get(TestSearchableMetadata.class);
+
+        // kryo only knows the registered class, writing a subclass kills the poller
+        final TestSearchableMetadata unwritable = new TestSearchableMetadata() {
+        };
+        unwritable.intNumber = 1;
+        testMetaStore.store(unwritable);
+        final TestSearchableMetadata stranded = new TestSearchableMetadata();
+        stranded.intNumber = 2;
+        testMetaStore.store(stranded);
+
+        final long start = System.nanoTime();
+        testMetaStore.awaitPendingWrites();
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 10000);
+    }
 }
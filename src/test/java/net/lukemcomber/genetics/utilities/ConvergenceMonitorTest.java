@@ -0,0 +1,64 @@
+package net.lukemcomber.genetics.utilities;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import com.google.common.collect.ImmutableMap;
+import net.lukemcomber.genetics.TestUniverse;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+@Test
+public class ConvergenceMonitorTest {
+
+    public void testUnconfiguredNeverConverges() {
+        final ConvergenceMonitor monitor = ConvergenceMonitor.forEpoch(new TestUniverse(ImmutableMap.of()));
+        monitor.start(0);
+
+        assertFalse(monitor.isEnabled());
+        for (int tick = 0; tick < 100; ++tick) {
+            assertFalse(monitor.onTick(5, 5, Long.MAX_VALUE));
+        }
+        assertNull(monitor.getReason());
+    }
+
+    public void testStagnationResetsOnBirthOrDeath() {
+        final ConvergenceMonitor monitor = new ConvergenceMonitor(3, 0, 0, 0);
+        monitor.start(0);
+
+        assertFalse(monitor.onTick(5, 5, 0));
+        assertFalse(monitor.onTick(5, 5, 0));
+        assertFalse(monitor.onTick(5, 5, 0));
+        // a birth and a death on the same tick leave the count unchanged, the total still moves
+        assertFalse(monitor.onTick(5, 6, 0));
+        assertFalse(monitor.onTick(5, 6, 0));
+        assertFalse(monitor.onTick(5, 6, 0));
+        assertTrue(monitor.onTick(5, 6, 0));
+        assertNotNull(monitor.getReason());
+    }
+
+    public void testPlateauNeedsImprovementBeyondTolerance() {
+        final ConvergenceMonitor monitor = new ConvergenceMonitor(0, 2, 0.1, 0);
+        monitor.start(0);
+
+        assertFalse(monitor.onEpoch(0.5, 0));
+        assertFalse(monitor.onEpoch(0.55, 0));
+        assertFalse(monitor.onEpoch(0.7, 0));
+        assertFalse(monitor.onEpoch(0.75, 0));
+        assertTrue(monitor.onEpoch(0.72, 0));
+    }
+
+    public void testBudget() {
+        final ConvergenceMonitor monitor = new ConvergenceMonitor(0, 0, 0, 10);
+        final long start = 1000;
+        monitor.start(start);
+
+        assertFalse(monitor.onTick(1, 1, start + TimeUnit.MILLISECONDS.toNanos(9)));
+        assertTrue(monitor.onEpoch(0, start + TimeUnit.MILLISECONDS.toNanos(10)));
+    }
+}
@@ -0,0 +1,86 @@
+package net.lukemcomber.genetics.utilities;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import com.google.common.collect.ImmutableMap;
+import net.lukemcomber.genetics.TestUniverse;
+import net.lukemcomber.genetics.biology.Gene;
+import net.lukemcomber.genetics.biology.Genome;
+import net.lukemcomber.genetics.biology.TestGenome;
+import net.lukemcomber.genetics.biology.transcription.MutationGenomeTranscriber;
+import org.testng.annotations.Test;
+
+import java.util.SplittableRandom;
+
+import static org.testng.Assert.*;
+
+@Test
+public class RandomStreamsTest {
+
+    public void testSamePathSameStream() {
+        final SplittableRandom first = new RandomStreams(42).child(RandomStreams.key("eco")).stream(1, 2);
+        final SplittableRandom second = new RandomStreams(42).child(RandomStreams.key("eco")).stream(1, 2);
+
+        for (int i = 0; i < 16; ++i) {
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+    }
+
+    public void testDifferentPathsDiffer() {
+        final RandomStreams streams = new RandomStreams(42);
+
+        assertNotEquals(streams.stream(1, 2).nextLong(), streams.stream(2, 1).nextLong());
+        assertNotEquals(streams.stream(1).nextLong(), new RandomStreams(43).stream(1).nextLong());
+        assertNotEquals(streams.child(1).getSeed(), streams.child(2).getSeed());
+    }
+
+    public void testUnsetMasterSeedDisablesStreams() {
+        assertNull(RandomStreams.forName(new TestUniverse(ImmutableMap.of()), "eco"));
+        assertNotNull(RandomStreams.forName(new TestUniverse(ImmutableMap.of(RandomStreams.PROPERTY_MASTER_SEED, 7)), "eco"));
+    }
+
+    public void testMasterSeedAcceptsAnyWholeNumber() {
+        final RandomStreams fromInteger = RandomStreams.forName(new TestUniverse(ImmutableMap.of(RandomStreams.PROPERTY_MASTER_SEED, 7)), "eco");
+        final RandomStreams fromLong = RandomStreams.forName(new TestUniverse(ImmutableMap.of(RandomStreams.PROPERTY_MASTER_SEED, 7L)), "eco");
+
+        assertEquals(fromLong.getSeed(), fromInteger.getSeed());
+    }
+
+    public void testUnnamedStreamsRepeat() {
+        final TestUniverse universe = new TestUniverse(ImmutableMap.of(RandomStreams.PROPERTY_MASTER_SEED, 7));
+
+        assertEquals(RandomStreams.forName(universe, null).getSeed(), RandomStreams.forName(universe, null).getSeed());
+    }
+
+    public void testKeyedTranscriptionIgnoresOrder() {
+        final TestUniverse universe = new TestUniverse(ImmutableMap.of(
+                MutationGenomeTranscriber.GENOME_MUTATE_PROBABILITY, 4));
+        final RandomStreams streams = new RandomStreams(42);
+
+        final MutationGenomeTranscriber forward = new MutationGenomeTranscriber(universe, streams);
+        final Genome a = forward.transcribe(new TestGenome(32), 1);
+        final Genome b = forward.transcribe(new TestGenome(32), 2);
+
+        final MutationGenomeTranscriber backward = new MutationGenomeTranscriber(universe, streams);
+        final Genome b2 = backward.transcribe(new TestGenome(32), 2);
+        final Genome a2 = backward.transcribe(new TestGenome(32), 1);
+
+        assertGenomesEqual(a, a2);
+        assertGenomesEqual(b, b2);
+    }
+
+    private static void assertGenomesEqual(final Genome expected, final Genome actual) {
+        assertEquals(actual.getNumberOfGenes(), expected.getNumberOfGenes());
+        for (int i = 0; i < expected.getNumberOfGenes(); ++i) {
+            final Gene left = expected.getGeneNumber(i);
+            final Gene right = actual.getGeneNumber(i);
+            assertEquals(right.nucleotideA, left.nucleotideA);
+            assertEquals(right.nucleotideB, left.nucleotideB);
+            assertEquals(right.nucleotideC, left.nucleotideC);
+            assertEquals(right.nucleotideD, left.nucleotideD);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package net.lukemcomber.genetics.utilities;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+@Test
+public class TickPacerTest {
+
+    public void testOnScheduleDoesNotDrift() {
+        final TickPacer pacer = new TickPacer(TickPacer.Mode.PACED, TickPacer.CatchUp.RESET, 100, 10);
+        pacer.start(0);
+
+        // each tick takes 30ns, the next deadline stays on the 100ns grid
+        assertEquals(pacer.delayAfterTick(30), 70);
+        assertEquals(pacer.delayAfterTick(130), 70);
+        assertEquals(pacer.delayAfterTick(275), 25);
+    }
+
+    public void testResetRestartsScheduleFromLateTick() {
+        final TickPacer pacer = new TickPacer(TickPacer.Mode.PACED, TickPacer.CatchUp.RESET, 100, 10);
+        pacer.start(0);
+
+        assertEquals(pacer.delayAfterTick(250), 0);
+        assertEquals(pacer.delayAfterTick(260), 90);
+    }
+
+    public void testBurstCatchesUpMissedTicks() {
+        final TickPacer pacer = new TickPacer(TickPacer.Mode.PACED, TickPacer.CatchUp.BURST, 100, 10);
+        pacer.start(0);
+
+        // deadlines 100 and 200 were missed, run them back to back
+        assertEquals(pacer.delayAfterTick(250), 0);
+        assertEquals(pacer.delayAfterTick(260), 0);
+        assertEquals(pacer.delayAfterTick(270), 30);
+    }
+
+    public void testBurstIsBounded() {
+        final TickPacer pacer = new TickPacer(TickPacer.Mode.PACED, TickPacer.CatchUp.BURST, 100, 2);
+        pacer.start(0);
+
+        assertEquals(pacer.delayAfterTick(1000), 0);
+        assertEquals(pacer.delayAfterTick(1000), 0);
+        assertEquals(pacer.delayAfterTick(1000), 0);
+        assertEquals(pacer.delayAfterTick(1000), 100);
+    }
+
+    public void testSkipRealignsToSchedule() {
+        final TickPacer pacer = new TickPacer(TickPacer.Mode.PACED, TickPacer.CatchUp.SKIP, 100, 10);
+        pacer.start(0);
+
+        assertEquals(pacer.delayAfterTick(250), 50);
+        assertEquals(pacer.delayAfterTick(310), 90);
+    }
+
+    public void testUnthrottledNeverWaits() {
+        final TickPacer pacer = new TickPacer(TickPacer.Mode.UNTHROTTLED, TickPacer.CatchUp.RESET, 100, 10);
+        pacer.start(0);
+
+        assertEquals(pacer.delayAfterTick(1), 0);
+        assertEquals(pacer.delayAfterTick(2), 0);
+    }
+}
@@ -0,0 +1,48 @@
+package net.lukemcomber.genetics.world.terrain;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class MortonLayoutTest {
+
+    public void testEncodeInterleavesBits() {
+        assertEquals(MortonLayout.encode(0, 0), 0);
+        assertEquals(MortonLayout.encode(1, 0), 1);
+        assertEquals(MortonLayout.encode(0, 1), 2);
+        assertEquals(MortonLayout.encode(3, 3), 15);
+        assertEquals(MortonLayout.encode(7, 0), 21);
+    }
+
+    public void testEveryCellHasItsOwnIndex() {
+        final MortonLayout layout = new MortonLayout(21, 13);
+        final Set<Integer> indexes = new HashSet<>();
+
+        for (int x = 0; x < 21; ++x) {
+            for (int y = 0; y < 13; ++y) {
+                final int index = layout.index(x, y);
+                assertTrue(0 <= index && index < layout.size());
+                assertTrue(indexes.add(index));
+            }
+        }
+        assertEquals(layout.size(), 3 * 2 * 64);
+    }
+
+    public void testTileIsContiguous() {
+        final MortonLayout layout = new MortonLayout(16, 16);
+
+        assertEquals(layout.index(7, 7), 63);
+        assertEquals(layout.index(8, 0), 64);
+        assertEquals(layout.index(0, 8), 128);
+    }
+}
@@ -0,0 +1,68 @@
+package net.lukemcomber.genetics.world.terrain.impl;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import com.google.common.collect.ImmutableMap;
+import net.lukemcomber.genetics.TestUniverse;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.world.terrain.properties.SoilNutrientsTerrainProperty;
+import net.lukemcomber.genetics.world.terrain.properties.SolarEnergyTerrainProperty;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+@Test
+public class ChunkedWorldTest {
+
+    private static final SpatialCoordinates FAR = new SpatialCoordinates(19999, 19999, 0);
+
+    private ChunkedWorld create() {
+        return new ChunkedWorld(new SpatialCoordinates(20000, 20000, 1), new TestUniverse(ImmutableMap.of()), null);
+    }
+
+    public void testUntouchedChunksReadTheDefault() {
+        final ChunkedWorld world = create();
+
+        world.fillResource(SoilNutrientsTerrainProperty.HANDLE, 10);
+        assertEquals(world.getResource(FAR, SoilNutrientsTerrainProperty.HANDLE, -1), 10);
+        assertEquals(world.getResource(FAR, SolarEnergyTerrainProperty.HANDLE, -1), -1);
+        assertNull(world.getTerrainProperty(FAR, SolarEnergyTerrainProperty.ID));
+        assertFalse(world.hasCell(19999, 0));
+        assertEquals(world.getAllocatedChunkCount(), 0);
+
+        assertEquals(world.harvestResource(FAR, SoilNutrientsTerrainProperty.HANDLE, 4), 4);
+        assertEquals(world.getResource(FAR, SoilNutrientsTerrainProperty.HANDLE, -1), 6);
+        assertEquals(world.getResource(new SpatialCoordinates(0, 0, 0), SoilNutrientsTerrainProperty.HANDLE, -1), 10);
+        assertEquals(world.getAllocatedChunkCount(), 1);
+    }
+
+    public void testFillAndUpdateReachEveryLocation() {
+        final ChunkedWorld world = create();
+
+        world.fillResource(SolarEnergyTerrainProperty.HANDLE, 3);
+        world.fillResource(SolarEnergyTerrainProperty.HANDLE, 8, 60, 60, 70, 70);
+        world.updateResource(SolarEnergyTerrainProperty.HANDLE, 0, value -> value * 2);
+
+        assertEquals(world.getResource(new SpatialCoordinates(59, 60, 0), SolarEnergyTerrainProperty.HANDLE, 0), 6);
+        assertEquals(world.getResource(new SpatialCoordinates(60, 60, 0), SolarEnergyTerrainProperty.HANDLE, 0), 16);
+        assertEquals(world.getResource(new SpatialCoordinates(69, 69, 0), SolarEnergyTerrainProperty.HANDLE, 0), 16);
+        assertEquals(world.getResource(FAR, SolarEnergyTerrainProperty.HANDLE, 0), 6);
+        assertEquals(world.getAllocatedChunkCount(), 4);
+
+        // renewing replaces the value in chunks that hold their own copy too
+        world.renewResource(SolarEnergyTerrainProperty.HANDLE, 5);
+        assertEquals(world.getTerrainProperty(new SpatialCoordinates(65, 65, 0), SolarEnergyTerrainProperty.ID).getValue(), 5);
+    }
+
+    public void testOutOfBounds() {
+        final ChunkedWorld world = create();
+
+        assertTrue(world.isOutOfBounds(20000, 0));
+        assertFalse(world.isOutOfBounds(new SpatialCoordinates(19999, 0, 5)));
+        // padding past the world edge must not be addressable
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> world.hasCell(20000, 5));
+    }
+}
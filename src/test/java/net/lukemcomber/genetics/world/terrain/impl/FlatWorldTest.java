@@ -0,0 +1,216 @@
+package net.lukemcomber.genetics.world.terrain.impl;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import com.google.common.collect.ImmutableMap;
+import net.lukemcomber.genetics.SeededWorld;
+import net.lukemcomber.genetics.TestUniverse;
+import net.lukemcomber.genetics.biology.Genome;
+import net.lukemcomber.genetics.biology.Organism;
+import net.lukemcomber.genetics.biology.OrganismFactory;
+import net.lukemcomber.genetics.io.DeepCopier;
+import net.lukemcomber.genetics.io.GenomeSerDe;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.model.TemporalCoordinates;
+import net.lukemcomber.genetics.model.UniverseConstants;
+import net.lukemcomber.genetics.world.terrain.TerrainChanges;
+import net.lukemcomber.genetics.world.terrain.TerrainProperty;
+import net.lukemcomber.genetics.world.terrain.properties.SoilNutrientsTerrainProperty;
+import net.lukemcomber.genetics.world.terrain.properties.SolarEnergyTerrainProperty;
+import org.apache.commons.codec.DecoderException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.testng.Assert.*;
+
+@Test
+public class FlatWorldTest {
+
+    private static final SpatialCoordinates ORIGIN = new SpatialCoordinates(3, 2, 0);
+
+    @DataProvider(name = "storage")
+    public Object[][] storage() {
+        return new Object[][]{{FlatWorld.Storage.MAP}, {FlatWorld.Storage.GRID}};
+    }
+
+    private FlatWorld create(final FlatWorld.Storage storage) {
+        return new FlatWorld(new SpatialCoordinates(10, 10, 1),
+                new TestUniverse(ImmutableMap.of(FlatWorld.PROPERTY_STORAGE, storage.name())), null);
+    }
+
+    @Test(dataProvider = "storage")
+    public void testHarvestTakesAtMostTheMaximum(final FlatWorld.Storage storage) {
+        final FlatWorld world = create(storage);
+
+        assertEquals(world.harvestResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 5), 0);
+        world.setResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 7);
+
+        assertEquals(world.harvestResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 5), 5);
+        assertEquals(world.harvestResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 5), 2);
+        assertEquals(world.getResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, -1), 0);
+        assertEquals(world.getResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, -1), -1);
+    }
+
+    @Test(dataProvider = "storage")
+    public void testPropertyObjectsMatchHandles(final FlatWorld.Storage storage) {
+        final FlatWorld world = create(storage);
+
+        world.setTerrainProperty(ORIGIN, new SoilNutrientsTerrainProperty(12));
+        assertEquals(world.getResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, 0), 12);
+
+        world.setResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 4);
+        final TerrainProperty<?> solar = world.getTerrainProperty(ORIGIN, SolarEnergyTerrainProperty.ID);
+        assertTrue(solar instanceof SolarEnergyTerrainProperty);
+        assertEquals(solar.getValue(), 4);
+        assertEquals(world.getTerrainProperties(ORIGIN).size(), 2);
+
+        world.deleteTerrainProperty(ORIGIN, SolarEnergyTerrainProperty.ID);
+        assertNull(world.getTerrainProperty(ORIGIN, SolarEnergyTerrainProperty.ID));
+    }
+
+    public void testPropertyObjectsAreLiveByDefault() {
+        final FlatWorld world = new FlatWorld(new SpatialCoordinates(10, 10, 1), new TestUniverse(ImmutableMap.of()), null);
+        world.setTerrainProperty(ORIGIN, new SoilNutrientsTerrainProperty(12));
+
+        final SoilNutrientsTerrainProperty soil = (SoilNutrientsTerrainProperty) world.getTerrainProperty(ORIGIN, SoilNutrientsTerrainProperty.ID);
+        soil.setValue(3);
+        assertEquals(world.getResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, 0), 3);
+    }
+
+    public void testGridCopiesDoNotSeeEachOthersWrites() {
+        final FlatWorld world = create(FlatWorld.Storage.GRID);
+        final SpatialCoordinates other = new SpatialCoordinates(9, 9, 0);
+        world.fillResource(SoilNutrientsTerrainProperty.HANDLE, 3);
+        world.renewResource(SolarEnergyTerrainProperty.HANDLE, 9);
+
+        final FlatWorld copy = new DeepCopier(UniverseConstants.class).copy(world);
+        copy.harvestResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, 2);
+        world.setResource(other, SoilNutrientsTerrainProperty.HANDLE, 7);
+        // bringing a location up to date with the renewal writes too
+        assertEquals(copy.harvestResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 4), 4);
+
+        assertEquals(world.getResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, 0), 3);
+        assertEquals(copy.getResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, 0), 1);
+        assertEquals(world.getResource(other, SoilNutrientsTerrainProperty.HANDLE, 0), 7);
+        assertEquals(copy.getResource(other, SoilNutrientsTerrainProperty.HANDLE, 0), 3);
+        assertEquals(world.getResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 0), 9);
+        assertEquals(copy.getResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 0), 5);
+    }
+
+    @Test(dataProvider = "storage")
+    public void testFillRegionAndUpdate(final FlatWorld.Storage storage) {
+        final FlatWorld world = create(storage);
+
+        world.fillResource(SoilNutrientsTerrainProperty.HANDLE, 3);
+        world.fillResource(SoilNutrientsTerrainProperty.HANDLE, 8, 2, 1, 5, 20);
+        world.updateResource(SoilNutrientsTerrainProperty.HANDLE, 0, value -> value * 2);
+
+        assertEquals(world.getResource(new SpatialCoordinates(1, 1, 0), SoilNutrientsTerrainProperty.HANDLE, 0), 6);
+        assertEquals(world.getResource(new SpatialCoordinates(2, 1, 0), SoilNutrientsTerrainProperty.HANDLE, 0), 16);
+        assertEquals(world.getResource(new SpatialCoordinates(4, 9, 0), SoilNutrientsTerrainProperty.HANDLE, 0), 16);
+        assertEquals(world.getResource(new SpatialCoordinates(5, 9, 0), SoilNutrientsTerrainProperty.HANDLE, 0), 6);
+        assertEquals(world.getResource(new SpatialCoordinates(3, 0, 0), SoilNutrientsTerrainProperty.HANDLE, 0), 6);
+    }
+
+    @Test(dataProvider = "storage")
+    public void testRenewReplacesEveryValue(final FlatWorld.Storage storage) {
+        final FlatWorld world = create(storage);
+        final SpatialCoordinates other = new SpatialCoordinates(9, 9, 0);
+
+        world.fillResource(SolarEnergyTerrainProperty.HANDLE, 10);
+        world.harvestResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 4);
+        world.renewResource(SolarEnergyTerrainProperty.HANDLE, 20);
+        assertEquals(world.harvestResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 4), 4);
+
+        // a value written after the renewal is kept, until the next renewal
+        world.setResource(other, SolarEnergyTerrainProperty.HANDLE, 1);
+        assertEquals(world.getResource(other, SolarEnergyTerrainProperty.HANDLE, 0), 1);
+        assertEquals(world.getResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 0), 16);
+
+        world.renewResource(SolarEnergyTerrainProperty.HANDLE, 30);
+        world.renewResource(SolarEnergyTerrainProperty.HANDLE, 5);
+        assertEquals(world.getResource(other, SolarEnergyTerrainProperty.HANDLE, 0), 5);
+        assertEquals(world.getTerrainProperty(ORIGIN, SolarEnergyTerrainProperty.ID).getValue(), 5);
+    }
+
+    @Test(dataProvider = "storage")
+    public void testHarvestNeighbourhoodStopsAtTheEdges(final FlatWorld.Storage storage) {
+        final FlatWorld world = create(storage);
+        world.fillResource(SoilNutrientsTerrainProperty.HANDLE, 3);
+
+        assertEquals(world.harvestNeighbourhood(0, 0, SoilNutrientsTerrainProperty.HANDLE, 2), 6);
+        assertEquals(world.harvestNeighbourhood(5, 5, SoilNutrientsTerrainProperty.HANDLE, 2), 10);
+        assertEquals(world.harvestNeighbourhood(1, 0, SoilNutrientsTerrainProperty.HANDLE, 2), 6);
+        assertEquals(world.getResource(new SpatialCoordinates(1, 0, 0), SoilNutrientsTerrainProperty.HANDLE, 0), 0);
+        assertEquals(world.getResource(new SpatialCoordinates(9, 9, 0), SoilNutrientsTerrainProperty.HANDLE, 0), 3);
+    }
+
+    public void testPrimitiveCoordinateOverloads() {
+        final FlatWorld world = create(FlatWorld.Storage.GRID);
+
+        assertFalse(world.isOutOfBounds(9, 0));
+        assertTrue(world.isOutOfBounds(10, 0));
+        assertTrue(world.isOutOfBounds(0, -1));
+        assertFalse(world.hasCell(3, 2));
+        assertNull(world.getCell(3, 2));
+        assertNull(world.getOrganism(3, 2));
+        // padding past the world edge must not be addressable
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> world.hasCell(10, 2));
+    }
+
+    public void testSpatialOrderFollowsStorage() throws DecoderException {
+        final TestUniverse universe = new TestUniverse(SeededWorld.properties());
+        final FlatWorld world = new FlatWorld(new SpatialCoordinates(24, 16, 1), universe, null);
+        final Genome genome = GenomeSerDe.deserialize(SeededWorld.population().values().iterator().next());
+        final Function<SpatialCoordinates, Organism> plant = coordinates -> {
+            final Organism organism = OrganismFactory.create(null, genome, coordinates,
+                    new TemporalCoordinates(0, 0, 0), universe, null, null);
+            world.addOrganism(organism);
+            return organism;
+        };
+        // a Z-order curve over the whole grid would visit (0,8) before (16,0), storage tiles do not
+        final Organism second = plant.apply(new SpatialCoordinates(16, 0, 0));
+        final Organism third = plant.apply(new SpatialCoordinates(0, 8, 0));
+        final Organism first = plant.apply(new SpatialCoordinates(3, 3, 0));
+
+        assertEquals(world.getOrganismsInSpatialOrder(), List.of(first, second, third));
+
+        world.deleteOrganism(second);
+        final Organism added = plant.apply(new SpatialCoordinates(9, 1, 0));
+        assertEquals(world.getOrganismsInSpatialOrder(), List.of(first, added, third));
+    }
+
+    @Test(dataProvider = "storage")
+    public void testDrainChangesListsChangedTiles(final FlatWorld.Storage storage) {
+        final FlatWorld world = new FlatWorld(new SpatialCoordinates(20, 20, 1), new TestUniverse(ImmutableMap.of(
+                FlatWorld.PROPERTY_STORAGE, storage.name(), FlatWorld.PROPERTY_TRACK_CHANGES, true)), null);
+
+        assertTrue(world.drainChanges().areAllCellsChanged());
+        assertTrue(world.drainChanges().isEmpty());
+
+        world.setResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, 4);
+        world.setResource(new SpatialCoordinates(4, 4, 0), SoilNutrientsTerrainProperty.HANDLE, 4);
+        world.harvestResource(new SpatialCoordinates(17, 9, 0), SoilNutrientsTerrainProperty.HANDLE, 4);
+        world.harvestResource(new SpatialCoordinates(19, 19, 0), SoilNutrientsTerrainProperty.HANDLE, 4);
+        world.setResource(new SpatialCoordinates(19, 19, 0), SoilNutrientsTerrainProperty.HANDLE, 1);
+        assertEquals(world.harvestResource(new SpatialCoordinates(19, 19, 0), SoilNutrientsTerrainProperty.HANDLE, 4), 1);
+
+        final TerrainChanges changes = world.drainChanges();
+        final List<String> tiles = new ArrayList<>();
+        changes.forEachResourceTile((x, y) -> tiles.add(x + "," + y));
+        changes.forEachCellTile((x, y) -> fail("no cells changed"));
+        assertFalse(changes.areAllResourcesChanged());
+        assertEquals(tiles, List.of("0,0", "16,16"));
+
+        world.renewResource(SolarEnergyTerrainProperty.HANDLE, 5);
+        assertTrue(world.drainChanges().areAllResourcesChanged());
+        assertTrue(world.drainChanges().isEmpty());
+    }
+}
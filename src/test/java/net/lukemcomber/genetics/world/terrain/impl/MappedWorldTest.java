@@ -0,0 +1,96 @@
+package net.lukemcomber.genetics.world.terrain.impl;
+
+/*
+ * (c) 2024 Luke McOmber
+ * This code is licensed under MIT license (see LICENSE.txt for details)
+ */
+
+import com.google.common.collect.ImmutableMap;
+import net.lukemcomber.genetics.TestUniverse;
+import net.lukemcomber.genetics.model.SpatialCoordinates;
+import net.lukemcomber.genetics.world.terrain.MortonLayout;
+import net.lukemcomber.genetics.world.terrain.properties.SoilNutrientsTerrainProperty;
+import net.lukemcomber.genetics.world.terrain.properties.SolarEnergyTerrainProperty;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+
+import static org.testng.Assert.*;
+
+@Test
+public class MappedWorldTest {
+
+    private static final SpatialCoordinates ORIGIN = new SpatialCoordinates(3, 2, 0);
+
+    public void testResourcesStartUnset() throws IOException {
+        final File file = File.createTempFile("terrain", ".map");
+        file.deleteOnExit();
+        final MappedWorld world = new MappedWorld(new SpatialCoordinates(10, 10, 1),
+                new TestUniverse(ImmutableMap.of(MappedWorld.PROPERTY_FILE, file.getPath())), null);
+
+        assertEquals(world.getResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, -1), -1);
+        assertEquals(world.harvestResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, 5), 0);
+        assertTrue(world.getTerrainProperties(ORIGIN).isEmpty());
+
+        world.fillResource(SoilNutrientsTerrainProperty.HANDLE, 7);
+        world.setResource(ORIGIN, SolarEnergyTerrainProperty.HANDLE, -3);
+        assertEquals(world.harvestResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, 5), 5);
+        assertEquals(world.getResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, -1), 2);
+        assertEquals(world.getTerrainProperty(ORIGIN, SolarEnergyTerrainProperty.ID).getValue(), -3);
+        assertFalse(world.hasCell(3, 2));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> world.hasCell(10, 2));
+
+        world.clear();
+        assertEquals(world.getResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, -1), -1);
+    }
+
+    public void testFileCanBeReadExternally() throws IOException {
+        final File file = File.createTempFile("terrain", ".map");
+        file.deleteOnExit();
+        final MappedWorld world = new MappedWorld(new SpatialCoordinates(10, 12, 1),
+                new TestUniverse(ImmutableMap.of(MappedWorld.PROPERTY_FILE, file.getPath())), null);
+        world.setResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, 42);
+        world.force();
+
+        final ByteBuffer image = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(image.getInt(0), MappedWorld.MAGIC);
+        assertEquals(image.getInt(8), 10);
+        assertEquals(image.getInt(12), 12);
+
+        final MortonLayout layout = new MortonLayout(10, 12);
+        final long grid = image.getLong(32) + 4L * layout.size() * SoilNutrientsTerrainProperty.HANDLE;
+        assertEquals(image.getInt((int) (grid + 4L * layout.index(3, 2))) ^ Integer.MIN_VALUE, 42);
+        assertEquals(image.getInt((int) (grid + 4L * layout.index(4, 2))), 0);
+    }
+
+    public void testOwnersGetTheirOwnFile() throws IOException {
+        final File file = File.createTempFile("terrain", ".map");
+        file.deleteOnExit();
+        final TestUniverse universe = new TestUniverse(ImmutableMap.of(MappedWorld.PROPERTY_FILE, file.getPath()));
+        final MappedWorld first = new MappedWorld(new SpatialCoordinates(10, 10, 1), universe, null, "first");
+        first.getPath().toFile().deleteOnExit();
+        first.setResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, 42);
+
+        final MappedWorld second = new MappedWorld(new SpatialCoordinates(10, 10, 1), universe, null, "second");
+        second.getPath().toFile().deleteOnExit();
+
+        assertNotEquals(second.getPath(), first.getPath());
+        assertTrue(first.getPath().getFileName().toString().endsWith("-first.map"));
+        // creating the second did not truncate the first
+        assertEquals(first.getResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, -1), 42);
+        assertEquals(second.getResource(ORIGIN, SoilNutrientsTerrainProperty.HANDLE, -1), -1);
+    }
+
+    public void testReleaseDeletesTemporaryFile() {
+        final MappedWorld world = new MappedWorld(new SpatialCoordinates(10, 10, 1), new TestUniverse(ImmutableMap.of()), null);
+        assertTrue(Files.exists(world.getPath()));
+
+        world.release();
+
+        assertFalse(Files.exists(world.getPath()));
+    }
+}